@@ -2,8 +2,13 @@ package com.ims.inventory_management_system.config;
 
 import com.ims.inventory_management_system.entities.Role;
 import com.ims.inventory_management_system.entities.User;
+import com.ims.inventory_management_system.repositories.InventoryMovementRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.ProductRepository;
+import com.ims.inventory_management_system.repositories.ProductStockRepository;
 import com.ims.inventory_management_system.repositories.RoleRepository;
 import com.ims.inventory_management_system.repositories.UserRepository;
+import com.ims.inventory_management_system.services.ProductStockService;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
@@ -23,6 +28,11 @@ public class DatabaseInitializer {
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ProductRepository productRepository;
+    private final ProductStockRepository productStockRepository;
+    private final ProductStockService productStockService;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
     private final Environment env;  // To read config properties
 
     @PostConstruct
@@ -35,6 +45,17 @@ public class DatabaseInitializer {
         if (userRepository.count() == 0) {
             createAdminUser();
         }
+
+        // Backfill stock totals for databases created before the product_stocks table existed
+        if (productStockRepository.count() == 0 && productRepository.count() > 0) {
+            productStockService.rebuild();
+        }
+
+        // Seed the movement ledger with each row's current quantity for databases created before it existed, so the
+        // integrity check has a baseline to compare against
+        if (inventoryMovementRepository.count() == 0 && inventoryRepository.count() > 0) {
+            inventoryMovementRepository.insertOpeningBalances();
+        }
     }
 
     private void createRoles() {
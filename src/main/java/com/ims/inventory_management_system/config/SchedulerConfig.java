@@ -1,6 +1,11 @@
 package com.ims.inventory_management_system.config;
 
+import com.ims.inventory_management_system.services.InventoryCompactionService;
+import com.ims.inventory_management_system.services.InventoryExpiryService;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import com.ims.inventory_management_system.services.InventoryIntegrityService;
 import com.ims.inventory_management_system.services.PurchaseOrderService;
+import com.ims.inventory_management_system.services.StockLevelHistoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -12,10 +17,45 @@ import org.springframework.scheduling.annotation.Scheduled;
 public class SchedulerConfig {
 
     private final PurchaseOrderService purchaseOrderService;
+    private final InventoryExpiryService inventoryExpiryService;
+    private final InventoryValuationService inventoryValuationService;
+    private final StockLevelHistoryService stockLevelHistoryService;
+    private final InventoryIntegrityService inventoryIntegrityService;
+    private final InventoryCompactionService inventoryCompactionService;
 
     // Run every day at 2 AM
     @Scheduled(cron = "0 0 2 * * *")
     public void generateAutomaticPurchaseOrders() {
         purchaseOrderService.generateAutomaticPurchaseOrders();
     }
+
+    // Quarantine expired batches shortly after midnight
+    @Scheduled(cron = "${inventory.expiry.sweep-cron:0 15 0 * * *}")
+    public void sweepExpiredInventory() {
+        inventoryExpiryService.sweep();
+    }
+
+    // Archive and remove batch rows that have been empty for a while
+    @Scheduled(cron = "${inventory.compaction.cron:0 45 1 * * *}")
+    public void compactEmptyInventory() {
+        inventoryCompactionService.compact();
+    }
+
+    // Record stock levels per product and warehouse (daily by default)
+    @Scheduled(cron = "${inventory.history.snapshot-cron:0 0 0 * * *}")
+    public void snapshotStockLevels() {
+        stockLevelHistoryService.snapshot();
+    }
+
+    // Compare inventory balances with the running ledger checksums and the stored product totals
+    @Scheduled(cron = "${inventory.integrity.verify-cron:0 30 * * * *}")
+    public void verifyInventoryIntegrity() {
+        inventoryIntegrityService.verify(false);
+    }
+
+    // Write changed cost layers behind the in-memory valuation
+    @Scheduled(fixedDelayString = "${inventory.valuation.flush-interval-ms:5000}")
+    public void flushCostLayers() {
+        inventoryValuationService.flush();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.ims.inventory_management_system.controllers;
+
+import com.ims.inventory_management_system.dto.CycleCountDto;
+import com.ims.inventory_management_system.dto.CycleCountPostRequest;
+import com.ims.inventory_management_system.dto.CycleCountRequest;
+import com.ims.inventory_management_system.dto.CycleCountUploadRequest;
+import com.ims.inventory_management_system.dto.CycleCountVarianceReportDto;
+import com.ims.inventory_management_system.services.CycleCountService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/cycle-counts")
+@RequiredArgsConstructor
+public class CycleCountController {
+
+    private final CycleCountService cycleCountService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CycleCountDto> createCycleCount(@RequestBody CycleCountRequest request) {
+        return new ResponseEntity<>(cycleCountService.createCycleCount(request), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<CycleCountDto> getCycleCount(@PathVariable Long id) {
+        return ResponseEntity.ok(cycleCountService.getCycleCount(id));
+    }
+
+    @PostMapping("/{id}/counts")
+    public ResponseEntity<CycleCountDto> addCounts(@PathVariable Long id, @RequestBody CycleCountUploadRequest request) {
+        return ResponseEntity.ok(cycleCountService.addCounts(id, request.getLines()));
+    }
+
+    @GetMapping("/{id}/variances")
+    public ResponseEntity<CycleCountVarianceReportDto> getVariances(@PathVariable Long id) {
+        return ResponseEntity.ok(cycleCountService.getVariances(id));
+    }
+
+    @PostMapping("/{id}/post")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CycleCountDto> post(@PathVariable Long id, @RequestBody CycleCountPostRequest request) {
+        return ResponseEntity.ok(cycleCountService.post(id, request));
+    }
+
+    @PostMapping("/{id}/cancel")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<CycleCountDto> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(cycleCountService.cancel(id));
+    }
+}
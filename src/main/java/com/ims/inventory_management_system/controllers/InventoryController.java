@@ -1,30 +1,126 @@
 package com.ims.inventory_management_system.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentResponse;
+import com.ims.inventory_management_system.dto.BulkInventoryTransferRequest;
+import com.ims.inventory_management_system.dto.ExpirySweepResultDto;
 import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAgingJobDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationStatsDto;
+import com.ims.inventory_management_system.dto.InventoryAvailabilityRequest;
+import com.ims.inventory_management_system.dto.InventoryAvailabilityResponse;
+import com.ims.inventory_management_system.dto.InventoryCompactionResultDto;
+import com.ims.inventory_management_system.dto.InventoryCostLayerDto;
+import com.ims.inventory_management_system.dto.InventoryCursorPageDto;
 import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryHotspotsDto;
+import com.ims.inventory_management_system.dto.InventoryPartitioningDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityReportDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityStatsDto;
+import com.ims.inventory_management_system.dto.InventoryMatrixDto;
+import com.ims.inventory_management_system.dto.InventoryMatrixRequest;
+import com.ims.inventory_management_system.dto.InventoryMovementPageDto;
+import com.ims.inventory_management_system.dto.InventoryPivotDto;
+import com.ims.inventory_management_system.dto.InventoryPipelineStatsDto;
 import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.InventoryTransferStatsDto;
+import com.ims.inventory_management_system.dto.InventoryValuationDto;
+import com.ims.inventory_management_system.dto.InventoryValuationLineDto;
+import com.ims.inventory_management_system.dto.ProductStockDiscrepancyDto;
+import com.ims.inventory_management_system.dto.StockProjectionStatsDto;
+import com.ims.inventory_management_system.dto.StockSnapshotResultDto;
+import com.ims.inventory_management_system.services.InventoryAgingReportService;
+import com.ims.inventory_management_system.services.InventoryAvailabilityService;
+import com.ims.inventory_management_system.services.InventoryCompactionService;
+import com.ims.inventory_management_system.services.InventoryExpiryService;
+import com.ims.inventory_management_system.services.InventoryHotspotService;
+import com.ims.inventory_management_system.services.InventoryPartitioningService;
+import com.ims.inventory_management_system.services.InventoryIntegrityService;
+import com.ims.inventory_management_system.services.InventoryMatrixService;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.InventoryMutationPipeline;
+import com.ims.inventory_management_system.services.InventoryPivotService;
 import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockLevelHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/inventory")
 @RequiredArgsConstructor
 public class InventoryController {
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
     private final InventoryService inventoryService;
+    private final InventoryMutationPipeline inventoryMutationPipeline;
+    private final InventoryMovementService inventoryMovementService;
+    private final ProductStockService productStockService;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final InventoryExpiryService inventoryExpiryService;
+    private final InventoryCompactionService inventoryCompactionService;
+    private final InventoryAvailabilityService inventoryAvailabilityService;
+    private final InventoryMatrixService inventoryMatrixService;
+    private final InventoryPivotService inventoryPivotService;
+    private final InventoryHotspotService inventoryHotspotService;
+    private final InventoryPartitioningService inventoryPartitioningService;
+    private final InventoryValuationService inventoryValuationService;
+    private final InventoryAgingReportService inventoryAgingReportService;
+    private final StockLevelHistoryService stockLevelHistoryService;
+    private final InventoryIntegrityService inventoryIntegrityService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public ResponseEntity<List<InventoryDto>> getAllInventory() {
         return ResponseEntity.ok(inventoryService.getAllInventory());
     }
 
+    @GetMapping(produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllInventory() {
+        return streamInventory(null, null);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<InventoryCursorPageDto> getInventoryPage(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(inventoryService.getInventoryPage(productId, warehouseId, afterId, limit));
+    }
+
+    @GetMapping("/movements")
+    public ResponseEntity<InventoryMovementPageDto> getMovements(
+            @RequestParam(required = false) Long productId,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(inventoryMovementService.getMovements(productId, warehouseId, from, to, afterId, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<InventoryDto> getInventoryById(@PathVariable Long id) {
         return ResponseEntity.ok(inventoryService.getInventoryById(id));
@@ -35,21 +131,134 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getInventoryByProduct(productId));
     }
 
+    @GetMapping(value = "/product/{productId}", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInventoryByProduct(@PathVariable Long productId) {
+        return streamInventory(productId, null);
+    }
+
     @GetMapping("/warehouse/{warehouseId}")
     public ResponseEntity<List<InventoryDto>> getInventoryByWarehouse(@PathVariable Long warehouseId) {
         return ResponseEntity.ok(inventoryService.getInventoryByWarehouse(warehouseId));
     }
 
+    @GetMapping(value = "/warehouse/{warehouseId}", produces = NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamInventoryByWarehouse(@PathVariable Long warehouseId) {
+        return streamInventory(null, warehouseId);
+    }
+
     @GetMapping("/low-stock")
     public ResponseEntity<List<InventoryDto>> getLowStockInventory() {
         return ResponseEntity.ok(inventoryService.getLowStockInventory());
     }
 
+    @GetMapping("/low-stock/page")
+    public ResponseEntity<Page<InventoryDto>> getLowStockInventoryPage(Pageable pageable) {
+        return ResponseEntity.ok(inventoryService.getLowStockInventory(pageable));
+    }
+
     @GetMapping("/expiring")
     public ResponseEntity<List<InventoryDto>> getExpiringInventory(@RequestParam(defaultValue = "30") int daysToExpiry) {
         return ResponseEntity.ok(inventoryService.getExpiringInventory(daysToExpiry));
     }
 
+    @PostMapping("/availability")
+    public ResponseEntity<InventoryAvailabilityResponse> getAvailability(@Valid @RequestBody InventoryAvailabilityRequest request) {
+        return ResponseEntity.ok(inventoryAvailabilityService.getAvailability(request));
+    }
+
+    @PostMapping("/matrix")
+    public ResponseEntity<InventoryMatrixDto> getMatrix(@Valid @RequestBody InventoryMatrixRequest request) {
+        return ResponseEntity.ok(inventoryMatrixService.getMatrix(request.getProductIds()));
+    }
+
+    @PostMapping("/expiry/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ExpirySweepResultDto> sweepExpiredInventory() {
+        return ResponseEntity.ok(inventoryExpiryService.sweep());
+    }
+
+    @PostMapping("/compaction")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryCompactionResultDto> compactEmptyInventory() {
+        return ResponseEntity.ok(inventoryCompactionService.compact());
+    }
+
+    @GetMapping("/partitioning")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryPartitioningDto> getPartitioning() {
+        return ResponseEntity.ok(inventoryPartitioningService.getPartitioning());
+    }
+
+    @PostMapping("/partitioning")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryPartitioningDto> partitionByWarehouse() {
+        return ResponseEntity.ok(inventoryPartitioningService.partitionByWarehouse());
+    }
+
+    @PostMapping("/integrity/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryIntegrityReportDto> verifyIntegrity(@RequestParam(defaultValue = "false") boolean full) {
+        return ResponseEntity.ok(inventoryIntegrityService.verify(full));
+    }
+
+    @GetMapping("/integrity/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryIntegrityStatsDto> getIntegrityStats() {
+        return ResponseEntity.ok(inventoryIntegrityService.getStats());
+    }
+
+    @GetMapping("/hotspots")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryHotspotsDto> getHotspots(@RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(inventoryHotspotService.getHotspots(limit));
+    }
+
+    @PostMapping("/history/snapshot")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockSnapshotResultDto> snapshotStockLevels() {
+        return ResponseEntity.ok(stockLevelHistoryService.snapshot());
+    }
+
+    @GetMapping("/valuation")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryValuationDto> getValuation() {
+        return ResponseEntity.ok(inventoryValuationService.getValuation());
+    }
+
+    @GetMapping("/valuation/products/{productId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryValuationLineDto> getProductValuation(
+            @PathVariable Long productId,
+            @RequestParam(required = false) Long warehouseId) {
+        return ResponseEntity.ok(inventoryValuationService.getProductValuation(productId, warehouseId));
+    }
+
+    @GetMapping("/valuation/products/{productId}/warehouses/{warehouseId}/layers")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<List<InventoryCostLayerDto>> getCostLayers(@PathVariable Long productId,
+                                                                     @PathVariable Long warehouseId) {
+        return ResponseEntity.ok(inventoryValuationService.getCostLayers(productId, warehouseId));
+    }
+
+    @GetMapping("/pivot")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryPivotDto> pivot(
+            @RequestParam(required = false) List<InventoryPivotDto.Dimension> groupBy) {
+        return ResponseEntity.ok(inventoryPivotService.pivot(groupBy));
+    }
+
+    @PostMapping("/reports/aging")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryAgingJobDto> requestAgingReport(@RequestParam(defaultValue = "false") boolean refresh) {
+        return new ResponseEntity<>(inventoryAgingReportService.requestReport(refresh), HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/reports/aging")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryAgingJobDto> getAgingReport() {
+        return ResponseEntity.ok(inventoryAgingReportService.getReportJob());
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<InventoryDto> addInventory(@Valid @RequestBody InventoryDto inventoryDto) {
@@ -64,11 +273,28 @@ public class InventoryController {
 
     @PostMapping("/{id}/adjust")
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
-    public ResponseEntity<Void> adjustInventory(
+    public CompletableFuture<ResponseEntity<Void>> adjustInventory(
             @PathVariable Long id,
             @Valid @RequestBody InventoryAdjustmentRequest inventoryAdjustmentRequest) {
-        inventoryService.adjustInventory(id, inventoryAdjustmentRequest.getQuantityChange(), inventoryAdjustmentRequest.getReason());
-        return ResponseEntity.ok().build();
+        return inventoryMutationPipeline.submitAdjustment(id, inventoryAdjustmentRequest.getQuantityChange(), inventoryAdjustmentRequest.getReason())
+                .thenApply(result -> ResponseEntity.ok().<Void>build());
+    }
+
+    @GetMapping("/adjust/pipeline/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryPipelineStatsDto> getAdjustmentPipelineStats() {
+        return ResponseEntity.ok(inventoryMutationPipeline.getStats());
+    }
+
+    @PostMapping("/adjust/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<BulkInventoryAdjustmentResponse> adjustInventoryBulk(
+            @Valid @RequestBody BulkInventoryAdjustmentRequest bulkInventoryAdjustmentRequest) {
+        boolean allOrNothing = !Boolean.FALSE.equals(bulkInventoryAdjustmentRequest.getAllOrNothing());
+        BulkInventoryAdjustmentResponse response = inventoryService.adjustInventoryBulk(
+                bulkInventoryAdjustmentRequest.getAdjustments(), allOrNothing);
+        HttpStatus status = allOrNothing && response.getFailed() > 0 ? HttpStatus.BAD_REQUEST : HttpStatus.OK;
+        return new ResponseEntity<>(response, status);
     }
 
     @PostMapping("/{sourceId}/transfer")
@@ -80,10 +306,75 @@ public class InventoryController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/transfer/bulk")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<Void> transferInventoryBatch(
+            @Valid @RequestBody BulkInventoryTransferRequest bulkInventoryTransferRequest) {
+        inventoryService.transferInventoryBatch(bulkInventoryTransferRequest.getTransfers());
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/transfer/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryTransferStatsDto> getTransferStats() {
+        return ResponseEntity.ok(inventoryService.getTransferStats());
+    }
+
+    @PostMapping("/allocate")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<InventoryAllocationDto> allocateInventory(@Valid @RequestBody InventoryAllocationRequest request) {
+        return ResponseEntity.ok(inventoryService.allocateInventory(request));
+    }
+
+    @GetMapping("/allocate/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<InventoryAllocationStatsDto> getAllocationStats() {
+        return ResponseEntity.ok(inventoryService.getAllocationStats());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteInventory(@PathVariable Long id) {
         inventoryService.deleteInventory(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/stock-totals/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Integer> rebuildStockTotals() {
+        return ResponseEntity.ok(productStockService.rebuild());
+    }
+
+    @GetMapping("/stock-totals/verify")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ProductStockDiscrepancyDto>> verifyStockTotals() {
+        return ResponseEntity.ok(productStockService.verify());
+    }
+
+    @GetMapping("/projection/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockProjectionStatsDto> getStockProjectionStats() {
+        return ResponseEntity.ok(stockAvailabilityProjection.getStats());
+    }
+
+    // Rows are written as they come off the JDBC cursor, so memory use does not depend on the result size
+    private ResponseEntity<StreamingResponseBody> streamInventory(Long productId, Long warehouseId) {
+        StreamingResponseBody body = outputStream -> {
+            try {
+                inventoryService.streamInventory(productId, warehouseId, inventoryDto -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(inventoryDto));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON_VALUE))
+                .body(body);
+    }
 }
\ No newline at end of file
@@ -1,14 +1,25 @@
 package com.ims.inventory_management_system.controllers;
 
+import com.ims.inventory_management_system.dto.AvailableToPromiseDto;
+import com.ims.inventory_management_system.dto.BulkAvailableToPromiseRequest;
 import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.StockLevelHistoryDto;
+import com.ims.inventory_management_system.services.AvailableToPromiseService;
+import com.ims.inventory_management_system.services.InventoryHotspotService;
 import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.StockLevelHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +28,9 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final AvailableToPromiseService availableToPromiseService;
+    private final StockLevelHistoryService stockLevelHistoryService;
+    private final InventoryHotspotService inventoryHotspotService;
 
     @GetMapping
     public ResponseEntity<List<ProductDto>> getAllProducts() {
@@ -25,12 +39,16 @@ public class ProductController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+        ProductDto productDto = productService.getProductById(id);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(productDto);
     }
 
     @GetMapping("/sku/{sku}")
     public ResponseEntity<ProductDto> getProductBySku(@PathVariable String sku) {
-        return ResponseEntity.ok(productService.getProductBySku(sku));
+        ProductDto productDto = productService.getProductBySku(sku);
+        inventoryHotspotService.recordProductLookup(productDto.getId());
+        return ResponseEntity.ok(productDto);
     }
 
     @GetMapping("/search")
@@ -53,6 +71,11 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsBelowMinStockLevel());
     }
 
+    @GetMapping("/low-stock/page")
+    public ResponseEntity<Page<ProductDto>> getProductsBelowMinStockLevelPage(Pageable pageable) {
+        return ResponseEntity.ok(productService.getProductsBelowMinStockLevel(pageable));
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
     public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody ProductDto productDto) {
@@ -74,6 +97,52 @@ public class ProductController {
 
     @GetMapping("/{id}/stock")
     public ResponseEntity<Integer> getCurrentStockLevel(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getCurrentStockLevel(id));
+        Integer stockLevel = productService.getCurrentStockLevel(id);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(stockLevel);
+    }
+
+    @GetMapping("/{id}/stock/warehouse/{warehouseId}")
+    public ResponseEntity<Integer> getCurrentStockLevelInWarehouse(@PathVariable Long id, @PathVariable Long warehouseId) {
+        Integer stockLevel = productService.getCurrentStockLevel(id, warehouseId);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(stockLevel);
+    }
+
+    @GetMapping("/{id}/stock/available")
+    public ResponseEntity<Integer> getAvailableToSell(@PathVariable Long id) {
+        Integer availableToSell = productService.getAvailableToSell(id);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(availableToSell);
+    }
+
+    @GetMapping("/{id}/stock/warehouse/{warehouseId}/available")
+    public ResponseEntity<Integer> getAvailableToSellInWarehouse(@PathVariable Long id, @PathVariable Long warehouseId) {
+        Integer availableToSell = productService.getAvailableToSell(id, warehouseId);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(availableToSell);
+    }
+
+    @GetMapping("/{id}/stock/history")
+    public ResponseEntity<List<StockLevelHistoryDto>> getStockHistory(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long warehouseId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(stockLevelHistoryService.getProductHistory(id, warehouseId, from, to));
+    }
+
+    @GetMapping("/{id}/atp")
+    public ResponseEntity<AvailableToPromiseDto> getAvailableToPromise(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        AvailableToPromiseDto availableToPromise = availableToPromiseService.getAvailableToPromise(id, date);
+        inventoryHotspotService.recordProductLookup(id);
+        return ResponseEntity.ok(availableToPromise);
+    }
+
+    @PostMapping("/atp")
+    public ResponseEntity<List<AvailableToPromiseDto>> getAvailableToPromise(@Valid @RequestBody BulkAvailableToPromiseRequest request) {
+        return ResponseEntity.ok(availableToPromiseService.getAvailableToPromise(request.getQueries()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.ims.inventory_management_system.controllers;
+
+import com.ims.inventory_management_system.dto.StockReservationDto;
+import com.ims.inventory_management_system.dto.StockReservationRequest;
+import com.ims.inventory_management_system.dto.StockReservationStatsDto;
+import com.ims.inventory_management_system.services.StockReservationService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/reservations")
+@RequiredArgsConstructor
+public class StockReservationController {
+
+    private final StockReservationService stockReservationService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER', 'USER')")
+    public ResponseEntity<StockReservationDto> reserve(@Valid @RequestBody StockReservationRequest request) {
+        return new ResponseEntity<>(stockReservationService.reserve(request), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StockReservationDto> getReservation(@PathVariable Long id) {
+        return ResponseEntity.ok(stockReservationService.getReservation(id));
+    }
+
+    @PostMapping("/{id}/confirm")
+    @PreAuthorize("hasAnyRole('ADMIN', 'MANAGER')")
+    public ResponseEntity<StockReservationDto> confirm(@PathVariable Long id) {
+        return ResponseEntity.ok(stockReservationService.confirm(id));
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockReservationDto> release(@PathVariable Long id) {
+        return ResponseEntity.ok(stockReservationService.release(id));
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockReservationStatsDto> getStats() {
+        return ResponseEntity.ok(stockReservationService.getStats());
+    }
+}
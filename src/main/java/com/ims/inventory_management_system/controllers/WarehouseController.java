@@ -1,14 +1,18 @@
 package com.ims.inventory_management_system.controllers;
 
+import com.ims.inventory_management_system.dto.StockLevelDto;
 import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.services.StockLevelHistoryService;
 import com.ims.inventory_management_system.services.WarehouseService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,6 +21,7 @@ import java.util.List;
 public class WarehouseController {
 
     private final WarehouseService warehouseService;
+    private final StockLevelHistoryService stockLevelHistoryService;
 
     @GetMapping
     public ResponseEntity<List<WarehouseDto>> getAllWarehouses() {
@@ -28,6 +33,13 @@ public class WarehouseController {
         return ResponseEntity.ok(warehouseService.getWarehouseById(id));
     }
 
+    @GetMapping("/{id}/stock/as-of")
+    public ResponseEntity<List<StockLevelDto>> getStockAsOf(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime timestamp) {
+        return ResponseEntity.ok(stockLevelHistoryService.getWarehouseStockAsOf(id, timestamp));
+    }
+
     @GetMapping("/active")
     public ResponseEntity<List<WarehouseDto>> getActiveWarehouses() {
         return ResponseEntity.ok(warehouseService.getActiveWarehouses());
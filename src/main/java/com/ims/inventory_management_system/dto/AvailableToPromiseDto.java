@@ -0,0 +1,21 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailableToPromiseDto {
+    private Long productId;
+    private LocalDate date;
+    private int onHand;
+    private int reserved;
+    private int incoming; // Open purchase order quantity expected on or before the date
+    private int availableToPromise; // onHand - reserved + incoming
+}
@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AvailableToPromiseQuery {
+    @NotNull(message = "Product id is required")
+    private Long productId;
+    private LocalDate date; // Defaults to today
+}
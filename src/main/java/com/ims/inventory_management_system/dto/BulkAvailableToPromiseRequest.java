@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkAvailableToPromiseRequest {
+    // Each query is answered on its own, so the cap matches the other per-product bulk reads
+    @NotEmpty(message = "At least one query is required")
+    @Size(max = 1000, message = "At most 1000 queries are allowed per request")
+    @Valid
+    private List<AvailableToPromiseQuery> queries;
+}
@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkInventoryAdjustmentRequest {
+    @NotEmpty(message = "At least one adjustment is required")
+    @Valid
+    private List<InventoryAdjustmentRequest> adjustments;
+
+    @Builder.Default
+    private Boolean allOrNothing = true; // false applies every valid line and reports the rest as failed
+}
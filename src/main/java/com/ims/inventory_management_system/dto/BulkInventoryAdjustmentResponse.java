@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkInventoryAdjustmentResponse {
+    private boolean allOrNothing;
+    private int applied;
+    private int failed;
+    private List<InventoryAdjustmentResultDto> results;
+}
@@ -0,0 +1,26 @@
+package com.ims.inventory_management_system.dto;
+
+import com.ims.inventory_management_system.entities.CycleCount;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountDto {
+    private Long id;
+    private Long warehouseId;
+    private Boolean fullCount;
+    private CycleCount.Status status;
+    private Integer countedLines;
+    private String reason;
+    private LocalDateTime createdAt;
+    private LocalDateTime postedAt;
+    private Integer adjustedRows;
+    private Integer netQuantityChange;
+}
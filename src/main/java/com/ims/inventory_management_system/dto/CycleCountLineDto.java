@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountLineDto {
+    private Long productId;
+    private Long warehouseId; // Optional; must match the cycle count's warehouse when given
+    private String batchNumber;
+    private String location;
+    private Integer countedQuantity;
+}
@@ -0,0 +1,17 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountPostRequest {
+    private String reason;
+    private List<Long> inventoryIds; // Approved variances; null posts every variance
+}
@@ -0,0 +1,15 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountRequest {
+    private Long warehouseId;
+    private Boolean fullCount = false; // true takes rows of the warehouse that were not counted as counted zero
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountVarianceDto {
+    private Long inventoryId; // null when the counted batch has no inventory row in the warehouse
+    private Long productId;
+    private String batchNumber;
+    private String location;
+    private Integer systemQuantity;
+    private Integer countedQuantity;
+    private Integer variance;
+}
@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountVarianceReportDto {
+    private Long cycleCountId;
+    private int countedLines;
+    private int rowsInScope;
+    private int rowsWithVariance;
+    private long netVariance;
+    private List<CycleCountVarianceDto> variances;
+    private List<CycleCountVarianceDto> unmatched; // Counted, but no inventory row to adjust
+    private long computeMillis;
+}
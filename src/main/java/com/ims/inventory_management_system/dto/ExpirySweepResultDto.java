@@ -0,0 +1,17 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExpirySweepResultDto {
+    private int quarantinedBatches;
+    private int scheduledBatches; // Non-empty dated rows left in the schedule after the rebuild
+    private int scheduledDays;
+    private long sweepMillis;
+}
@@ -0,0 +1,16 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotKeyDto {
+    private Long id;
+    private String sku; // Products only
+    private long count; // Estimated events in the window; may be slightly high, never low
+}
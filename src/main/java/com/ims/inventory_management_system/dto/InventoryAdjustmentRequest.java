@@ -1,5 +1,6 @@
 package com.ims.inventory_management_system.dto;
 
+import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class InventoryAdjustmentRequest {
+    private Long inventoryId; // Only used by bulk adjustments; single adjustments take the id from the path
+
+    @NotNull(message = "Quantity change is required")
     private Integer quantityChange;
+
     private String reason;
 }
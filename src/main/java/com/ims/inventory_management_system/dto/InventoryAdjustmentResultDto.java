@@ -0,0 +1,22 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAdjustmentResultDto {
+    private int line;
+    private Long inventoryId;
+    private Status status;
+    private Integer newQuantity;
+    private String message;
+
+    public enum Status {
+        APPLIED, FAILED, NOT_APPLIED
+    }
+}
@@ -0,0 +1,24 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAgingJobDto {
+    private Status status;
+    private LocalDateTime requestedAt;
+    private LocalDateTime completedAt;
+    private String error;
+    private InventoryAgingReportDto report; // Latest completed report; while a refresh runs, the previous one
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAgingLineDto {
+    private Long id; // Warehouse or category id; null for the total and for products without a category
+    private List<Long> quantities; // One entry per age bucket
+    private List<BigDecimal> values; // At cost-layer cost, one entry per age bucket
+}
@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAgingReportDto {
+    private List<String> buckets;
+    private InventoryAgingLineDto total;
+    private List<InventoryAgingLineDto> warehouses;
+    private List<InventoryAgingLineDto> categories;
+    private long rows; // Cost layers read
+    private LocalDateTime generatedAt;
+    private long generationMillis;
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAllocationDto {
+    private Long productId;
+    private Long warehouseId;
+    private int requestedQuantity;
+    private int allocatedQuantity;
+    private List<InventoryAllocationLineDto> lines; // In pick order: earliest expiry first
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAllocationLineDto {
+    private Long inventoryId;
+    private String batchNumber;
+    private LocalDate expiryDate;
+    private int quantity;
+    private int remainingQuantity;
+}
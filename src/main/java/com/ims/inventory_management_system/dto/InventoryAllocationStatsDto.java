@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAllocationStatsDto {
+    // Cumulative since startup; sample twice and diff the counters for throughput
+    private long allocations;
+    private long allocatedUnits;
+    private long rejectedAllocations; // Not enough unexpired stock and partial picks not allowed
+    private long conflicts; // Batches drained by a concurrent pick between reading and decrementing them
+    private long lockFailures;
+    private double averageAllocationMillis;
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAvailabilityRequest {
+    // Either or both; a product asked for by id and by SKU is returned once
+    private List<@NotNull(message = "Product ids must not be null") Long> productIds;
+    private List<@NotBlank(message = "SKUs must not be blank") String> skus;
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryAvailabilityResponse {
+    private List<ProductAvailabilityDto> products; // In request order, ids first
+    private List<Long> unknownProductIds;
+    private List<String> unknownSkus;
+}
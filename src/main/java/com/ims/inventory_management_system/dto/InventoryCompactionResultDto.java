@@ -0,0 +1,27 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryCompactionResultDto {
+    private LocalDateTime emptiedBefore;
+    private boolean archived;
+    private int reclaimedRows;
+    private int archivedRows;
+    private int skippedRows; // Candidates that took stock again before their chunk was locked
+    private int chunks;
+    // Sizes in bytes, PostgreSQL only; deleted rows are reused after vacuum rather than returned to the OS
+    private Long tableBytesBefore;
+    private Long tableBytesAfter;
+    private Long indexBytesBefore;
+    private Long indexBytesAfter;
+    private long compactionMillis;
+}
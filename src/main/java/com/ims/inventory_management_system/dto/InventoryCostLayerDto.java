@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryCostLayerDto {
+    private BigDecimal unitCost;
+    private Integer quantity;
+    private LocalDateTime receivedAt;
+}
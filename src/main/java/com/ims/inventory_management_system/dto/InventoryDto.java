@@ -5,6 +5,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
@@ -22,5 +23,7 @@ public class InventoryDto {
     private String batchNumber;
     private LocalDate expiryDate;
     private String location;
+    private BigDecimal unitCost; // Purchase cost of received units; defaults to the product cost price
     private Boolean lowStock;
+    private Boolean quarantined;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryHotspotsDto {
+    private boolean enabled;
+    private long windowSeconds;
+    private List<HotKeyDto> mutatedProducts;
+    private List<HotKeyDto> lookedUpProducts;
+    private List<HotKeyDto> mutatedWarehouses;
+    private List<HotKeyDto> mutatedInventoryRows;
+    // Cumulative since startup
+    private long recordedMutations;
+    private long recordedLookups;
+    private int candidates; // Keys currently tracked for the top lists, all trackers
+    private long footprintBytes; // Sketch counters of all trackers
+}
@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryIntegrityMismatchDto {
+    private Scope scope;
+    private Long inventoryId; // null for product totals
+    private Long warehouseId; // null for product totals
+    private Long productId;
+    private Integer expectedQuantity; // Net of the movement ledger, or the stored product total
+    private Integer actualQuantity; // Quantity of the inventory row, or the sum over the product's rows
+
+    public enum Scope {
+        BALANCE, PRODUCT_TOTAL
+    }
+}
@@ -0,0 +1,27 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryIntegrityReportDto {
+    private boolean full; // Balances checked against the stored ledger rather than the running in-memory checksums
+    private LocalDateTime checkedAt;
+    private long rowsScanned;
+    private int bucketsChecked;
+    private int mismatchedBuckets;
+    // Buckets whose checksums differed but held no differing row on a closer read: changed during the check, or
+    // ledger entries not written yet
+    private int unresolvedBuckets;
+    private int rangeQueries;
+    private List<InventoryIntegrityMismatchDto> mismatches;
+    private long durationMillis;
+}
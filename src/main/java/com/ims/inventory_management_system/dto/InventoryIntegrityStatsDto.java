@@ -0,0 +1,27 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryIntegrityStatsDto {
+    // Cumulative since startup
+    private long runs;
+    private long fullRuns;
+    private long mismatchedBuckets;
+    private long mismatches;
+    private long rangeQueries;
+    private double averageRunMillis;
+    private int trackedRows; // Inventory rows with a non-zero net in the running ledger checksums
+    private LocalDateTime lastRunAt;
+    private Integer lastRunMismatches;
+    private long droppedMovements; // Committed movements the ledger failed to store
+    private LocalDateTime lastDroppedAt;
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMatrixDto {
+    private long[] warehouseIds; // Active warehouses, ascending
+    private long[] productIds; // Distinct requested ids, ascending
+    // Row-major: the quantity of productIds[p] in warehouseIds[w] is at w * productIds.length + p
+    private int[] quantities;
+    private long dataVersion;
+}
@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMatrixRequest {
+    @NotEmpty(message = "At least one product id is required")
+    private List<@NotNull(message = "Product ids must not be null") Long> productIds;
+}
@@ -0,0 +1,28 @@
+package com.ims.inventory_management_system.dto;
+
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovementDto {
+    private Long id;
+    private Long inventoryId;
+    private Long productId;
+    private Long warehouseId;
+    private InventoryMovement.MovementType movementType;
+    private Integer quantityChange;
+    private Integer resultingQuantity;
+    private BigDecimal unitCost;
+    private String reason;
+    private String username;
+    private LocalDateTime occurredAt;
+}
@@ -0,0 +1,17 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovementPageDto {
+    private List<InventoryMovementDto> items;
+    private Long nextCursor; // Pass as afterId to fetch the next page; null when there are no more rows
+}
@@ -0,0 +1,16 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryPartitionDto {
+    private String name;
+    private long estimatedRows; // Planner estimate as of the last (auto)analyze
+    private long tableBytes;
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryPartitioningDto {
+    private boolean partitioned;
+    private List<InventoryPartitionDto> partitions;
+    // Set only on the response of the migration itself
+    private Long migratedRows;
+    private Long migrationMillis;
+}
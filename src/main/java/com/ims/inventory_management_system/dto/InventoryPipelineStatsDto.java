@@ -0,0 +1,24 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryPipelineStatsDto {
+    private boolean enabled;
+    private int queueDepth;
+    private long batches;
+    private long adjustments;
+    private long rejectedAdjustments;
+    private long saturatedAdjustments; // Turned away with 503 because the queue was full
+    private long failedBatches;
+    private double averageBatchSize;
+    private int maxBatchSize;
+    private double averageCommitMillis;
+    private double maxCommitMillis;
+}
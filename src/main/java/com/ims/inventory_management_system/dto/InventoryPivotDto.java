@@ -0,0 +1,23 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryPivotDto {
+    // Warehouse, category, supplier and product keys are ids; expiry months are "yyyy-MM"
+    public enum Dimension {
+        WAREHOUSE, CATEGORY, SUPPLIER, PRODUCT, EXPIRY_MONTH, BATCH
+    }
+
+    private List<Dimension> groupBy;
+    private List<InventoryPivotRowDto> rows;
+    private long pivotMillis;
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryPivotRowDto {
+    private List<Object> keys; // One per group-by dimension, in request order; null for no category, supplier, expiry or batch
+    private long quantity;
+    private long skuCount; // Distinct products in the group
+    private BigDecimal valueAtCost;
+}
@@ -10,6 +10,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @Builder
 public class InventoryTransferRequest {
+    private Long sourceInventoryId; // Only used by bulk transfers; single transfers take the id from the path
     private Long destinationWarehouseId;
     private Integer quantity;
 }
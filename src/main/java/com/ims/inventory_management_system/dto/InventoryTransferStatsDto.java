@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryTransferStatsDto {
+    // Cumulative since startup; sample twice and diff the counters for throughput
+    private long committedBatches;
+    private long committedLines;
+    private long failedBatches;
+    private long lockFailures; // Deadlocks and lock timeouts; should stay at zero with ordered locking
+    private double averageBatchMillis;
+}
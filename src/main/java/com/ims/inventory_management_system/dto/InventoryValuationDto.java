@@ -0,0 +1,22 @@
+package com.ims.inventory_management_system.dto;
+
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryValuationDto {
+    private InventoryValuationService.Method method;
+    private Long totalQuantity;
+    private BigDecimal totalValue;
+    private List<InventoryValuationLineDto> warehouses;
+    private List<InventoryValuationLineDto> categories;
+}
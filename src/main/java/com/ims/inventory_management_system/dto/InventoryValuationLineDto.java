@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryValuationLineDto {
+    private Long id; // Warehouse, category or product id; null for products without a category
+    private Long quantity;
+    private BigDecimal value;
+}
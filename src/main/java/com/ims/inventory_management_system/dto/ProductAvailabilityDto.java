@@ -0,0 +1,19 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductAvailabilityDto {
+    private Long productId;
+    private String sku;
+    private Integer totalQuantity;
+    private List<WarehouseStockDto> warehouses; // Warehouses with a non-zero quantity, by id
+}
@@ -31,4 +31,5 @@ public class ProductDto {
     private Long defaultSupplierId;
     private String defaultSupplierName;
     private Integer currentStockLevel;
+    private Integer availableToSell; // On hand minus active reservations
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStockDiscrepancyDto {
+    private Long productId;
+    private Integer storedQuantity;
+    private Integer actualQuantity;
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLevelHistoryDto {
+    private Long productId;
+    private Long warehouseId;
+    private List<StockLevelPointDto> points; // Level at the start of the range, then each change
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockProjectionStatsDto {
+    private int products;
+    private int productWarehousePairs;
+    private long footprintBytes; // Backing arrays of both maps
+    private long loadMillis;
+    private long appliedChanges;
+}
@@ -0,0 +1,24 @@
+package com.ims.inventory_management_system.dto;
+
+import com.ims.inventory_management_system.entities.StockReservation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationDto {
+    private Long id;
+    private Long productId;
+    private Long warehouseId;
+    private Integer quantity;
+    private String reference;
+    private StockReservation.Status status;
+    private LocalDateTime expiresAt;
+    private String username;
+}
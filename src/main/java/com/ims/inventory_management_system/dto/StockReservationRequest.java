@@ -0,0 +1,29 @@
+package com.ims.inventory_management_system.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @NotNull(message = "Warehouse id is required")
+    private Long warehouseId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+
+    private String reference;
+
+    @Positive(message = "TTL must be positive")
+    private Long ttlSeconds; // Defaults to inventory.reservations.default-ttl-seconds
+}
@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationStatsDto {
+    private int activeHolds;
+    private long reservedUnits;
+    // Cumulative since startup
+    private long created;
+    private long confirmed;
+    private long released;
+    private long expired;
+}
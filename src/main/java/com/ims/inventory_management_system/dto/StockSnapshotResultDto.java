@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshotResultDto {
+    private LocalDateTime snapshotAt;
+    private boolean keyframe; // First snapshot of the month: every non-empty pair was written
+    private int pairs;
+    private int entriesWritten;
+    private long snapshotMillis;
+}
@@ -0,0 +1,576 @@
+package com.ims.inventory_management_system.engine;
+
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Authoritative inventory quantities held in memory. Every mutation is journaled before it is applied,
+// and the inventories and product_stocks tables are brought up to date in the background.
+@Component
+@ConditionalOnProperty(name = "inventory.engine.mode", havingValue = "memory")
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+public class InMemoryStockEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStockEngine.class);
+
+    // Rows touched by write-through operations shortly before the snapshot are re-read from the database on restart
+    private static final long RELOAD_MARGIN_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final int RELOAD_CHUNK_SIZE = 1000;
+
+    private static final String ROW_COLUMNS = "id, product_id, warehouse_id, batch_number, quantity";
+
+    private static final String FLUSH_ROW_SQL =
+            "UPDATE inventories SET quantity = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? AND warehouse_id = ?";
+
+    // Rows replayed from the journal during recovery do not know their warehouse until they are re-read
+    private static final String FLUSH_ROW_BY_ID_SQL =
+            "UPDATE inventories SET quantity = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private static final String FLUSH_TOTAL_SQL =
+            "UPDATE product_stocks SET total_quantity = ?, updated_at = CURRENT_TIMESTAMP WHERE product_id = ?";
+
+    private static final String INSERT_TOTAL_SQL =
+            "INSERT INTO product_stocks (product_id, total_quantity, created_at, updated_at) " +
+            "VALUES (?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE inventory_engine_checkpoints SET journal_sequence = ?, updated_at = CURRENT_TIMESTAMP";
+
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO inventory_engine_checkpoints (journal_sequence, created_at, updated_at) " +
+            "VALUES (?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+
+    @Value("${inventory.engine.data-dir:data/inventory-engine}")
+    private String dataDir;
+
+    @Value("${inventory.engine.journal-segment-mb:64}")
+    private int journalSegmentMb;
+
+    @Value("${inventory.engine.journal-force:true}")
+    private boolean journalForce;
+
+    @Value("${inventory.engine.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${inventory.engine.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${inventory.engine.snapshot-interval-seconds:300}")
+    private long snapshotIntervalSeconds;
+
+    // Lock order is always flushLock before stateLock
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ReentrantLock stateLock = new ReentrantLock();
+
+    private StockRowTable rows;
+    private final LongIntHashMap productTotals = new LongIntHashMap();
+    private final Map<RowKey, Long> rowIds = new HashMap<>();
+    private final Set<Long> dirtyRows = new HashSet<>();
+    private final Set<Long> dirtyProducts = new HashSet<>();
+    private long flushedSequence;
+
+    private StockJournal journal;
+    private StockSnapshotStore snapshots;
+    private ScheduledExecutorService scheduler;
+
+    public record Row(long id, long productId, long warehouseId, String batchNumber, int quantity) {
+    }
+
+    private record RowKey(long productId, long warehouseId, String batchNumber) {
+    }
+
+    private record PendingQuantity(long id, int quantity) {
+    }
+
+    // The warehouse lets the write-back reach a row of a partitioned table without probing every partition
+    private record PendingRow(long id, long warehouseId, int quantity) {
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = Path.of(dataDir);
+        journal = new StockJournal(directory, journalSegmentMb * 1024 * 1024, journalForce);
+        snapshots = new StockSnapshotStore(directory);
+
+        long startedAt = System.nanoTime();
+        flushLock.lock();
+        stateLock.lock();
+        try {
+            recover();
+        } finally {
+            stateLock.unlock();
+            flushLock.unlock();
+        }
+        logger.info("In-memory stock engine recovered {} rows for {} products in {} ms (journal sequence {})",
+                rows.size(), productTotals.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt),
+                journal.lastSequence());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-engine-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException, InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        try {
+            snapshot();
+        } finally {
+            journal.close();
+        }
+    }
+
+    public Integer quantity(long inventoryId) {
+        stateLock.lock();
+        try {
+            int slot = rows.find(inventoryId);
+            return slot >= 0 ? rows.quantityAt(slot) : null;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    public Row row(long inventoryId) {
+        stateLock.lock();
+        try {
+            int slot = rows.find(inventoryId);
+            if (slot < 0) {
+                return null;
+            }
+            return new Row(inventoryId, rows.productIdAt(slot), rows.warehouseIdAt(slot),
+                    rows.batchNumberAt(slot), rows.quantityAt(slot));
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    public Long findRowId(long productId, long warehouseId, String batchNumber) {
+        stateLock.lock();
+        try {
+            return rowIds.get(new RowKey(productId, warehouseId, batchNumber));
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    public int productTotal(long productId) {
+        stateLock.lock();
+        try {
+            return productTotals.get(productId, 0);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Journals and applies a quantity change and returns the row as left by it; the row never goes below zero
+    public Row adjust(long inventoryId, int quantityChange) {
+        stateLock.lock();
+        try {
+            int slot = rows.find(inventoryId);
+            if (slot < 0) {
+                throw new ResourceNotFoundException("Inventory not found with id: " + inventoryId);
+            }
+            int currentQuantity = rows.quantityAt(slot);
+            int newQuantity = currentQuantity + quantityChange;
+            if (newQuantity < 0) {
+                throw new InsufficientInventoryException("Cannot adjust inventory below zero. Current: " +
+                        currentQuantity + ", Change: " + quantityChange);
+            }
+            long productId = rows.productIdAt(slot);
+            append(inventoryId, productId, newQuantity);
+            rows.setQuantityAt(slot, newQuantity);
+            productTotals.addTo(productId, quantityChange);
+            dirtyRows.add(inventoryId);
+            dirtyProducts.add(productId);
+            stockAvailabilityProjection.recordChange(productId, rows.warehouseIdAt(slot), quantityChange);
+            return new Row(inventoryId, productId, rows.warehouseIdAt(slot), rows.batchNumberAt(slot), newQuantity);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Runs several reads and adjustments as one step that no other mutation can interleave with
+    public <T> T atomically(Supplier<T> action) {
+        stateLock.lock();
+        try {
+            return action.get();
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // For operations the engine cannot apply in memory (new rows, deletes, non-quantity fields): pending changes are
+    // flushed first so the database operation sees current quantities, and in-memory mutations wait until it returns.
+    // The operation must call reload for every row it touched.
+    public <T> T writeThrough(Supplier<T> operation) {
+        flushLock.lock();
+        try {
+            flushPending();
+            stateLock.lock();
+            try {
+                return operation.get();
+            } finally {
+                stateLock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Re-reads the given rows after a write-through operation; ids the table no longer has are dropped
+    public void reload(Collection<Long> inventoryIds) {
+        stateLock.lock();
+        try {
+            Set<Long> found = reloadWhere("id", inventoryIds);
+            for (Long inventoryId : new LinkedHashSet<>(inventoryIds)) {
+                int slot = rows.find(inventoryId);
+                if (slot >= 0 && !found.contains(inventoryId)) {
+                    append(inventoryId, rows.productIdAt(slot), StockJournal.REMOVED);
+                    removeRow(inventoryId);
+                }
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Re-reads every row of the given products, picking up rows a write-through operation created
+    public void reloadProducts(Collection<Long> productIds) {
+        stateLock.lock();
+        try {
+            reloadWhere("product_id", productIds);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    // Blocks until every acknowledged mutation is in the database
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void snapshot() throws IOException {
+        flushLock.lock();
+        try {
+            flushPending();
+            stateLock.lock();
+            try {
+                long sequence = journal.lastSequence();
+                snapshots.write(sequence, System.currentTimeMillis(), rows);
+                // Every record up to the snapshot is covered by it, so the journal restarts after it
+                journal.open(sequence);
+                journal.deleteSegmentsBefore(journal.currentSegmentStartSequence());
+            } finally {
+                stateLock.unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        rows = new StockRowTable(1024);
+        StockSnapshotStore.Header header = snapshots.read(rows);
+        long checkpoint = readCheckpoint();
+        flushedSequence = checkpoint;
+
+        long replayAfter;
+        long snapshotMaxId;
+        if (header != null) {
+            replayAfter = header.sequence();
+            snapshotMaxId = rows.maxId();
+        } else {
+            // No usable snapshot: the database is the base state and holds every record up to the checkpoint
+            rows = new StockRowTable(countRows());
+            jdbcTemplate.query("SELECT " + ROW_COLUMNS + " FROM inventories", (ResultSet rs) -> {
+                putRow(rs);
+            });
+            replayAfter = checkpoint;
+            snapshotMaxId = Long.MAX_VALUE;
+        }
+
+        long lastSequence = journal.replay(replayAfter, (sequence, inventoryId, productId, quantity) -> {
+            if (quantity == StockJournal.REMOVED) {
+                rows.remove(inventoryId);
+                return;
+            }
+            int slot = rows.find(inventoryId);
+            if (slot >= 0) {
+                rows.setQuantityAt(slot, quantity);
+            } else {
+                // Row created after the snapshot; its warehouse and batch are re-read below
+                rows.put(inventoryId, productId, 0, null, quantity);
+            }
+            if (sequence > checkpoint) {
+                dirtyRows.add(inventoryId);
+            }
+        });
+        rebuildIndexes();
+        for (Long inventoryId : dirtyRows) {
+            int slot = rows.find(inventoryId);
+            if (slot >= 0) {
+                dirtyProducts.add(rows.productIdAt(slot));
+            }
+        }
+        journal.open(Math.max(lastSequence, Math.max(replayAfter, checkpoint)));
+        flushPending();
+
+        if (header != null) {
+            // Write-through operations that committed without reaching the journal are picked up from the table
+            Timestamp since = new Timestamp(header.takenAtMillis() - RELOAD_MARGIN_MILLIS);
+            jdbcTemplate.query("SELECT " + ROW_COLUMNS + " FROM inventories WHERE updated_at >= ? OR id > ?",
+                    (ResultSet rs) -> {
+                        putRow(rs);
+                    }, since, snapshotMaxId);
+            if (countRows() != rows.size()) {
+                Set<Long> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT id FROM inventories", Long.class));
+                List<Long> missing = new ArrayList<>();
+                rows.forEach((id, productId, warehouseId, batchNumber, quantity) -> {
+                    if (!existing.contains(id)) {
+                        missing.add(id);
+                    }
+                });
+                missing.forEach(rows::remove);
+            }
+            rebuildIndexes();
+        }
+
+        snapshots.write(journal.lastSequence(), System.currentTimeMillis(), rows);
+        journal.deleteSegmentsBefore(journal.currentSegmentStartSequence());
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Inventory engine flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("Inventory engine snapshot failed", e);
+        }
+    }
+
+    // Caller holds flushLock. Quantities are written as absolute values, so a retried flush is harmless.
+    private void flushPending() {
+        List<PendingRow> pendingRows = new ArrayList<>();
+        List<PendingQuantity> pendingTotals = new ArrayList<>();
+        long sequence;
+        stateLock.lock();
+        try {
+            sequence = journal.lastSequence();
+            if (sequence == flushedSequence && dirtyRows.isEmpty() && dirtyProducts.isEmpty()) {
+                return;
+            }
+            for (Long inventoryId : dirtyRows) {
+                int slot = rows.find(inventoryId);
+                if (slot >= 0) {
+                    pendingRows.add(new PendingRow(inventoryId, rows.warehouseIdAt(slot), rows.quantityAt(slot)));
+                }
+            }
+            for (Long productId : dirtyProducts) {
+                pendingTotals.add(new PendingQuantity(productId, productTotals.get(productId, 0)));
+            }
+            dirtyRows.clear();
+            dirtyProducts.clear();
+        } finally {
+            stateLock.unlock();
+        }
+
+        List<Long> vanished;
+        try {
+            vanished = transactionTemplate.execute(status -> writePending(pendingRows, pendingTotals, sequence));
+        } catch (RuntimeException e) {
+            stateLock.lock();
+            try {
+                pendingRows.forEach(pending -> dirtyRows.add(pending.id()));
+                pendingTotals.forEach(pending -> dirtyProducts.add(pending.id()));
+            } finally {
+                stateLock.unlock();
+            }
+            throw e;
+        }
+        flushedSequence = sequence;
+
+        if (!vanished.isEmpty()) {
+            // Deleted outside the engine: drop them rather than resurrecting them
+            logger.warn("Inventory engine dropped {} rows that no longer exist in the database", vanished.size());
+            stateLock.lock();
+            try {
+                vanished.forEach(this::removeRow);
+            } finally {
+                stateLock.unlock();
+            }
+        }
+    }
+
+    private List<Long> writePending(List<PendingRow> pendingRows, List<PendingQuantity> pendingTotals, long sequence) {
+        List<Long> vanished = new ArrayList<>();
+        Map<Boolean, List<PendingRow>> byWarehouseKnown = pendingRows.stream()
+                .collect(Collectors.partitioningBy(pending -> pending.warehouseId() != 0));
+        List<PendingRow> located = byWarehouseKnown.get(true);
+        int[][] rowCounts = jdbcTemplate.batchUpdate(FLUSH_ROW_SQL, located, flushBatchSize, (ps, pending) -> {
+            ps.setInt(1, pending.quantity());
+            ps.setLong(2, pending.id());
+            ps.setLong(3, pending.warehouseId());
+        });
+        collectUnmatched(rowCounts, located.stream().map(PendingRow::id).toList(), vanished);
+        List<PendingRow> unlocated = byWarehouseKnown.get(false);
+        if (!unlocated.isEmpty()) {
+            rowCounts = jdbcTemplate.batchUpdate(FLUSH_ROW_BY_ID_SQL, unlocated, flushBatchSize, (ps, pending) -> {
+                ps.setInt(1, pending.quantity());
+                ps.setLong(2, pending.id());
+            });
+            collectUnmatched(rowCounts, unlocated.stream().map(PendingRow::id).toList(), vanished);
+        }
+
+        int[][] totalCounts = jdbcTemplate.batchUpdate(FLUSH_TOTAL_SQL, pendingTotals, flushBatchSize, (ps, pending) -> {
+            ps.setInt(1, pending.quantity());
+            ps.setLong(2, pending.id());
+        });
+        List<Long> missingTotals = new ArrayList<>();
+        collectUnmatched(totalCounts, pendingTotals.stream().map(PendingQuantity::id).toList(), missingTotals);
+        Map<Long, Integer> totalsByProduct = new HashMap<>();
+        pendingTotals.forEach(pending -> totalsByProduct.put(pending.id(), pending.quantity()));
+        for (Long productId : missingTotals) {
+            jdbcTemplate.update(INSERT_TOTAL_SQL, productId, totalsByProduct.get(productId));
+        }
+
+        if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, sequence) == 0) {
+            jdbcTemplate.update(INSERT_CHECKPOINT_SQL, sequence);
+        }
+        return vanished;
+    }
+
+    private static void collectUnmatched(int[][] counts, List<Long> ids, List<Long> unmatched) {
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    unmatched.add(ids.get(index));
+                }
+                index++;
+            }
+        }
+    }
+
+    private Set<Long> reloadWhere(String column, Collection<Long> keys) {
+        Set<Long> found = new HashSet<>();
+        List<Long> keyList = new ArrayList<>(new LinkedHashSet<>(keys));
+        for (int start = 0; start < keyList.size(); start += RELOAD_CHUNK_SIZE) {
+            List<Long> chunk = keyList.subList(start, Math.min(start + RELOAD_CHUNK_SIZE, keyList.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT " + ROW_COLUMNS + " FROM inventories WHERE " + column + " IN (" + placeholders + ")",
+                    (ResultSet rs) -> {
+                        found.add(applyReloadedRow(rs));
+                    }, chunk.toArray());
+        }
+        return found;
+    }
+
+    private long applyReloadedRow(ResultSet rs) throws SQLException {
+        long inventoryId = rs.getLong("id");
+        long productId = rs.getLong("product_id");
+        int quantity = rs.getInt("quantity");
+        int slot = rows.find(inventoryId);
+        if (slot >= 0) {
+            productTotals.addTo(rows.productIdAt(slot), -rows.quantityAt(slot));
+            rowIds.remove(new RowKey(rows.productIdAt(slot), rows.warehouseIdAt(slot), rows.batchNumberAt(slot)));
+        }
+        putRow(rs);
+        productTotals.addTo(productId, quantity);
+        rowIds.put(new RowKey(productId, rs.getLong("warehouse_id"), rs.getString("batch_number")), inventoryId);
+        append(inventoryId, productId, quantity);
+        return inventoryId;
+    }
+
+    private void putRow(ResultSet rs) throws SQLException {
+        rows.put(rs.getLong("id"), rs.getLong("product_id"), rs.getLong("warehouse_id"),
+                rs.getString("batch_number"), rs.getInt("quantity"));
+    }
+
+    private void removeRow(long inventoryId) {
+        int slot = rows.find(inventoryId);
+        if (slot < 0) {
+            return;
+        }
+        productTotals.addTo(rows.productIdAt(slot), -rows.quantityAt(slot));
+        rowIds.remove(new RowKey(rows.productIdAt(slot), rows.warehouseIdAt(slot), rows.batchNumberAt(slot)));
+        rows.remove(inventoryId);
+        dirtyRows.remove(inventoryId);
+    }
+
+    private void rebuildIndexes() {
+        productTotals.clear();
+        rowIds.clear();
+        rows.forEach((id, productId, warehouseId, batchNumber, quantity) -> {
+            productTotals.addTo(productId, quantity);
+            rowIds.put(new RowKey(productId, warehouseId, batchNumber), id);
+        });
+    }
+
+    private void append(long inventoryId, long productId, int quantity) {
+        try {
+            journal.append(inventoryId, productId, quantity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write inventory journal", e);
+        }
+    }
+
+    private long readCheckpoint() {
+        List<Long> sequences = jdbcTemplate.queryForList(
+                "SELECT journal_sequence FROM inventory_engine_checkpoints", Long.class);
+        return sequences.isEmpty() ? 0 : sequences.get(0);
+    }
+
+    private int countRows() {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventories", Integer.class);
+        return count != null ? count : 0;
+    }
+}
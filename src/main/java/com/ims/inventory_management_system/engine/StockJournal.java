@@ -0,0 +1,164 @@
+package com.ims.inventory_management_system.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+// Append-only log of row quantities written into memory-mapped, pre-sized segment files.
+// Each record carries the absolute quantity after the mutation, so replaying it twice is harmless.
+class StockJournal implements Closeable {
+
+    static final int REMOVED = -1;
+
+    private static final int RECORD_SIZE = 32;
+    private static final int PAYLOAD_SIZE = RECORD_SIZE - Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean force;
+    private final ByteBuffer scratch = ByteBuffer.allocate(PAYLOAD_SIZE);
+    private final CRC32C crc = new CRC32C();
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentStartSequence;
+    private long lastSequence;
+
+    StockJournal(Path directory, int segmentBytes, boolean force) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes - segmentBytes % RECORD_SIZE;
+        this.force = force;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    // Replays intact records with a sequence above afterSequence, in order. Stops at the first torn or unwritten record.
+    long replay(long afterSequence, RecordConsumer consumer) throws IOException {
+        long previous = afterSequence;
+        for (Path path : segments()) {
+            try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, readChannel.size());
+                while (buffer.remaining() >= RECORD_SIZE) {
+                    long sequence = buffer.getLong();
+                    long inventoryId = buffer.getLong();
+                    long productId = buffer.getLong();
+                    int quantity = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (sequence == 0 || checksum != checksum(sequence, inventoryId, productId, quantity)) {
+                        break;
+                    }
+                    if (sequence > previous) {
+                        consumer.accept(sequence, inventoryId, productId, quantity);
+                        previous = sequence;
+                    }
+                }
+            }
+        }
+        lastSequence = Math.max(lastSequence, previous);
+        return previous;
+    }
+
+    // Starts a fresh segment after the given sequence; earlier segments stay on disk until deleteSegmentsBefore
+    void open(long afterSequence) throws IOException {
+        closeSegment();
+        Files.createDirectories(directory);
+        lastSequence = afterSequence;
+        segmentStartSequence = afterSequence + 1;
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segmentStartSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+    }
+
+    long append(long inventoryId, long productId, int quantity) throws IOException {
+        if (segment.remaining() < RECORD_SIZE) {
+            open(lastSequence);
+        }
+        long sequence = lastSequence + 1;
+        int position = segment.position();
+        segment.putLong(sequence)
+                .putLong(inventoryId)
+                .putLong(productId)
+                .putInt(quantity)
+                .putInt(checksum(sequence, inventoryId, productId, quantity));
+        if (force) {
+            segment.force(position, RECORD_SIZE);
+        }
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    long currentSegmentStartSequence() {
+        return segmentStartSequence;
+    }
+
+    void deleteSegmentsBefore(long startSequence) throws IOException {
+        for (Path path : segments()) {
+            if (startSequenceOf(path) < startSequence) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (segment != null && !force) {
+            segment.force();
+        }
+        closeSegment();
+    }
+
+    @FunctionalInterface
+    interface RecordConsumer {
+        void accept(long sequence, long inventoryId, long productId, int quantity);
+    }
+
+    private int checksum(long sequence, long inventoryId, long productId, int quantity) {
+        scratch.clear();
+        scratch.putLong(sequence).putLong(inventoryId).putLong(productId).putInt(quantity).flip();
+        crc.reset();
+        crc.update(scratch);
+        return (int) crc.getValue();
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = new ArrayList<>(files
+                    .filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList());
+            // Zero-padded start sequences sort lexicographically in replay order
+            segments.sort(null);
+            return segments;
+        }
+    }
+
+    private static long startSequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        channel = null;
+        segment = null;
+    }
+}
@@ -0,0 +1,166 @@
+package com.ims.inventory_management_system.engine;
+
+// Inventory rows keyed by inventory id in parallel primitive arrays (open addressing, linear probing).
+// Not thread-safe: the engine guards it with its state lock.
+class StockRowTable {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] ids;
+    private long[] productIds;
+    private long[] warehouseIds;
+    private int[] quantities;
+    private String[] batchNumbers;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+    private long maxId;
+
+    StockRowTable(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    long maxId() {
+        return maxId;
+    }
+
+    // Returns the slot holding the row, or -1 when the id is unknown. Slots are only stable until the next put or remove.
+    int find(long id) {
+        int index = probe(id);
+        return ids[index] != 0 ? index : -1;
+    }
+
+    long productIdAt(int slot) {
+        return productIds[slot];
+    }
+
+    long warehouseIdAt(int slot) {
+        return warehouseIds[slot];
+    }
+
+    int quantityAt(int slot) {
+        return quantities[slot];
+    }
+
+    String batchNumberAt(int slot) {
+        return batchNumbers[slot];
+    }
+
+    void setQuantityAt(int slot, int quantity) {
+        quantities[slot] = quantity;
+    }
+
+    void put(long id, long productId, long warehouseId, String batchNumber, int quantity) {
+        int index = probe(id);
+        if (ids[index] == 0) {
+            ids[index] = id;
+            size++;
+            maxId = Math.max(maxId, id);
+        }
+        productIds[index] = productId;
+        warehouseIds[index] = warehouseId;
+        batchNumbers[index] = batchNumber;
+        quantities[index] = quantity;
+        if (size > resizeThreshold) {
+            rehash(ids.length * 2);
+        }
+    }
+
+    boolean remove(long id) {
+        int index = probe(id);
+        if (ids[index] == 0) {
+            return false;
+        }
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (ids[next] != 0) {
+            int home = slot(ids[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                move(next, hole);
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        ids[hole] = 0;
+        batchNumbers[hole] = null;
+        size--;
+        return true;
+    }
+
+    void forEach(RowConsumer consumer) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] != 0) {
+                consumer.accept(ids[i], productIds[i], warehouseIds[i], batchNumbers[i], quantities[i]);
+            }
+        }
+    }
+
+    // Bytes held by the backing arrays, excluding batch number strings
+    long footprintBytes() {
+        return (long) ids.length * (3L * Long.BYTES + Integer.BYTES + 4L);
+    }
+
+    @FunctionalInterface
+    interface RowConsumer {
+        void accept(long id, long productId, long warehouseId, String batchNumber, int quantity);
+    }
+
+    private void move(int from, int to) {
+        ids[to] = ids[from];
+        productIds[to] = productIds[from];
+        warehouseIds[to] = warehouseIds[from];
+        quantities[to] = quantities[from];
+        batchNumbers[to] = batchNumbers[from];
+    }
+
+    private int probe(long id) {
+        if (id == 0) {
+            throw new IllegalArgumentException("Inventory id 0 is reserved");
+        }
+        int index = slot(id);
+        while (ids[index] != 0 && ids[index] != id) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private int slot(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldIds = ids;
+        long[] oldProductIds = productIds;
+        long[] oldWarehouseIds = warehouseIds;
+        int[] oldQuantities = quantities;
+        String[] oldBatchNumbers = batchNumbers;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != 0) {
+                put(oldIds[i], oldProductIds[i], oldWarehouseIds[i], oldBatchNumbers[i], oldQuantities[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        ids = new long[capacity];
+        productIds = new long[capacity];
+        warehouseIds = new long[capacity];
+        quantities = new int[capacity];
+        batchNumbers = new String[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+}
@@ -0,0 +1,101 @@
+package com.ims.inventory_management_system.engine;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+// Point-in-time copy of every row, written to a temporary file and atomically renamed into place
+class StockSnapshotStore {
+
+    private static final int MAGIC = 0x494D5353;
+    private static final int VERSION = 1;
+    private static final String SNAPSHOT_FILE = "stock.snapshot";
+
+    private final Path directory;
+
+    StockSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    record Header(long sequence, long takenAtMillis) {
+    }
+
+    void write(long sequence, long takenAtMillis, StockRowTable rows) throws IOException {
+        Files.createDirectories(directory);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temporary.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32C());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeLong(takenAtMillis);
+            out.writeInt(rows.size());
+            IOException[] failure = new IOException[1];
+            rows.forEach((id, productId, warehouseId, batchNumber, quantity) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    out.writeLong(id);
+                    out.writeLong(productId);
+                    out.writeLong(warehouseId);
+                    out.writeInt(quantity);
+                    out.writeBoolean(batchNumber != null);
+                    if (batchNumber != null) {
+                        out.writeUTF(batchNumber);
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            out.flush();
+            long checksum = checked.getChecksum().getValue();
+            out.writeLong(checksum);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Loads the snapshot into rows and returns its header, or null when there is no usable snapshot
+    Header read(StockRowTable rows) throws IOException {
+        Path path = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16), new CRC32C())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            long sequence = in.readLong();
+            long takenAtMillis = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readLong();
+                long productId = in.readLong();
+                long warehouseId = in.readLong();
+                int quantity = in.readInt();
+                String batchNumber = in.readBoolean() ? in.readUTF() : null;
+                rows.put(id, productId, warehouseId, batchNumber, quantity);
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) {
+                return null;
+            }
+            return new Header(sequence, takenAtMillis);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+}
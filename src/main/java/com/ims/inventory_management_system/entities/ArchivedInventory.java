@@ -0,0 +1,40 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// An empty batch row removed from inventories by compaction; createdAt is when it was archived
+@Entity
+@Table(name = "archived_inventories", indexes = {
+        @Index(name = "idx_archived_inventories_inventory", columnList = "inventory_id"),
+        @Index(name = "idx_archived_inventories_product_warehouse", columnList = "product_id, warehouse_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedInventory extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long inventoryId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    private String batchNumber;
+
+    private LocalDate expiryDate;
+
+    private String location;
+
+    private LocalDateTime inventoryCreatedAt;
+
+    private LocalDateTime emptiedAt; // Last update of the row, normally the movement that emptied it
+}
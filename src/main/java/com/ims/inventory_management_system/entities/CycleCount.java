@@ -0,0 +1,43 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A stocktake of one warehouse: counts are uploaded as CycleCountLines and posted as one batched adjustment
+@Entity
+@Table(name = "cycle_counts")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCount extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    // Every row of the warehouse is in scope; rows that were not counted are taken as counted zero
+    @Column(nullable = false)
+    private Boolean fullCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer countedLines;
+
+    private String reason;
+
+    private LocalDateTime postedAt;
+
+    private Integer adjustedRows;
+
+    private Integer netQuantityChange;
+
+    public enum Status {
+        OPEN, POSTED, CANCELLED
+    }
+}
@@ -0,0 +1,30 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One counted quantity. A later line for the same product, batch and location replaces an earlier one.
+@Entity
+@Table(name = "cycle_count_lines", indexes = {
+        @Index(name = "idx_cycle_count_lines_cycle_count", columnList = "cycle_count_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CycleCountLine extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long cycleCountId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private String batchNumber;
+
+    private String location;
+
+    @Column(nullable = false)
+    private Integer countedQuantity;
+}
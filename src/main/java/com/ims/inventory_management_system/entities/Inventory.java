@@ -6,10 +6,16 @@ import jakarta.validation.constraints.PositiveOrZero;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventories", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"product_id", "warehouse_id", "batch_number"})
+}, indexes = {
+        // Batches of one product in one warehouse in pick order, for FEFO allocation
+        @Index(name = "idx_inventories_fefo", columnList = "product_id, warehouse_id, expiry_date, id"),
+        // Whole-warehouse reads such as cycle count variances
+        @Index(name = "idx_inventories_warehouse", columnList = "warehouse_id")
 })
 @Getter
 @Setter
@@ -36,4 +42,7 @@ public class Inventory extends BaseEntity {
     private LocalDate expiryDate;
 
     private String location; // Bin or shelf location within warehouse
+
+    // Set by the nightly expiry sweep once the batch is past its expiry date
+    private LocalDateTime quarantinedAt;
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventory_cost_layers", indexes = {
+        @Index(name = "idx_inventory_cost_layers_pair", columnList = "product_id, warehouse_id, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryCostLayer extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal unitCost;
+
+    @Column(nullable = false)
+    private Integer quantity; // Units of this layer still on hand
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "inventory_engine_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryEngineCheckpoint extends BaseEntity {
+
+    // Highest journal sequence whose effects are already in the inventories table (single row, written by the in-memory engine)
+    @Column(nullable = false)
+    private Long journalSequence;
+}
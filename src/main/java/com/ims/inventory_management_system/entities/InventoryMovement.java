@@ -0,0 +1,56 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inventory_movements", indexes = {
+        @Index(name = "idx_inventory_movements_product_time", columnList = "product_id, occurred_at, id"),
+        @Index(name = "idx_inventory_movements_warehouse_time", columnList = "warehouse_id, occurred_at, id"),
+        @Index(name = "idx_inventory_movements_time", columnList = "occurred_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryMovement extends BaseEntity {
+
+    // Plain ids rather than associations: ledger rows outlive the inventory rows they describe
+    @Column(nullable = false)
+    private Long inventoryId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private MovementType movementType;
+
+    @Column(nullable = false)
+    private Integer quantityChange;
+
+    @Column(nullable = false)
+    private Integer resultingQuantity;
+
+    @Column(precision = 19, scale = 4)
+    private BigDecimal unitCost; // Set on receipts with a known purchase cost
+
+
+    private String reason;
+
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+
+    public enum MovementType {
+        RECEIPT, ADJUSTMENT, TRANSFER_OUT, TRANSFER_IN, ALLOCATION, DELETION
+    }
+}
@@ -0,0 +1,24 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Entity
+@Table(name = "product_stocks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductStock extends BaseEntity {
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false, unique = true)
+    private Product product;
+
+    // Sum of Inventory.quantity across all warehouses and batches, kept in step with every inventory mutation
+    @NotNull(message = "Total quantity is required")
+    @Column(nullable = false)
+    private Integer totalQuantity = 0;
+}
@@ -0,0 +1,32 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// One month of a product's quantity in a warehouse, encoded by StockLevelCodec. Slots are hours since periodStart.
+@Entity
+@Table(name = "stock_level_history",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_level_history_pair_period",
+                columnNames = {"product_id", "warehouse_id", "period_start"}),
+        indexes = @Index(name = "idx_stock_level_history_warehouse_period", columnList = "warehouse_id, period_start"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockLevelHistory extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private LocalDate periodStart; // First day of the month
+
+    @Column(nullable = false, length = 16384)
+    private byte[] data;
+}
@@ -0,0 +1,42 @@
+package com.ims.inventory_management_system.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_status", columnList = "status, expires_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation extends BaseEntity {
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long warehouseId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    private String reference; // Cart or order the stock is held for
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private String username;
+
+    public enum Status {
+        HELD, CONFIRMED, RELEASED, EXPIRED
+    }
+}
@@ -0,0 +1,13 @@
+package com.ims.inventory_management_system.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The request is valid but conflicts with the current state of what it acts on, e.g. posting a closed cycle count
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.CycleCountLine;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface CycleCountLineRepository extends JpaRepository<CycleCountLine, Long>, CycleCountLineRepositoryCustom {
+
+    // In upload order, so a recount of the same product, batch and location wins
+    @Query("SELECT l.productId, l.batchNumber, l.location, l.countedQuantity FROM CycleCountLine l " +
+            "WHERE l.cycleCountId = :cycleCountId ORDER BY l.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamCounts(Long cycleCountId);
+}
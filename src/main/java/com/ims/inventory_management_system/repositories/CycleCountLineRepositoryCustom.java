@@ -0,0 +1,11 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.CycleCountLine;
+
+import java.util.List;
+
+public interface CycleCountLineRepositoryCustom {
+
+    // JDBC batch insert; an upload can carry tens of thousands of lines
+    void insertAll(List<CycleCountLine> lines);
+}
@@ -0,0 +1,30 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.CycleCountLine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CycleCountLineRepositoryImpl implements CycleCountLineRepositoryCustom {
+
+    private static final int WRITE_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cycle_count_lines (cycle_count_id, product_id, batch_number, location, counted_quantity, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<CycleCountLine> lines) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, lines, WRITE_BATCH_SIZE, (statement, line) -> {
+            statement.setLong(1, line.getCycleCountId());
+            statement.setLong(2, line.getProductId());
+            statement.setString(3, line.getBatchNumber());
+            statement.setString(4, line.getLocation());
+            statement.setInt(5, line.getCountedQuantity());
+        });
+    }
+}
@@ -0,0 +1,24 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.CycleCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface CycleCountRepository extends JpaRepository<CycleCount, Long> {
+
+    // Guarded on OPEN, so uploads, posting and cancelling of one count are serialized on its row
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CycleCount c SET c.countedLines = c.countedLines + :lines, c.updatedAt = :now " +
+            "WHERE c.id = :id AND c.status = com.ims.inventory_management_system.entities.CycleCount.Status.OPEN")
+    int addCountedLines(Long id, int lines, LocalDateTime now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE CycleCount c SET c.status = :status, c.updatedAt = :now " +
+            "WHERE c.id = :id AND c.status = com.ims.inventory_management_system.entities.CycleCount.Status.OPEN")
+    int closeIfOpen(Long id, CycleCount.Status status, LocalDateTime now);
+}
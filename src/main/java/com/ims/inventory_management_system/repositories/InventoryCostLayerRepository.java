@@ -0,0 +1,31 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.InventoryCostLayer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.stream.Stream;
+
+@Repository
+public interface InventoryCostLayerRepository extends JpaRepository<InventoryCostLayer, Long> {
+
+    // Oldest first within each product/warehouse pair, which is the order layers are consumed in
+    @Query("SELECT l FROM InventoryCostLayer l ORDER BY l.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<InventoryCostLayer> streamAll();
+
+    // Aging: rows are warehouse id, category id (null when uncategorized), received at, quantity, unit cost
+    @Query("SELECT l.warehouseId, c.id, l.receivedAt, l.quantity, l.unitCost FROM InventoryCostLayer l " +
+            "JOIN Product p ON p.id = l.productId LEFT JOIN p.category c WHERE l.quantity > 0")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamAgingRows();
+
+    @Modifying
+    @Query("DELETE FROM InventoryCostLayer l WHERE l.productId = :productId AND l.warehouseId = :warehouseId")
+    int deleteByPair(Long productId, Long warehouseId);
+}
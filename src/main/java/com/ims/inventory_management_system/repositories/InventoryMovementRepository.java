@@ -0,0 +1,56 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long>, InventoryMovementRepositoryCustom {
+
+    // Keyset pagination on (occurredAt, id), matching the (product_id | warehouse_id, occurred_at, id) indexes
+    @Query("SELECT m FROM InventoryMovement m WHERE m.productId = :productId " +
+            "AND m.occurredAt < :to " +
+            "AND (m.occurredAt > :afterTime OR (m.occurredAt = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.occurredAt, m.id")
+    List<InventoryMovement> findByProduct(Long productId, LocalDateTime afterTime, Long afterId,
+                                          LocalDateTime to, Limit limit);
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.warehouseId = :warehouseId " +
+            "AND m.occurredAt < :to " +
+            "AND (m.occurredAt > :afterTime OR (m.occurredAt = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.occurredAt, m.id")
+    List<InventoryMovement> findByWarehouse(Long warehouseId, LocalDateTime afterTime, Long afterId,
+                                            LocalDateTime to, Limit limit);
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.productId = :productId AND m.warehouseId = :warehouseId " +
+            "AND m.occurredAt < :to " +
+            "AND (m.occurredAt > :afterTime OR (m.occurredAt = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.occurredAt, m.id")
+    List<InventoryMovement> findByProductAndWarehouse(Long productId, Long warehouseId, LocalDateTime afterTime,
+                                                      Long afterId, LocalDateTime to, Limit limit);
+
+    @Query("SELECT m FROM InventoryMovement m WHERE m.occurredAt < :to " +
+            "AND (m.occurredAt > :afterTime OR (m.occurredAt = :afterTime AND m.id > :afterId)) " +
+            "ORDER BY m.occurredAt, m.id")
+    List<InventoryMovement> findInRange(LocalDateTime afterTime, Long afterId, LocalDateTime to, Limit limit);
+
+    // Net quantity each inventory row should hold according to the ledger: inventory id, warehouse id, product id, sum
+    @Query("SELECT m.inventoryId, m.warehouseId, m.productId, SUM(m.quantityChange) FROM InventoryMovement m " +
+            "GROUP BY m.inventoryId, m.warehouseId, m.productId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamNetQuantities();
+
+    @Query("SELECT m.inventoryId, m.warehouseId, m.productId, SUM(m.quantityChange) FROM InventoryMovement m " +
+            "WHERE m.warehouseId = :warehouseId AND m.productId >= :fromProductId AND m.productId < :toProductId " +
+            "GROUP BY m.inventoryId, m.warehouseId, m.productId")
+    List<Object[]> findNetQuantities(Long warehouseId, long fromProductId, long toProductId);
+}
@@ -0,0 +1,10 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.InventoryMovement;
+
+import java.util.List;
+
+public interface InventoryMovementRepositoryCustom {
+    void insertAll(List<InventoryMovement> movements);
+    int insertOpeningBalances();
+}
@@ -0,0 +1,52 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class InventoryMovementRepositoryImpl implements InventoryMovementRepositoryCustom {
+
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory_movements (inventory_id, product_id, warehouse_id, movement_type, quantity_change, " +
+            "resulting_quantity, unit_cost, reason, username, occurred_at, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    // A receipt of the row's current quantity, dated when the row was created, for every non-empty row the ledger
+    // has never seen
+    private static final String INSERT_OPENING_BALANCES_SQL =
+            "INSERT INTO inventory_movements (inventory_id, product_id, warehouse_id, movement_type, quantity_change, " +
+            "resulting_quantity, unit_cost, reason, username, occurred_at, created_at, updated_at) " +
+            "SELECT i.id, i.product_id, i.warehouse_id, 'RECEIPT', i.quantity, i.quantity, NULL, 'Opening balance', " +
+            "'system', i.created_at, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM inventories i " +
+            "WHERE i.quantity <> 0 AND NOT EXISTS (SELECT 1 FROM inventory_movements m WHERE m.inventory_id = i.id)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Plain JDBC batch insert: no persistence context and no per-row identity round trip
+    @Override
+    public void insertAll(List<InventoryMovement> movements) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, movements, WRITE_BATCH_SIZE, (statement, movement) -> {
+            statement.setLong(1, movement.getInventoryId());
+            statement.setLong(2, movement.getProductId());
+            statement.setLong(3, movement.getWarehouseId());
+            statement.setString(4, movement.getMovementType().name());
+            statement.setInt(5, movement.getQuantityChange());
+            statement.setInt(6, movement.getResultingQuantity());
+            statement.setBigDecimal(7, movement.getUnitCost());
+            statement.setString(8, movement.getReason());
+            statement.setString(9, movement.getUsername());
+            statement.setTimestamp(10, Timestamp.valueOf(movement.getOccurredAt()));
+        });
+    }
+
+    @Override
+    public int insertOpeningBalances() {
+        return jdbcTemplate.update(INSERT_OPENING_BALANCES_SQL);
+    }
+}
@@ -3,25 +3,137 @@ package com.ims.inventory_management_system.repositories;
 import com.ims.inventory_management_system.entities.Inventory;
 import com.ims.inventory_management_system.entities.Product;
 import com.ims.inventory_management_system.entities.Warehouse;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     List<Inventory> findByProductId(Long productId);
     List<Inventory> findByWarehouseId(Long warehouseId);
+
+    // Keyset pagination on the primary key
+    @EntityGraph(attributePaths = {"product", "warehouse"})
+    List<Inventory> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"product", "warehouse"})
+    List<Inventory> findByProductIdAndIdGreaterThanOrderByIdAsc(Long productId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"product", "warehouse"})
+    List<Inventory> findByWarehouseIdAndIdGreaterThanOrderByIdAsc(Long warehouseId, Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"product", "warehouse"})
+    List<Inventory> findByProductIdAndWarehouseIdAndIdGreaterThanOrderByIdAsc(Long productId, Long warehouseId, Long afterId, Limit limit);
+
     Optional<Inventory> findByProductAndWarehouseAndBatchNumber(Product product, Warehouse warehouse, String batchNumber);
 
+    // Scalar lookups used to plan transfers without pulling entities into the persistence context before locking
+    @Query("SELECT i.id, i.product.id, i.batchNumber, i.warehouse.id FROM Inventory i WHERE i.id IN :ids")
+    List<Object[]> findTransferKeysByIdIn(Collection<Long> ids);
+
+    @Query("SELECT i.id, i.product.id, i.warehouse.id, i.batchNumber FROM Inventory i " +
+            "WHERE i.product.id IN :productIds AND i.warehouse.id IN :warehouseIds")
+    List<Object[]> findTransferKeysByProductIdInAndWarehouseIdIn(Collection<Long> productIds, Collection<Long> warehouseIds);
+
+    // Rows are locked in id order so concurrent multi-row writers always acquire locks in the same sequence; the
+    // warehouses limit a partitioned table to the partitions that can hold the rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id IN :ids AND i.warehouse.id IN :warehouseIds ORDER BY i.id")
+    List<Inventory> findAllByIdInAndWarehouseIdInOrderByIdForUpdate(Collection<Long> ids, Collection<Long> warehouseIds);
+
+    @Query(value = "SELECT id, product_id, warehouse_id, quantity FROM inventories WHERE id IN :ids ORDER BY id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> lockQuantitiesByIdIn(Collection<Long> ids);
+
+    @Query(value = "SELECT id, product_id, warehouse_id, quantity FROM inventories " +
+            "WHERE id IN :ids AND warehouse_id IN :warehouseIds ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockQuantitiesByIdInAndWarehouseIdIn(Collection<Long> ids, Collection<Long> warehouseIds);
+
+    // A row never changes warehouse, so this unlocked read is safe to plan a partition-pruned lock with
+    @Query("SELECT i.id, i.warehouse.id FROM Inventory i WHERE i.id IN :ids")
+    List<Object[]> findWarehouseIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT i.product.id, i.warehouse.id, SUM(i.quantity) FROM Inventory i GROUP BY i.product.id, i.warehouse.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamQuantitiesByProductAndWarehouse();
+
     @Query("SELECT SUM(i.quantity) FROM Inventory i WHERE i.product.id = :productId")
     Integer getTotalQuantityByProductId(Long productId);
 
-    List<Inventory> findByExpiryDateBefore(LocalDate date);
+    @Query("SELECT i FROM Inventory i JOIN ProductStock s ON s.product = i.product " +
+            "WHERE s.totalQuantity < i.product.minStockLevel")
+    List<Inventory> findLowStockInventory();
+
+    @Query(value = "SELECT i FROM Inventory i JOIN ProductStock s ON s.product = i.product " +
+            "WHERE s.totalQuantity < i.product.minStockLevel",
+            countQuery = "SELECT COUNT(i) FROM Inventory i JOIN ProductStock s ON s.product = i.product " +
+                    "WHERE s.totalQuantity < i.product.minStockLevel")
+    Page<Inventory> findLowStockInventory(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"product", "warehouse"})
+    List<Inventory> findAllByIdIn(Collection<Long> ids);
+
+    // Unexpired, unquarantined batches in FEFO order, read straight off idx_inventories_fefo; undated batches go last
+    @Query("SELECT i.id, i.quantity, i.expiryDate FROM Inventory i WHERE i.product.id = :productId AND i.warehouse.id = :warehouseId " +
+            "AND i.quantity >= :minQuantity AND i.quarantinedAt IS NULL AND (i.expiryDate IS NULL OR i.expiryDate >= :today) " +
+            "ORDER BY i.expiryDate ASC NULLS LAST, i.id")
+    List<Object[]> findAllocationCandidates(Long productId, Long warehouseId, LocalDate today, int minQuantity, Limit limit);
+
+    @Query("SELECT i.id, i.product.id, i.batchNumber, i.location, i.quantity FROM Inventory i WHERE i.warehouse.id = :warehouseId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamCycleCountRows(Long warehouseId);
+
+    // Integrity checks: rows are inventory id, warehouse id, product id, quantity
+    @Query("SELECT i.id, i.warehouse.id, i.product.id, i.quantity FROM Inventory i WHERE i.quantity <> 0")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamIntegrityRows();
+
+    @Query("SELECT i.id, i.warehouse.id, i.product.id, i.quantity FROM Inventory i WHERE i.quantity <> 0 " +
+            "AND i.warehouse.id = :warehouseId AND i.product.id >= :fromProductId AND i.product.id < :toProductId")
+    List<Object[]> findIntegrityRows(Long warehouseId, long fromProductId, long toProductId);
+
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM Inventory i GROUP BY i.product.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamProductTotals();
+
+    @Query("SELECT i.product.id, SUM(i.quantity) FROM Inventory i " +
+            "WHERE i.product.id >= :fromProductId AND i.product.id < :toProductId GROUP BY i.product.id")
+    List<Object[]> findProductTotals(long fromProductId, long toProductId);
+
+    @Query("SELECT i.id, i.expiryDate, i.quantity FROM Inventory i WHERE i.expiryDate IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamExpiryDates();
+
+    // Same predicate as the partial expiry index, so only non-empty dated rows are read
+    @Query("SELECT i.id, i.expiryDate FROM Inventory i WHERE i.quantity > 0 AND i.expiryDate IS NOT NULL")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamOpenExpiryDates();
+
+    @Modifying
+    @Query("UPDATE Inventory i SET i.quarantinedAt = :now, i.updatedAt = :now " +
+            "WHERE i.expiryDate < :today AND i.quantity > 0 AND i.quarantinedAt IS NULL")
+    int quarantineExpired(LocalDate today, LocalDateTime now);
 
-    @Query("SELECT i FROM Inventory i WHERE i.quantity = 0")
-    List<Inventory> findOutOfStockItems();
+    // Keyset-paged (id, warehouseId) of empty rows last changed before the cutoff; on PostgreSQL read from the partial
+    // empty-row index. The warehouse lets the lock that follows reach only the partitions holding the rows
+    @Query("SELECT i.id, i.warehouse.id FROM Inventory i WHERE i.quantity = 0 AND i.updatedAt < :updatedBefore " +
+            "AND i.id > :afterId ORDER BY i.id")
+    List<Object[]> findOutOfStockItems(LocalDateTime updatedBefore, Long afterId, Limit limit);
 }
\ No newline at end of file
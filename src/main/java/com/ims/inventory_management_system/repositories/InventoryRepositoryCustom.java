@@ -0,0 +1,52 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryPivotDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public interface InventoryRepositoryCustom {
+    void streamInventory(Long productId, Long warehouseId, Consumer<InventoryDto> consumer);
+    Set<Long> applyQuantityDeltas(Map<Long, Integer> deltasByInventoryId, Map<Long, Long> warehouseIdsByInventoryId);
+    Set<Long> setCountedQuantities(List<CountedQuantity> counts);
+    Optional<QuantityRow> applyQuantityDelta(Long inventoryId, int delta);
+    Optional<QuantityRow> applyQuantityDelta(Long inventoryId, Long warehouseId, int delta);
+    QuantityRow upsertQuantity(Long productId, Long warehouseId, String batchNumber, int quantity,
+                               LocalDate expiryDate, String location);
+    void createUnbatchedKeyIndex();
+    void createExpiryIndex();
+    void createEmptyRowIndex();
+    int archiveRows(List<Long> inventoryIds);
+    int deleteEmptyRows(List<Long> inventoryIds);
+    Optional<StorageSize> findStorageSize();
+    List<PivotRow> aggregate(List<InventoryPivotDto.Dimension> groupBy, int limit);
+    List<PartitionSize> findPartitions();
+    long partitionByWarehouse(int partitions);
+
+    // A counted quantity to post over the system quantity it was compared against
+    record CountedQuantity(long inventoryId, long warehouseId, int systemQuantity, int countedQuantity) {
+    }
+
+    // One partition of a partitioned inventories table; rows are the planner's estimate
+    record PartitionSize(String name, long estimatedRows, long tableBytes) {
+    }
+
+    // One group of non-empty rows; keys follow the requested dimensions
+    record PivotRow(List<Object> keys, long quantity, long skuCount, BigDecimal valueAtCost) {
+    }
+
+    // Bytes on disk of the inventories table and of all its indexes
+    record StorageSize(long tableBytes, long indexBytes) {
+    }
+
+    // State of an inventory row as left by a single-statement mutation
+    record QuantityRow(Long id, Long productId, Long warehouseId, int quantity, String batchNumber,
+                       LocalDate expiryDate, String location) {
+    }
+}
@@ -0,0 +1,516 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryPivotDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@RequiredArgsConstructor
+public class InventoryRepositoryImpl implements InventoryRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private static final String APPLY_DELTA_SQL =
+            "UPDATE inventories SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND quantity + ? >= 0";
+
+    // Carries the warehouse so a partitioned table is only probed in the partition holding the row
+    private static final String APPLY_WAREHOUSE_DELTA_SQL =
+            "UPDATE inventories SET quantity = quantity + ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND warehouse_id = ? AND quantity + ? >= 0";
+
+    // Only overwrites a row that still holds the quantity the count was compared against
+    private static final String SET_COUNTED_SQL =
+            "UPDATE inventories SET quantity = ?, updated_at = CURRENT_TIMESTAMP " +
+            "WHERE id = ? AND warehouse_id = ? AND quantity = ?";
+
+    private static final String QUANTITY_ROW_COLUMNS = "id, product_id, warehouse_id, quantity, batch_number, expiry_date, location";
+
+    // PostgreSQL: each mutation is one conditional statement that also hands back the resulting row
+    private static final String APPLY_DELTA_RETURNING_SQL =
+            APPLY_DELTA_SQL + " RETURNING " + QUANTITY_ROW_COLUMNS;
+
+    private static final String APPLY_WAREHOUSE_DELTA_RETURNING_SQL =
+            APPLY_WAREHOUSE_DELTA_SQL + " RETURNING " + QUANTITY_ROW_COLUMNS;
+
+    private static final String UPSERT_INSERT_SQL =
+            "INSERT INTO inventories (product_id, warehouse_id, batch_number, quantity, expiry_date, location, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) ";
+
+    private static final String UPSERT_UPDATE_SQL =
+            " DO UPDATE SET " +
+            "quantity = inventories.quantity + EXCLUDED.quantity, " +
+            "expiry_date = COALESCE(EXCLUDED.expiry_date, inventories.expiry_date), " +
+            "location = COALESCE(EXCLUDED.location, inventories.location), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            "RETURNING " + QUANTITY_ROW_COLUMNS;
+
+    private static final String UPSERT_RETURNING_SQL =
+            UPSERT_INSERT_SQL + "ON CONFLICT (product_id, warehouse_id, batch_number)" + UPSERT_UPDATE_SQL;
+
+    // Batch-less rows conflict on the partial unique index below, not on the three-column key
+    private static final String UPSERT_UNBATCHED_RETURNING_SQL =
+            UPSERT_INSERT_SQL + "ON CONFLICT (product_id, warehouse_id) WHERE batch_number IS NULL" + UPSERT_UPDATE_SQL;
+
+    // PostgreSQL only: the (product_id, warehouse_id, batch_number) key treats NULL batch numbers as distinct, so
+    // batch-less rows get a key of their own
+    private static final String CREATE_UNBATCHED_KEY_INDEX_SQL =
+            "CREATE UNIQUE INDEX IF NOT EXISTS uq_inventories_unbatched ON inventories (product_id, warehouse_id) " +
+            "WHERE batch_number IS NULL";
+
+    // Without the batch-less key, batch-less rows are matched explicitly
+    private static final String ADD_TO_UNBATCHED_SQL =
+            "UPDATE inventories SET quantity = quantity + ?, " +
+            "expiry_date = COALESCE(?, expiry_date), location = COALESCE(?, location), updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = ? AND warehouse_id = ? AND batch_number IS NULL";
+
+    private static final String ADD_TO_BATCH_SQL =
+            "UPDATE inventories SET quantity = quantity + ?, " +
+            "expiry_date = COALESCE(?, expiry_date), location = COALESCE(?, location), updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = ? AND warehouse_id = ? AND batch_number = ?";
+
+    // PostgreSQL indexes only the rows expiry queries can return; other databases get a plain composite index
+    private static final String CREATE_PARTIAL_EXPIRY_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_inventories_open_expiry ON inventories (expiry_date, id) " +
+            "WHERE quantity > 0 AND expiry_date IS NOT NULL";
+
+    private static final String CREATE_EXPIRY_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_inventories_expiry ON inventories (expiry_date, id)";
+
+    // PostgreSQL only: compaction reads empty rows from here instead of scanning the table
+    private static final String CREATE_EMPTY_ROW_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_inventories_empty ON inventories (id) WHERE quantity = 0";
+
+    private static final String ARCHIVE_SQL =
+            "INSERT INTO archived_inventories (inventory_id, product_id, warehouse_id, batch_number, expiry_date, location, " +
+            "inventory_created_at, emptied_at, created_at, updated_at) " +
+            "SELECT id, product_id, warehouse_id, batch_number, expiry_date, location, created_at, updated_at, " +
+            "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM inventories WHERE quantity = 0 AND id IN ";
+
+    private static final String DELETE_EMPTY_SQL = "DELETE FROM inventories WHERE quantity = 0 AND id IN ";
+
+    private static final String STORAGE_SIZE_SQL =
+            "SELECT pg_table_size('inventories') AS table_bytes, pg_indexes_size('inventories') AS index_bytes";
+
+    // Group-by expressions per pivot dimension, over inventories i joined to products p
+    private static final Map<InventoryPivotDto.Dimension, String> PIVOT_COLUMNS = Map.of(
+            InventoryPivotDto.Dimension.WAREHOUSE, "i.warehouse_id",
+            InventoryPivotDto.Dimension.CATEGORY, "p.category_id",
+            InventoryPivotDto.Dimension.SUPPLIER, "p.default_supplier_id",
+            InventoryPivotDto.Dimension.PRODUCT, "i.product_id",
+            InventoryPivotDto.Dimension.EXPIRY_MONTH,
+            "EXTRACT(YEAR FROM i.expiry_date) * 100 + EXTRACT(MONTH FROM i.expiry_date)",
+            InventoryPivotDto.Dimension.BATCH, "i.batch_number");
+
+    private static final String PIVOT_MEASURES =
+            "SUM(i.quantity) AS quantity, COUNT(DISTINCT i.product_id) AS sku_count, " +
+            "SUM(i.quantity * p.cost_price) AS value_at_cost FROM inventories i " +
+            "JOIN products p ON p.id = i.product_id WHERE i.quantity > 0";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname AS name, GREATEST(c.reltuples, 0)::bigint AS estimated_rows, pg_table_size(c.oid) AS table_bytes " +
+            "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass('inventories') " +
+            "ORDER BY length(c.relname), c.relname";
+
+    // Catalog reads taken before the table is rebuilt; the primary key is replaced by one that includes warehouse_id
+    private static final String TABLE_KIND_SQL = "SELECT relkind FROM pg_class WHERE oid = 'inventories'::regclass";
+
+    private static final String REFERENCING_CONSTRAINTS_SQL =
+            "SELECT COUNT(*) FROM pg_constraint WHERE confrelid = 'inventories'::regclass";
+
+    private static final String PRIMARY_KEY_SQL =
+            "SELECT conname FROM pg_constraint WHERE conrelid = 'inventories'::regclass AND contype = 'p'";
+
+    private static final String CONSTRAINTS_SQL =
+            "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+            "WHERE conrelid = 'inventories'::regclass AND contype IN ('u', 'f', 'c') ORDER BY conname";
+
+    private static final String INDEXES_SQL =
+            "SELECT pg_get_indexdef(indexrelid) FROM pg_index WHERE indrelid = 'inventories'::regclass " +
+            "AND indexrelid NOT IN (SELECT conindid FROM pg_constraint WHERE conrelid = 'inventories'::regclass)";
+
+    private static final String ID_IDENTITY_SQL =
+            "SELECT attidentity <> '' FROM pg_attribute WHERE attrelid = 'inventories'::regclass AND attname = 'id'";
+
+    private static final String ID_SEQUENCE_SQL = "SELECT pg_get_serial_sequence('inventories', 'id')";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventories (product_id, warehouse_id, batch_number, quantity, expiry_date, location, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    private static final RowMapper<QuantityRow> QUANTITY_ROW_MAPPER = (rs, rowNum) -> {
+        Date expiryDate = rs.getDate("expiry_date");
+        return new QuantityRow(
+                rs.getLong("id"),
+                rs.getLong("product_id"),
+                rs.getLong("warehouse_id"),
+                rs.getInt("quantity"),
+                rs.getString("batch_number"),
+                expiryDate != null ? expiryDate.toLocalDate() : null,
+                rs.getString("location"));
+    };
+
+    private static final String STREAM_SQL =
+            "SELECT i.id, i.product_id, p.name AS product_name, p.sku, i.warehouse_id, w.name AS warehouse_name, " +
+            "i.quantity, i.batch_number, i.expiry_date, i.location, " +
+            "COALESCE(s.total_quantity, 0) < p.min_stock_level AS low_stock " +
+            "FROM inventories i " +
+            "JOIN products p ON p.id = i.product_id " +
+            "JOIN warehouses w ON w.id = i.warehouse_id " +
+            "LEFT JOIN product_stocks s ON s.product_id = i.product_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+    private volatile boolean unbatchedKey;
+
+    // Must run inside a transaction: the PostgreSQL driver only honours the fetch size with auto-commit off
+    @Override
+    public void streamInventory(Long productId, Long warehouseId, Consumer<InventoryDto> consumer) {
+        StringBuilder sql = new StringBuilder(STREAM_SQL);
+        List<Long> params = new ArrayList<>();
+        String separator = " WHERE ";
+        if (productId != null) {
+            sql.append(separator).append("i.product_id = ?");
+            params.add(productId);
+            separator = " AND ";
+        }
+        if (warehouseId != null) {
+            sql.append(separator).append("i.warehouse_id = ?");
+            params.add(warehouseId);
+        }
+        sql.append(" ORDER BY i.id");
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                statement.setLong(i + 1, params.get(i));
+            }
+            return statement;
+        }, (ResultSet rs) -> {
+            Date expiryDate = rs.getDate("expiry_date");
+            consumer.accept(InventoryDto.builder()
+                    .id(rs.getLong("id"))
+                    .productId(rs.getLong("product_id"))
+                    .productName(rs.getString("product_name"))
+                    .productSku(rs.getString("sku"))
+                    .warehouseId(rs.getLong("warehouse_id"))
+                    .warehouseName(rs.getString("warehouse_name"))
+                    .quantity(rs.getInt("quantity"))
+                    .batchNumber(rs.getString("batch_number"))
+                    .expiryDate(expiryDate != null ? expiryDate.toLocalDate() : null)
+                    .location(rs.getString("location"))
+                    .lowStock(rs.getBoolean("low_stock"))
+                    .build());
+        });
+    }
+
+    // Rows are written in id order, so two batches naming the same rows queue rather than deadlock; returns the ids
+    // whose update matched no row, i.e. the row is gone or the delta would take it below zero
+    @Override
+    public Set<Long> applyQuantityDeltas(Map<Long, Integer> deltasByInventoryId, Map<Long, Long> warehouseIdsByInventoryId) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(deltasByInventoryId.entrySet());
+        entries.sort(Map.Entry.comparingByKey());
+        int[][] updateCounts = jdbcTemplate.batchUpdate(APPLY_WAREHOUSE_DELTA_SQL, entries, WRITE_BATCH_SIZE, (statement, entry) -> {
+            statement.setInt(1, entry.getValue());
+            statement.setLong(2, entry.getKey());
+            statement.setLong(3, warehouseIdsByInventoryId.get(entry.getKey()));
+            statement.setInt(4, entry.getValue());
+        });
+
+        Set<Long> rejected = new HashSet<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    rejected.add(entries.get(index).getKey());
+                }
+                index++;
+            }
+        }
+        return rejected;
+    }
+
+    // Rows are written in id order, the order every other batched writer locks them in; returns the ids whose quantity
+    // no longer matched
+    @Override
+    public Set<Long> setCountedQuantities(List<CountedQuantity> counts) {
+        List<CountedQuantity> ordered = new ArrayList<>(counts);
+        ordered.sort(Comparator.comparingLong(CountedQuantity::inventoryId));
+        int[][] updateCounts = jdbcTemplate.batchUpdate(SET_COUNTED_SQL, ordered, WRITE_BATCH_SIZE, (statement, count) -> {
+            statement.setInt(1, count.countedQuantity());
+            statement.setLong(2, count.inventoryId());
+            statement.setLong(3, count.warehouseId());
+            statement.setInt(4, count.systemQuantity());
+        });
+
+        Set<Long> mismatched = new HashSet<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    mismatched.add(ordered.get(index).inventoryId());
+                }
+                index++;
+            }
+        }
+        return mismatched;
+    }
+
+    @Override
+    public Optional<QuantityRow> applyQuantityDelta(Long inventoryId, int delta) {
+        if (isPostgres()) {
+            return jdbcTemplate.query(APPLY_DELTA_RETURNING_SQL, QUANTITY_ROW_MAPPER, delta, inventoryId, delta)
+                    .stream().findFirst();
+        }
+        // Other databases (H2 in tests): the guarded UPDATE keeps the row locked, so the read-back is consistent
+        if (jdbcTemplate.update(APPLY_DELTA_SQL, delta, inventoryId, delta) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(findQuantityRow(inventoryId));
+    }
+
+    // Same as above, for callers that already know the row's warehouse
+    @Override
+    public Optional<QuantityRow> applyQuantityDelta(Long inventoryId, Long warehouseId, int delta) {
+        if (isPostgres()) {
+            return jdbcTemplate.query(APPLY_WAREHOUSE_DELTA_RETURNING_SQL, QUANTITY_ROW_MAPPER,
+                    delta, inventoryId, warehouseId, delta).stream().findFirst();
+        }
+        if (jdbcTemplate.update(APPLY_WAREHOUSE_DELTA_SQL, delta, inventoryId, warehouseId, delta) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(findQuantityRow(inventoryId));
+    }
+
+    @Override
+    public QuantityRow upsertQuantity(Long productId, Long warehouseId, String batchNumber, int quantity,
+                                      LocalDate expiryDate, String location) {
+        Date sqlExpiryDate = expiryDate != null ? Date.valueOf(expiryDate) : null;
+        if (batchNumber != null && isPostgres()) {
+            return jdbcTemplate.queryForObject(UPSERT_RETURNING_SQL, QUANTITY_ROW_MAPPER,
+                    productId, warehouseId, batchNumber, quantity, sqlExpiryDate, location);
+        }
+        if (batchNumber == null && unbatchedKey) {
+            return jdbcTemplate.queryForObject(UPSERT_UNBATCHED_RETURNING_SQL, QUANTITY_ROW_MAPPER,
+                    productId, warehouseId, null, quantity, sqlExpiryDate, location);
+        }
+
+        Optional<QuantityRow> existing = addToExisting(productId, warehouseId, batchNumber, quantity, sqlExpiryDate, location);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        try {
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[]{"id"});
+                statement.setLong(1, productId);
+                statement.setLong(2, warehouseId);
+                statement.setString(3, batchNumber);
+                statement.setInt(4, quantity);
+                statement.setDate(5, sqlExpiryDate);
+                statement.setString(6, location);
+                return statement;
+            }, keyHolder);
+        } catch (DuplicateKeyException e) {
+            // A concurrent transaction inserted the row first; it is there to add to now
+            return addToExisting(productId, warehouseId, batchNumber, quantity, sqlExpiryDate, location)
+                    .orElseThrow(() -> e);
+        }
+        return new QuantityRow(keyHolder.getKey().longValue(), productId, warehouseId, quantity, batchNumber, expiryDate, location);
+    }
+
+    private Optional<QuantityRow> addToExisting(Long productId, Long warehouseId, String batchNumber, int quantity,
+                                                Date sqlExpiryDate, String location) {
+        int updated = batchNumber != null
+                ? jdbcTemplate.update(ADD_TO_BATCH_SQL, quantity, sqlExpiryDate, location, productId, warehouseId, batchNumber)
+                : jdbcTemplate.update(ADD_TO_UNBATCHED_SQL, quantity, sqlExpiryDate, location, productId, warehouseId);
+        if (updated == 0) {
+            return Optional.empty();
+        }
+        String keyFilter = batchNumber != null ? "batch_number = ?" : "batch_number IS NULL";
+        Object[] args = batchNumber != null
+                ? new Object[]{productId, warehouseId, batchNumber}
+                : new Object[]{productId, warehouseId};
+        return Optional.ofNullable(jdbcTemplate.queryForObject("SELECT " + QUANTITY_ROW_COLUMNS + " FROM inventories " +
+                "WHERE product_id = ? AND warehouse_id = ? AND " + keyFilter, QUANTITY_ROW_MAPPER, args));
+    }
+
+    // Fails while duplicate batch-less rows exist, leaving batch-less upserts on the update-then-insert path
+    @Override
+    public void createUnbatchedKeyIndex() {
+        if (isPostgres()) {
+            jdbcTemplate.execute(CREATE_UNBATCHED_KEY_INDEX_SQL);
+            unbatchedKey = true;
+        }
+    }
+
+    @Override
+    public void createExpiryIndex() {
+        jdbcTemplate.execute(isPostgres() ? CREATE_PARTIAL_EXPIRY_INDEX_SQL : CREATE_EXPIRY_INDEX_SQL);
+    }
+
+    @Override
+    public void createEmptyRowIndex() {
+        if (isPostgres()) {
+            jdbcTemplate.execute(CREATE_EMPTY_ROW_INDEX_SQL);
+        }
+    }
+
+    @Override
+    public int archiveRows(List<Long> inventoryIds) {
+        return jdbcTemplate.update(ARCHIVE_SQL + placeholders(inventoryIds.size()), inventoryIds.toArray());
+    }
+
+    @Override
+    public int deleteEmptyRows(List<Long> inventoryIds) {
+        return jdbcTemplate.update(DELETE_EMPTY_SQL + placeholders(inventoryIds.size()), inventoryIds.toArray());
+    }
+
+    // Empty on databases other than PostgreSQL
+    @Override
+    public Optional<StorageSize> findStorageSize() {
+        if (!isPostgres()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(jdbcTemplate.queryForObject(STORAGE_SIZE_SQL, (rs, rowNum) ->
+                new StorageSize(rs.getLong("table_bytes"), rs.getLong("index_bytes"))));
+    }
+
+    // Whole aggregation runs in the database; without dimensions it returns the grand total
+    @Override
+    public List<PivotRow> aggregate(List<InventoryPivotDto.Dimension> groupBy, int limit) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        List<String> keys = new ArrayList<>(groupBy.size());
+        for (int i = 0; i < groupBy.size(); i++) {
+            sql.append(PIVOT_COLUMNS.get(groupBy.get(i))).append(" AS k").append(i).append(", ");
+            keys.add("k" + i);
+        }
+        sql.append(PIVOT_MEASURES);
+        if (!keys.isEmpty()) {
+            String keyList = String.join(", ", keys);
+            sql.append(" GROUP BY ").append(keyList).append(" ORDER BY ").append(keyList);
+        }
+        sql.append(" LIMIT ?");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            List<Object> values = new ArrayList<>(groupBy.size());
+            for (int i = 0; i < groupBy.size(); i++) {
+                Object value = rs.getObject(i + 1);
+                if (value instanceof Number number && groupBy.get(i) == InventoryPivotDto.Dimension.EXPIRY_MONTH) {
+                    value = String.format("%04d-%02d", number.intValue() / 100, number.intValue() % 100);
+                } else if (value instanceof Number number) {
+                    value = number.longValue();
+                }
+                values.add(value);
+            }
+            BigDecimal valueAtCost = rs.getBigDecimal("value_at_cost");
+            return new PivotRow(values, rs.getLong("quantity"), rs.getLong("sku_count"),
+                    valueAtCost != null ? valueAtCost : BigDecimal.ZERO);
+        }, limit);
+    }
+
+    // Empty unless the table is partitioned, which only happens on PostgreSQL
+    @Override
+    public List<PartitionSize> findPartitions() {
+        if (!isPostgres()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) ->
+                new PartitionSize(rs.getString("name"), rs.getLong("estimated_rows"), rs.getLong("table_bytes")));
+    }
+
+    // Rebuilds inventories as a hash-partitioned table on warehouse_id within the caller's transaction: the old table
+    // is locked, copied, dropped and replaced under its own name, and its constraints and indexes are recreated with
+    // their original names and definitions. Rows keep their ids and the id sequence continues after the highest one
+    @Override
+    public long partitionByWarehouse(int partitions) {
+        if (!isPostgres()) {
+            throw new IllegalStateException("Partitioning the inventories table requires PostgreSQL");
+        }
+        if ("p".equals(jdbcTemplate.queryForObject(TABLE_KIND_SQL, String.class))) {
+            throw new IllegalStateException("The inventories table is already partitioned");
+        }
+        jdbcTemplate.execute("LOCK TABLE inventories IN ACCESS EXCLUSIVE MODE");
+        Long references = jdbcTemplate.queryForObject(REFERENCING_CONSTRAINTS_SQL, Long.class);
+        if (references != null && references > 0) {
+            throw new IllegalStateException("Foreign keys reference the inventories table; a partitioned table can " +
+                    "only be referenced through its full primary key (id, warehouse_id)");
+        }
+
+        String primaryKey = jdbcTemplate.queryForObject(PRIMARY_KEY_SQL, String.class);
+        List<String> constraints = jdbcTemplate.query(CONSTRAINTS_SQL, (rs, rowNum) ->
+                "ALTER TABLE inventories ADD CONSTRAINT " + rs.getString("conname") + " " + rs.getString("definition"));
+        List<String> indexes = jdbcTemplate.queryForList(INDEXES_SQL, String.class);
+        boolean identity = Boolean.TRUE.equals(jdbcTemplate.queryForObject(ID_IDENTITY_SQL, Boolean.class));
+        String sequence = jdbcTemplate.queryForObject(ID_SEQUENCE_SQL, String.class);
+        if (!identity && sequence != null) {
+            // A serial column's sequence would be dropped with the old table
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY NONE");
+        }
+
+        jdbcTemplate.execute("CREATE TABLE inventories_partitioned (LIKE inventories INCLUDING DEFAULTS" +
+                (identity ? " INCLUDING IDENTITY" : "") + ") PARTITION BY HASH (warehouse_id)");
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            jdbcTemplate.execute("CREATE TABLE inventories_p" + remainder + " PARTITION OF inventories_partitioned " +
+                    "FOR VALUES WITH (MODULUS " + partitions + ", REMAINDER " + remainder + ")");
+        }
+        long rows = jdbcTemplate.update("INSERT INTO inventories_partitioned " +
+                (identity ? "OVERRIDING SYSTEM VALUE " : "") + "SELECT * FROM inventories");
+        jdbcTemplate.execute("DROP TABLE inventories");
+        jdbcTemplate.execute("ALTER TABLE inventories_partitioned RENAME TO inventories");
+
+        jdbcTemplate.execute("ALTER TABLE inventories ADD CONSTRAINT " + primaryKey + " PRIMARY KEY (id, warehouse_id)");
+        constraints.forEach(jdbcTemplate::execute);
+        indexes.forEach(jdbcTemplate::execute);
+        if (identity) {
+            jdbcTemplate.queryForObject("SELECT setval(pg_get_serial_sequence('inventories', 'id'), " +
+                    "COALESCE(MAX(id), 0) + 1, false) FROM inventories", Long.class);
+        } else if (sequence != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " OWNED BY inventories.id");
+        }
+        jdbcTemplate.execute("ANALYZE inventories");
+        return rows;
+    }
+
+    private static String placeholders(int count) {
+        return "(" + String.join(", ", Collections.nCopies(count, "?")) + ")";
+    }
+
+    private QuantityRow findQuantityRow(Long inventoryId) {
+        return jdbcTemplate.queryForObject("SELECT " + QUANTITY_ROW_COLUMNS + " FROM inventories WHERE id = ?",
+                QUANTITY_ROW_MAPPER, inventoryId);
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+}
@@ -1,10 +1,13 @@
 package com.ims.inventory_management_system.repositories;
 
 import com.ims.inventory_management_system.entities.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,6 +18,30 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryId(Long categoryId);
     List<Product> findByActive(Boolean active);
 
-    @Query("SELECT p FROM Product p WHERE p.minStockLevel >= (SELECT COALESCE(SUM(i.quantity), 0) FROM Inventory i WHERE i.product = p)")
+    @Query("SELECT p FROM Product p JOIN ProductStock s ON s.product = p WHERE s.totalQuantity < p.minStockLevel")
     List<Product> findProductsBelowMinStockLevel();
+
+    @Query(value = "SELECT p FROM Product p JOIN ProductStock s ON s.product = p WHERE s.totalQuantity < p.minStockLevel",
+            countQuery = "SELECT COUNT(p) FROM Product p JOIN ProductStock s ON s.product = p WHERE s.totalQuantity < p.minStockLevel")
+    Page<Product> findProductsBelowMinStockLevel(Pageable pageable);
+
+    // Rows: product id, category id (null when uncategorized), cost price
+    @Query("SELECT p.id, c.id, p.costPrice FROM Product p LEFT JOIN p.category c")
+    List<Object[]> findCostInfo();
+
+    @Query("SELECT p.id, c.id, p.costPrice FROM Product p LEFT JOIN p.category c WHERE p.id IN :productIds")
+    List<Object[]> findCostInfoByIdIn(Collection<Long> productIds);
+
+    @Query("SELECT p.id, p.sku FROM Product p WHERE p.id IN :productIds")
+    List<Object[]> findSkusByIdIn(Collection<Long> productIds);
+
+    // Availability lookups: rows are product id, SKU, warehouse id, quantity, one per warehouse holding the product;
+    // a product with no inventory rows comes back once with a null warehouse. Served by idx_inventories_fefo
+    @Query("SELECT p.id, p.sku, i.warehouse.id, SUM(i.quantity) FROM Product p LEFT JOIN Inventory i ON i.product = p " +
+            "WHERE p.id IN :productIds GROUP BY p.id, p.sku, i.warehouse.id")
+    List<Object[]> findAvailabilityByIdIn(Collection<Long> productIds);
+
+    @Query("SELECT p.id, p.sku, i.warehouse.id, SUM(i.quantity) FROM Product p LEFT JOIN Inventory i ON i.product = p " +
+            "WHERE p.sku IN :skus GROUP BY p.id, p.sku, i.warehouse.id")
+    List<Object[]> findAvailabilityBySkuIn(Collection<String> skus);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.ProductStock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface ProductStockRepository extends JpaRepository<ProductStock, Long> {
+
+    @Query("SELECT s.totalQuantity FROM ProductStock s WHERE s.product.id = :productId")
+    Integer findTotalQuantityByProductId(Long productId);
+
+    @Query("SELECT s.product.id, s.totalQuantity FROM ProductStock s WHERE s.product.id IN :productIds")
+    List<Object[]> findTotalQuantitiesByProductIds(Collection<Long> productIds);
+
+    @Modifying
+    @Query("UPDATE ProductStock s SET s.totalQuantity = s.totalQuantity + :delta, s.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE s.product.id = :productId")
+    int incrementTotalQuantity(Long productId, int delta);
+
+    @Modifying
+    @Query("DELETE FROM ProductStock s WHERE s.product.id = :productId")
+    void deleteByProductId(Long productId);
+
+    @Modifying
+    @Query(value = "DELETE FROM product_stocks", nativeQuery = true)
+    void deleteAllInBulk();
+
+    @Modifying
+    @Query(value = "INSERT INTO product_stocks (product_id, total_quantity, created_at, updated_at) " +
+            "SELECT p.id, COALESCE(SUM(i.quantity), 0), CURRENT_TIMESTAMP, CURRENT_TIMESTAMP " +
+            "FROM products p LEFT JOIN inventories i ON i.product_id = p.id " +
+            "GROUP BY p.id", nativeQuery = true)
+    int rebuildFromInventories();
+
+    @Query("SELECT s.product.id, s.totalQuantity FROM ProductStock s")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<Object[]> streamTotalQuantities();
+
+    @Query("SELECT s.product.id, s.totalQuantity FROM ProductStock s " +
+            "WHERE s.product.id >= :fromProductId AND s.product.id < :toProductId")
+    List<Object[]> findTotalQuantities(long fromProductId, long toProductId);
+
+    // Rows: product id, stored total (null when missing), actual SUM over inventories
+    @Query(value = "SELECT p.id, s.total_quantity, COALESCE(SUM(i.quantity), 0) " +
+            "FROM products p " +
+            "LEFT JOIN product_stocks s ON s.product_id = p.id " +
+            "LEFT JOIN inventories i ON i.product_id = p.id " +
+            "GROUP BY p.id, s.total_quantity " +
+            "HAVING s.total_quantity IS NULL OR s.total_quantity <> COALESCE(SUM(i.quantity), 0)", nativeQuery = true)
+    List<Object[]> findDiscrepancies();
+}
@@ -1,13 +1,23 @@
 package com.ims.inventory_management_system.repositories;
 
+import com.ims.inventory_management_system.entities.PurchaseOrder;
 import com.ims.inventory_management_system.entities.PurchaseOrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface PurchaseOrderItemRepository extends JpaRepository<PurchaseOrderItem, Long> {
     List<PurchaseOrderItem> findByPurchaseOrderId(Long purchaseOrderId);
     List<PurchaseOrderItem> findByProductId(Long productId);
+
+    // Rows: purchase order id, product id, expected delivery date, quantity still to be received
+    @Query("SELECT i.purchaseOrder.id, i.product.id, i.purchaseOrder.expectedDeliveryDate, " +
+            "SUM(i.quantity - COALESCE(i.receivedQuantity, 0)) FROM PurchaseOrderItem i " +
+            "WHERE i.purchaseOrder.status IN :statuses " +
+            "GROUP BY i.purchaseOrder.id, i.product.id, i.purchaseOrder.expectedDeliveryDate")
+    List<Object[]> findOpenQuantities(Collection<PurchaseOrder.POStatus> statuses);
 }
\ No newline at end of file
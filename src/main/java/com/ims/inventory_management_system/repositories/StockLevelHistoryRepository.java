@@ -0,0 +1,28 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.StockLevelHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockLevelHistoryRepository extends JpaRepository<StockLevelHistory, Long>, StockLevelHistoryRepositoryCustom {
+    List<StockLevelHistory> findByPeriodStart(LocalDate periodStart);
+    List<StockLevelHistory> findByWarehouseIdAndPeriodStartIn(Long warehouseId, Collection<LocalDate> periodStarts);
+    List<StockLevelHistory> findByProductIdAndPeriodStartBetween(Long productId, LocalDate from, LocalDate to);
+    List<StockLevelHistory> findByProductIdAndWarehouseIdAndPeriodStartBetween(Long productId, Long warehouseId,
+                                                                              LocalDate from, LocalDate to);
+
+    @Query("SELECT MAX(h.periodStart) FROM StockLevelHistory h")
+    LocalDate findLatestPeriodStart();
+
+    @Query("SELECT MAX(h.periodStart) FROM StockLevelHistory h WHERE h.warehouseId = :warehouseId AND h.periodStart <= :periodStart")
+    LocalDate findLatestPeriodStartForWarehouse(Long warehouseId, LocalDate periodStart);
+
+    @Query("SELECT MAX(h.periodStart) FROM StockLevelHistory h WHERE h.productId = :productId AND h.periodStart <= :periodStart")
+    LocalDate findLatestPeriodStartForProduct(Long productId, LocalDate periodStart);
+}
@@ -0,0 +1,12 @@
+package com.ims.inventory_management_system.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StockLevelHistoryRepositoryCustom {
+    void appendAll(List<Append> appends);
+
+    // An encoded entry to add to a pair's series for the month; newRow when the month has no series for the pair yet
+    record Append(long productId, long warehouseId, LocalDate periodStart, byte[] entry, boolean newRow) {
+    }
+}
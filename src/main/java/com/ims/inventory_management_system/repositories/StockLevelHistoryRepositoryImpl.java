@@ -0,0 +1,42 @@
+package com.ims.inventory_management_system.repositories;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class StockLevelHistoryRepositoryImpl implements StockLevelHistoryRepositoryCustom {
+
+    private static final int WRITE_BATCH_SIZE = 500;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_level_history (product_id, warehouse_id, period_start, data, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    // Appends in place instead of reading the series back
+    private static final String APPEND_SQL =
+            "UPDATE stock_level_history SET data = data || CAST(? AS BYTEA), updated_at = CURRENT_TIMESTAMP " +
+            "WHERE product_id = ? AND warehouse_id = ? AND period_start = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void appendAll(List<Append> appends) {
+        List<Append> inserts = appends.stream().filter(Append::newRow).toList();
+        List<Append> updates = appends.stream().filter(append -> !append.newRow()).toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, WRITE_BATCH_SIZE, (statement, append) -> {
+            statement.setLong(1, append.productId());
+            statement.setLong(2, append.warehouseId());
+            statement.setDate(3, Date.valueOf(append.periodStart()));
+            statement.setBytes(4, append.entry());
+        });
+        jdbcTemplate.batchUpdate(APPEND_SQL, updates, WRITE_BATCH_SIZE, (statement, append) -> {
+            statement.setBytes(1, append.entry());
+            statement.setLong(2, append.productId());
+            statement.setLong(3, append.warehouseId());
+            statement.setDate(4, Date.valueOf(append.periodStart()));
+        });
+    }
+}
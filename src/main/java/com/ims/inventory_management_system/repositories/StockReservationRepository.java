@@ -0,0 +1,20 @@
+package com.ims.inventory_management_system.repositories;
+
+import com.ims.inventory_management_system.entities.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+    List<StockReservation> findByStatus(StockReservation.Status status);
+
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :status, r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.id IN :ids AND r.status = :currentStatus")
+    int updateStatus(Collection<Long> ids, StockReservation.Status currentStatus, StockReservation.Status status);
+}
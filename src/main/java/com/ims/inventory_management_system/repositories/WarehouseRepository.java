@@ -2,8 +2,10 @@ package com.ims.inventory_management_system.repositories;
 
 import com.ims.inventory_management_system.entities.Warehouse;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,4 +13,11 @@ import java.util.Optional;
 public interface WarehouseRepository extends JpaRepository<Warehouse, Long> {
     Optional<Warehouse> findByName(String name);
     List<Warehouse> findByActive(Boolean active);
+
+    // Availability matrix: rows are warehouse id, product id, quantity; an active warehouse holding none of the
+    // products comes back once with a null product
+    @Query("SELECT w.id, i.product.id, SUM(i.quantity) FROM Warehouse w " +
+            "LEFT JOIN Inventory i ON i.warehouse = w AND i.product.id IN :productIds " +
+            "WHERE w.active = true GROUP BY w.id, i.product.id")
+    List<Object[]> findActiveQuantitiesByProductIdIn(Collection<Long> productIds);
 }
\ No newline at end of file
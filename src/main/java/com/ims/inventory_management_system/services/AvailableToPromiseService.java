@@ -0,0 +1,14 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.AvailableToPromiseDto;
+import com.ims.inventory_management_system.dto.AvailableToPromiseQuery;
+import com.ims.inventory_management_system.entities.PurchaseOrder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailableToPromiseService {
+    AvailableToPromiseDto getAvailableToPromise(Long productId, LocalDate date);
+    List<AvailableToPromiseDto> getAvailableToPromise(List<AvailableToPromiseQuery> queries);
+    void recordPurchaseOrder(PurchaseOrder purchaseOrder);
+}
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.CycleCountDto;
+import com.ims.inventory_management_system.dto.CycleCountLineDto;
+import com.ims.inventory_management_system.dto.CycleCountPostRequest;
+import com.ims.inventory_management_system.dto.CycleCountRequest;
+import com.ims.inventory_management_system.dto.CycleCountVarianceReportDto;
+
+import java.util.List;
+
+public interface CycleCountService {
+    CycleCountDto createCycleCount(CycleCountRequest request);
+    CycleCountDto getCycleCount(Long id);
+    CycleCountDto addCounts(Long id, List<CycleCountLineDto> lines);
+    CycleCountVarianceReportDto getVariances(Long id);
+    CycleCountDto post(Long id, CycleCountPostRequest request);
+    CycleCountDto cancel(Long id);
+}
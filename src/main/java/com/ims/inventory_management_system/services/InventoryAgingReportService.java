@@ -0,0 +1,10 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryAgingJobDto;
+import com.ims.inventory_management_system.dto.InventoryAgingReportDto;
+
+public interface InventoryAgingReportService {
+    InventoryAgingJobDto requestReport(boolean refresh);
+    InventoryAgingJobDto getReportJob();
+    InventoryAgingReportDto generateReport();
+}
@@ -0,0 +1,8 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryAvailabilityRequest;
+import com.ims.inventory_management_system.dto.InventoryAvailabilityResponse;
+
+public interface InventoryAvailabilityService {
+    InventoryAvailabilityResponse getAvailability(InventoryAvailabilityRequest request);
+}
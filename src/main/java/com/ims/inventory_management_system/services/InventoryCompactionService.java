@@ -0,0 +1,7 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryCompactionResultDto;
+
+public interface InventoryCompactionService {
+    InventoryCompactionResultDto compact();
+}
@@ -0,0 +1,14 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.ExpirySweepResultDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface InventoryExpiryService {
+    List<Long> getScheduledInventoryIds(LocalDate expiringBefore);
+    void recordExpiryDate(long inventoryId, LocalDate expiryDate, int quantity);
+    void applyMovement(InventoryMovement movement);
+    ExpirySweepResultDto sweep();
+}
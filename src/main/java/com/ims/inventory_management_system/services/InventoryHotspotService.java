@@ -0,0 +1,12 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryHotspotsDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+
+import java.util.List;
+
+public interface InventoryHotspotService {
+    void recordMovements(List<InventoryMovement> movements);
+    void recordProductLookup(Long productId);
+    InventoryHotspotsDto getHotspots(int limit);
+}
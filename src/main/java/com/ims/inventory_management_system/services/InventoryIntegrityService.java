@@ -0,0 +1,14 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryIntegrityReportDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityStatsDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+
+import java.util.List;
+
+public interface InventoryIntegrityService {
+    InventoryIntegrityReportDto verify(boolean full);
+    InventoryIntegrityStatsDto getStats();
+    void applyMovements(List<InventoryMovement> movements);
+    void applyDroppedMovements(List<InventoryMovement> movements);
+}
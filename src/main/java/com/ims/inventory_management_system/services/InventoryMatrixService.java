@@ -0,0 +1,10 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryMatrixDto;
+
+import java.util.List;
+
+public interface InventoryMatrixService {
+    InventoryMatrixDto getMatrix(List<Long> productIds);
+    void recordWarehouseChange();
+}
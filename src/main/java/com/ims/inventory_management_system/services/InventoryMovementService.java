@@ -0,0 +1,14 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryMovementPageDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryMovementService {
+    void record(InventoryMovement movement);
+    void recordAll(List<InventoryMovement> movements);
+    InventoryMovementPageDto getMovements(Long productId, Long warehouseId, LocalDateTime from, LocalDateTime to,
+                                          Long afterId, int limit);
+}
@@ -0,0 +1,10 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryPipelineStatsDto;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface InventoryMutationPipeline {
+    CompletableFuture<Void> submitAdjustment(Long inventoryId, Integer quantityChange, String reason);
+    InventoryPipelineStatsDto getStats();
+}
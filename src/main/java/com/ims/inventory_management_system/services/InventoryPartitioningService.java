@@ -0,0 +1,8 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryPartitioningDto;
+
+public interface InventoryPartitioningService {
+    InventoryPartitioningDto getPartitioning();
+    InventoryPartitioningDto partitionByWarehouse();
+}
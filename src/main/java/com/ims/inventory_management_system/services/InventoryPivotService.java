@@ -0,0 +1,9 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryPivotDto;
+
+import java.util.List;
+
+public interface InventoryPivotService {
+    InventoryPivotDto pivot(List<InventoryPivotDto.Dimension> groupBy);
+}
@@ -1,8 +1,19 @@
 package com.ims.inventory_management_system.services;
 
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentResponse;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationStatsDto;
+import com.ims.inventory_management_system.dto.InventoryCursorPageDto;
 import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.InventoryTransferStatsDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface InventoryService {
     InventoryDto addInventory(InventoryDto inventoryDto);
@@ -10,11 +21,20 @@ public interface InventoryService {
     List<InventoryDto> getAllInventory();
     List<InventoryDto> getInventoryByProduct(Long productId);
     List<InventoryDto> getInventoryByWarehouse(Long warehouseId);
+    InventoryCursorPageDto getInventoryPage(Long productId, Long warehouseId, Long afterId, int limit);
+    void streamInventory(Long productId, Long warehouseId, Consumer<InventoryDto> consumer);
     List<InventoryDto> getLowStockInventory();
+    Page<InventoryDto> getLowStockInventory(Pageable pageable);
     List<InventoryDto> getExpiringInventory(int daysToExpiry);
     InventoryDto updateInventory(Long id, InventoryDto inventoryDto);
     void adjustInventory(Long id, Integer quantityChange, String reason);
+    BulkInventoryAdjustmentResponse adjustInventoryBulk(List<InventoryAdjustmentRequest> adjustments, boolean allOrNothing);
     void transferInventory(Long sourceInventoryId, Long destinationWarehouseId, Integer quantity);
+    void transferInventoryBatch(List<InventoryTransferRequest> transfers);
+    InventoryTransferStatsDto getTransferStats();
+    InventoryAllocationDto allocateInventory(InventoryAllocationRequest request);
+    InventoryAllocationDto allocateReservedInventory(InventoryAllocationRequest request);
+    InventoryAllocationStatsDto getAllocationStats();
     void deleteInventory(Long id);
     Integer getTotalQuantityForProduct(Long productId);
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.InventoryCostLayerDto;
+import com.ims.inventory_management_system.dto.InventoryValuationDto;
+import com.ims.inventory_management_system.dto.InventoryValuationLineDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.entities.Product;
+
+import java.util.List;
+
+public interface InventoryValuationService {
+    InventoryValuationDto getValuation();
+    InventoryValuationLineDto getProductValuation(Long productId, Long warehouseId);
+    List<InventoryCostLayerDto> getCostLayers(Long productId, Long warehouseId);
+    void applyMovements(List<InventoryMovement> movements);
+    void recordProduct(Product product);
+    void flush();
+
+    enum Method {
+        FIFO, WEIGHTED_AVERAGE
+    }
+}
@@ -1,6 +1,8 @@
 package com.ims.inventory_management_system.services;
 
 import com.ims.inventory_management_system.dto.ProductDto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 
@@ -13,7 +15,11 @@ public interface ProductService {
     List<ProductDto> getProductsByCategory(Long categoryId);
     List<ProductDto> getActiveProducts();
     List<ProductDto> getProductsBelowMinStockLevel();
+    Page<ProductDto> getProductsBelowMinStockLevel(Pageable pageable);
     ProductDto updateProduct(Long id, ProductDto productDto);
     void deleteProduct(Long id);
     Integer getCurrentStockLevel(Long productId);
+    Integer getCurrentStockLevel(Long productId, Long warehouseId);
+    Integer getAvailableToSell(Long productId);
+    Integer getAvailableToSell(Long productId, Long warehouseId);
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.ProductStockDiscrepancyDto;
+import com.ims.inventory_management_system.entities.Product;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductStockService {
+    void initialize(Product product);
+    void applyDelta(Long productId, int delta);
+    Integer getTotalQuantity(Long productId);
+    Map<Long, Integer> getTotalQuantities(Collection<Long> productIds);
+    void remove(Long productId);
+    int rebuild();
+    List<ProductStockDiscrepancyDto> verify();
+}
@@ -0,0 +1,13 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.StockProjectionStatsDto;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+
+public interface StockAvailabilityProjection {
+    int getTotalQuantity(long productId);
+    int getQuantity(long productId, long warehouseId);
+    void recordChange(long productId, long warehouseId, int quantityChange);
+    StockProjectionStatsDto getStats();
+    long getVersion();
+    LongIntHashMap snapshotQuantities();
+}
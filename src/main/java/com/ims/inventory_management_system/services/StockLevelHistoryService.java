@@ -0,0 +1,14 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.StockLevelDto;
+import com.ims.inventory_management_system.dto.StockLevelHistoryDto;
+import com.ims.inventory_management_system.dto.StockSnapshotResultDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StockLevelHistoryService {
+    StockSnapshotResultDto snapshot();
+    List<StockLevelHistoryDto> getProductHistory(Long productId, Long warehouseId, LocalDateTime from, LocalDateTime to);
+    List<StockLevelDto> getWarehouseStockAsOf(Long warehouseId, LocalDateTime asOf);
+}
@@ -0,0 +1,13 @@
+package com.ims.inventory_management_system.services;
+
+public interface StockReservationLedger {
+    boolean tryClaim(long productId, long warehouseId, int quantity);
+    int claimUpTo(long productId, long warehouseId, int quantity);
+    void restore(long productId, long warehouseId, int quantity);
+    void release(long productId, long warehouseId, int quantity);
+    void releaseAfterCompletion(long productId, long warehouseId, int quantity);
+    int getReservedQuantity(long productId);
+    int getReservedQuantity(long productId, long warehouseId);
+    int getUnreservedQuantity(long productId, long warehouseId);
+    long getReservedUnits();
+}
@@ -0,0 +1,15 @@
+package com.ims.inventory_management_system.services;
+
+import com.ims.inventory_management_system.dto.StockReservationDto;
+import com.ims.inventory_management_system.dto.StockReservationRequest;
+import com.ims.inventory_management_system.dto.StockReservationStatsDto;
+
+public interface StockReservationService {
+    StockReservationDto reserve(StockReservationRequest request);
+    StockReservationDto confirm(Long id);
+    StockReservationDto release(Long id);
+    StockReservationDto getReservation(Long id);
+    int getReservedQuantity(long productId);
+    int getReservedQuantity(long productId, long warehouseId);
+    StockReservationStatsDto getStats();
+}
@@ -0,0 +1,189 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.AvailableToPromiseDto;
+import com.ims.inventory_management_system.dto.AvailableToPromiseQuery;
+import com.ims.inventory_management_system.entities.PurchaseOrder;
+import com.ims.inventory_management_system.entities.PurchaseOrderItem;
+import com.ims.inventory_management_system.repositories.PurchaseOrderItemRepository;
+import com.ims.inventory_management_system.services.AvailableToPromiseService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockReservationService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Service
+@RequiredArgsConstructor
+public class AvailableToPromiseServiceImpl implements AvailableToPromiseService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(AvailableToPromiseServiceImpl.class);
+
+    private static final Set<PurchaseOrder.POStatus> OPEN_STATUSES =
+            EnumSet.of(PurchaseOrder.POStatus.SENT, PurchaseOrder.POStatus.PARTIAL_RECEIVED);
+    // Bucket for purchase orders without an expected delivery date: counted as incoming, never promised by a date
+    private static final int UNDATED = Integer.MAX_VALUE;
+
+    private final PurchaseOrderItemRepository purchaseOrderItemRepository;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final StockReservationService stockReservationService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Product id -> epoch day of expected delivery -> open quantity due that day
+    private final Map<Long, TreeMap<Integer, Integer>> incomingByProduct = new HashMap<>();
+    // Purchase order id -> what it currently adds to the buckets, so a state change only applies the difference
+    private final Map<Long, List<Incoming>> contributions = new HashMap<>();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        Map<Long, List<Incoming>> loaded = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Object[] row : purchaseOrderItemRepository.findOpenQuantities(OPEN_STATUSES)) {
+                int openQuantity = ((Number) row[3]).intValue();
+                if (openQuantity > 0) {
+                    loaded.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                            .add(new Incoming(((Number) row[1]).longValue(), epochDay(row[2]), openQuantity));
+                }
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            loaded.forEach(this::replaceContribution);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Available-to-promise loaded {} open purchase orders for {} products in {} ms", loaded.size(),
+                incomingByProduct.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public AvailableToPromiseDto getAvailableToPromise(Long productId, LocalDate date) {
+        if (productId == null) {
+            throw new IllegalArgumentException("Product id is required");
+        }
+        LocalDate promiseDate = date != null ? date : LocalDate.now();
+        int onHand = stockAvailabilityProjection.getTotalQuantity(productId);
+        int reserved = stockReservationService.getReservedQuantity(productId);
+        int incoming = 0;
+        lock.readLock().lock();
+        try {
+            TreeMap<Integer, Integer> buckets = incomingByProduct.get(productId);
+            if (buckets != null) {
+                for (int quantity : buckets.headMap((int) promiseDate.toEpochDay(), true).values()) {
+                    incoming += quantity;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new AvailableToPromiseDto(productId, promiseDate, onHand, reserved, incoming,
+                Math.max(0, onHand - reserved) + incoming);
+    }
+
+    @Override
+    public List<AvailableToPromiseDto> getAvailableToPromise(List<AvailableToPromiseQuery> queries) {
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("At least one query is required");
+        }
+        List<AvailableToPromiseDto> results = new ArrayList<>(queries.size());
+        for (AvailableToPromiseQuery query : queries) {
+            results.add(getAvailableToPromise(query.getProductId(), query.getDate()));
+        }
+        return results;
+    }
+
+    // Takes the order as saved in the caller's transaction; the buckets change only once that transaction commits
+    @Override
+    public void recordPurchaseOrder(PurchaseOrder purchaseOrder) {
+        long purchaseOrderId = purchaseOrder.getId();
+        List<Incoming> incoming = new ArrayList<>();
+        if (OPEN_STATUSES.contains(purchaseOrder.getStatus()) && purchaseOrder.getItems() != null) {
+            int day = purchaseOrder.getExpectedDeliveryDate() != null
+                    ? (int) purchaseOrder.getExpectedDeliveryDate().toEpochDay() : UNDATED;
+            Map<Long, Integer> openByProduct = new LinkedHashMap<>();
+            for (PurchaseOrderItem item : purchaseOrder.getItems()) {
+                int received = item.getReceivedQuantity() != null ? item.getReceivedQuantity() : 0;
+                int open = item.getQuantity() - received;
+                if (open > 0) {
+                    openByProduct.merge(item.getProduct().getId(), open, Integer::sum);
+                }
+            }
+            openByProduct.forEach((productId, open) -> incoming.add(new Incoming(productId, day, open)));
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyCommitted(purchaseOrderId, incoming);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyCommitted(purchaseOrderId, incoming);
+            }
+        });
+    }
+
+    private void applyCommitted(long purchaseOrderId, List<Incoming> incoming) {
+        lock.writeLock().lock();
+        try {
+            replaceContribution(purchaseOrderId, incoming);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void replaceContribution(long purchaseOrderId, List<Incoming> incoming) {
+        List<Incoming> previous = contributions.remove(purchaseOrderId);
+        if (previous != null) {
+            for (Incoming entry : previous) {
+                addToBucket(entry.productId(), entry.day(), -entry.quantity());
+            }
+        }
+        if (!incoming.isEmpty()) {
+            contributions.put(purchaseOrderId, incoming);
+            for (Incoming entry : incoming) {
+                addToBucket(entry.productId(), entry.day(), entry.quantity());
+            }
+        }
+    }
+
+    private void addToBucket(long productId, int day, int quantityChange) {
+        TreeMap<Integer, Integer> buckets = incomingByProduct.computeIfAbsent(productId, id -> new TreeMap<>());
+        int quantity = buckets.merge(day, quantityChange, Integer::sum);
+        if (quantity == 0) {
+            buckets.remove(day);
+            if (buckets.isEmpty()) {
+                incomingByProduct.remove(productId);
+            }
+        }
+    }
+
+    private static int epochDay(Object value) {
+        if (value == null) {
+            return UNDATED;
+        }
+        LocalDate date = value instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+        return (int) date.toEpochDay();
+    }
+
+    private record Incoming(long productId, int day, int quantity) {
+    }
+}
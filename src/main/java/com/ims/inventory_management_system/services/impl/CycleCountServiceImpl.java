@@ -0,0 +1,330 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.CycleCountDto;
+import com.ims.inventory_management_system.dto.CycleCountLineDto;
+import com.ims.inventory_management_system.dto.CycleCountPostRequest;
+import com.ims.inventory_management_system.dto.CycleCountRequest;
+import com.ims.inventory_management_system.dto.CycleCountVarianceDto;
+import com.ims.inventory_management_system.dto.CycleCountVarianceReportDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.entities.CycleCount;
+import com.ims.inventory_management_system.entities.CycleCountLine;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.exceptions.ConflictException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.repositories.CycleCountLineRepository;
+import com.ims.inventory_management_system.repositories.CycleCountRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom.CountedQuantity;
+import com.ims.inventory_management_system.repositories.WarehouseRepository;
+import com.ims.inventory_management_system.services.CycleCountService;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class CycleCountServiceImpl implements CycleCountService {
+    private static final Logger logger = LoggerFactory.getLogger(CycleCountServiceImpl.class);
+
+    private final CycleCountRepository cycleCountRepository;
+    private final CycleCountLineRepository cycleCountLineRepository;
+    private final InventoryRepository inventoryRepository;
+    private final WarehouseRepository warehouseRepository;
+    private final ProductStockService productStockService;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final InventoryMovementService inventoryMovementService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.cycle-counts.max-lines-per-upload:50000}")
+    private int maxLinesPerUpload;
+
+    @Override
+    @Transactional
+    public CycleCountDto createCycleCount(CycleCountRequest request) {
+        if (request.getWarehouseId() == null) {
+            throw new IllegalArgumentException("Warehouse id is required");
+        }
+        if (!warehouseRepository.existsById(request.getWarehouseId())) {
+            throw new ResourceNotFoundException("Warehouse not found with id: " + request.getWarehouseId());
+        }
+        CycleCount cycleCount = CycleCount.builder()
+                .warehouseId(request.getWarehouseId())
+                .fullCount(Boolean.TRUE.equals(request.getFullCount()))
+                .status(CycleCount.Status.OPEN)
+                .countedLines(0)
+                .build();
+        return mapToDto(cycleCountRepository.save(cycleCount));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CycleCountDto getCycleCount(Long id) {
+        return mapToDto(findCycleCount(id));
+    }
+
+    @Override
+    @Transactional
+    public CycleCountDto addCounts(Long id, List<CycleCountLineDto> lines) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("At least one counted line is required");
+        }
+        if (lines.size() > maxLinesPerUpload) {
+            throw new IllegalArgumentException("At most " + maxLinesPerUpload + " lines can be uploaded at once");
+        }
+        CycleCount cycleCount = findCycleCount(id);
+        List<CycleCountLine> entities = new ArrayList<>(lines.size());
+        for (int line = 0; line < lines.size(); line++) {
+            CycleCountLineDto dto = lines.get(line);
+            if (dto.getProductId() == null) {
+                throw new IllegalArgumentException("Line " + line + ": product id is required");
+            }
+            if (dto.getCountedQuantity() == null || dto.getCountedQuantity() < 0) {
+                throw new IllegalArgumentException("Line " + line + ": counted quantity must be zero or more");
+            }
+            if (dto.getWarehouseId() != null && !dto.getWarehouseId().equals(cycleCount.getWarehouseId())) {
+                throw new IllegalArgumentException("Line " + line + ": warehouse " + dto.getWarehouseId() +
+                        " is not the warehouse of cycle count " + id);
+            }
+            entities.add(CycleCountLine.builder()
+                    .cycleCountId(id)
+                    .productId(dto.getProductId())
+                    .batchNumber(blankToNull(dto.getBatchNumber()))
+                    .location(blankToNull(dto.getLocation()))
+                    .countedQuantity(dto.getCountedQuantity())
+                    .build());
+        }
+        // Takes the row lock first, so a concurrent post either sees all of these lines or rejects them
+        if (cycleCountRepository.addCountedLines(id, entities.size(), LocalDateTime.now()) == 0) {
+            throw new ConflictException("Cycle count " + id + " is no longer open");
+        }
+        cycleCountLineRepository.insertAll(entities);
+        return mapToDto(findCycleCount(id));
+    }
+
+    @Override
+    public CycleCountVarianceReportDto getVariances(Long id) {
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+        return transactionTemplate.execute(status -> computeVariances(findCycleCount(id)));
+    }
+
+    // Recomputes the variances against current quantities and posts the approved ones as a single guarded batch: each
+    // row is set to its counted quantity only if it still holds the system quantity the variance was computed from, so
+    // a movement that lands in between fails the post instead of being overwritten. The count closes in the same
+    // transaction. With the in-memory engine the post runs write-through, so no in-memory change can interleave
+    @Override
+    public CycleCountDto post(Long id, CycleCountPostRequest request) {
+        if (request.getReason() == null || request.getReason().isBlank()) {
+            throw new IllegalArgumentException("A reason is required to post a cycle count");
+        }
+        InMemoryStockEngine engine = inMemoryStockEngine.getIfAvailable();
+        if (engine == null) {
+            return transactionTemplate.execute(status -> postCounts(id, request)).cycleCount();
+        }
+        return engine.writeThrough(() -> {
+            PostedCount posted = transactionTemplate.execute(status -> postCounts(id, request));
+            engine.reload(posted.inventoryIds());
+            return posted.cycleCount();
+        });
+    }
+
+    private PostedCount postCounts(Long id, CycleCountPostRequest request) {
+        long startedAt = System.nanoTime();
+        if (cycleCountRepository.closeIfOpen(id, CycleCount.Status.POSTED, LocalDateTime.now()) == 0) {
+            findCycleCount(id);
+            throw new ConflictException("Cycle count " + id + " is not open");
+        }
+        CycleCount cycleCount = findCycleCount(id);
+        CycleCountVarianceReportDto report = computeVariances(cycleCount);
+
+        Set<Long> approved = request.getInventoryIds() != null ? new HashSet<>(request.getInventoryIds()) : null;
+        List<CycleCountVarianceDto> posted = new ArrayList<>();
+        List<CountedQuantity> counts = new ArrayList<>();
+        int netQuantityChange = 0;
+        for (CycleCountVarianceDto variance : report.getVariances()) {
+            if (approved == null || approved.contains(variance.getInventoryId())) {
+                posted.add(variance);
+                counts.add(new CountedQuantity(variance.getInventoryId(), cycleCount.getWarehouseId(),
+                        variance.getSystemQuantity(), variance.getCountedQuantity()));
+                netQuantityChange += variance.getVariance();
+            }
+        }
+        if (!counts.isEmpty()) {
+            Set<Long> mismatched = inventoryRepository.setCountedQuantities(counts);
+            if (!mismatched.isEmpty()) {
+                throw new ConflictException("Inventory changed while cycle count " + id + " was being posted (" +
+                        mismatched.size() + " rows); review the variances and post again");
+            }
+            recordPosted(posted, cycleCount.getWarehouseId(), "Cycle count " + id + ": " + request.getReason());
+        }
+
+        cycleCount.setReason(request.getReason());
+        cycleCount.setPostedAt(LocalDateTime.now());
+        cycleCount.setAdjustedRows(posted.size());
+        cycleCount.setNetQuantityChange(netQuantityChange);
+        CycleCount saved = cycleCountRepository.save(cycleCount);
+        logger.info("Cycle count {} posted {} adjustments (net {}) in {} ms; {} counted batches had no inventory row",
+                id, posted.size(), netQuantityChange,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt), report.getUnmatched().size());
+        return new PostedCount(mapToDto(saved), posted.stream().map(CycleCountVarianceDto::getInventoryId).toList());
+    }
+
+    // Same bookkeeping as any other adjustment: product totals, the stock projection and one movement per row
+    private void recordPosted(List<CycleCountVarianceDto> posted, Long warehouseId, String reason) {
+        Map<Long, Integer> productDeltas = new HashMap<>();
+        List<InventoryMovement> movements = new ArrayList<>(posted.size());
+        for (CycleCountVarianceDto variance : posted) {
+            productDeltas.merge(variance.getProductId(), variance.getVariance(), Integer::sum);
+            stockAvailabilityProjection.recordChange(variance.getProductId(), warehouseId, variance.getVariance());
+            movements.add(InventoryMovement.builder()
+                    .inventoryId(variance.getInventoryId())
+                    .productId(variance.getProductId())
+                    .warehouseId(warehouseId)
+                    .movementType(InventoryMovement.MovementType.ADJUSTMENT)
+                    .quantityChange(variance.getVariance())
+                    .resultingQuantity(variance.getCountedQuantity())
+                    .reason(reason)
+                    .build());
+        }
+        productDeltas.forEach(productStockService::applyDelta);
+        inventoryMovementService.recordAll(movements);
+    }
+
+    @Override
+    @Transactional
+    public CycleCountDto cancel(Long id) {
+        if (cycleCountRepository.closeIfOpen(id, CycleCount.Status.CANCELLED, LocalDateTime.now()) == 0) {
+            findCycleCount(id);
+            throw new ConflictException("Cycle count " + id + " is not open");
+        }
+        return mapToDto(findCycleCount(id));
+    }
+
+    // Hash join of the counts against the warehouse's rows on (product, batch). Counts are folded first (latest
+    // per location, summed per batch), then the rows are streamed once and probed against them.
+    private CycleCountVarianceReportDto computeVariances(CycleCount cycleCount) {
+        long startedAt = System.nanoTime();
+        Map<CountKey, Integer> latestByLocation = new HashMap<>();
+        int[] countedLines = new int[1];
+        try (Stream<Object[]> stream = cycleCountLineRepository.streamCounts(cycleCount.getId())) {
+            stream.forEach(row -> {
+                latestByLocation.put(new CountKey(((Number) row[0]).longValue(), (String) row[1], (String) row[2]),
+                        ((Number) row[3]).intValue());
+                countedLines[0]++;
+            });
+        }
+        Map<BatchKey, Counted> counted = new HashMap<>(latestByLocation.size() * 2);
+        latestByLocation.forEach((key, quantity) -> counted
+                .computeIfAbsent(new BatchKey(key.productId(), key.batchNumber()), batch -> new Counted())
+                .add(key.location(), quantity));
+
+        List<CycleCountVarianceDto> variances = new ArrayList<>();
+        int rowsInScope = 0;
+        long netVariance = 0;
+        try (Stream<Object[]> stream = inventoryRepository.streamCycleCountRows(cycleCount.getWarehouseId())) {
+            Iterator<Object[]> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Object[] row = iterator.next();
+                long productId = ((Number) row[1]).longValue();
+                String batchNumber = blankToNull((String) row[2]);
+                int systemQuantity = ((Number) row[4]).intValue();
+                Counted match = counted.get(new BatchKey(productId, batchNumber));
+                if (match == null && !cycleCount.getFullCount()) {
+                    continue;
+                }
+                int countedQuantity = 0;
+                if (match != null) {
+                    match.matched = true;
+                    countedQuantity = match.quantity;
+                }
+                rowsInScope++;
+                if (countedQuantity != systemQuantity) {
+                    variances.add(new CycleCountVarianceDto(((Number) row[0]).longValue(), productId, batchNumber,
+                            (String) row[3], systemQuantity, countedQuantity, countedQuantity - systemQuantity));
+                    netVariance += countedQuantity - systemQuantity;
+                }
+            }
+        }
+
+        List<CycleCountVarianceDto> unmatched = new ArrayList<>();
+        counted.forEach((key, match) -> {
+            if (!match.matched) {
+                unmatched.add(new CycleCountVarianceDto(null, key.productId(), key.batchNumber(), match.location,
+                        0, match.quantity, match.quantity));
+            }
+        });
+        variances.sort(Comparator.comparing(CycleCountVarianceDto::getInventoryId));
+        unmatched.sort(Comparator.comparing(CycleCountVarianceDto::getProductId)
+                .thenComparing(CycleCountVarianceDto::getBatchNumber, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return new CycleCountVarianceReportDto(cycleCount.getId(), countedLines[0], rowsInScope, variances.size(),
+                netVariance, variances, unmatched, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    private CycleCount findCycleCount(Long id) {
+        return cycleCountRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Cycle count not found with id: " + id));
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private CycleCountDto mapToDto(CycleCount cycleCount) {
+        return CycleCountDto.builder()
+                .id(cycleCount.getId())
+                .warehouseId(cycleCount.getWarehouseId())
+                .fullCount(cycleCount.getFullCount())
+                .status(cycleCount.getStatus())
+                .countedLines(cycleCount.getCountedLines())
+                .reason(cycleCount.getReason())
+                .createdAt(cycleCount.getCreatedAt())
+                .postedAt(cycleCount.getPostedAt())
+                .adjustedRows(cycleCount.getAdjustedRows())
+                .netQuantityChange(cycleCount.getNetQuantityChange())
+                .build();
+    }
+
+    private record CountKey(long productId, String batchNumber, String location) {
+    }
+
+    private record BatchKey(long productId, String batchNumber) {
+    }
+
+    private record PostedCount(CycleCountDto cycleCount, List<Long> inventoryIds) {
+    }
+
+    // Counted quantity of one batch over all its locations
+    private static final class Counted {
+        private int quantity;
+        private String location; // First location counted, for reporting
+        private boolean matched;
+
+        private void add(String countedLocation, int countedQuantity) {
+            quantity += countedQuantity;
+            if (location == null) {
+                location = countedLocation;
+            }
+        }
+    }
+}
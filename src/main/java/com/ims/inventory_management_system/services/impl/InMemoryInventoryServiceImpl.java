@@ -0,0 +1,490 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentResponse;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentResultDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationLineDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationStatsDto;
+import com.ims.inventory_management_system.dto.InventoryCursorPageDto;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.InventoryTransferStatsDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.StockReservationLedger;
+import com.ims.inventory_management_system.services.impl.InventoryServiceImpl.StockKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.adjustmentResult;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.bulkAdjustmentResponse;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.insufficientForAllocation;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.markNotApplied;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.reservedStockShortfall;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.validateAllocation;
+import static com.ims.inventory_management_system.services.impl.InventoryServiceImpl.validateTransfers;
+
+// Quantity changes go to the in-memory engine; everything else is delegated to the database-backed service,
+// with quantities in the results taken from the engine
+@Service
+@Primary
+@ConditionalOnProperty(name = "inventory.engine.mode", havingValue = "memory")
+@RequiredArgsConstructor
+public class InMemoryInventoryServiceImpl implements InventoryService {
+
+    private final InventoryServiceImpl databaseInventoryService;
+    private final InMemoryStockEngine engine;
+    private final InventoryMovementService inventoryMovementService;
+    private final StockReservationLedger stockReservationLedger;
+
+    private final AtomicLong transferCommittedBatches = new AtomicLong();
+    private final AtomicLong transferCommittedLines = new AtomicLong();
+    private final AtomicLong transferLatencyNanos = new AtomicLong();
+
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong allocatedUnits = new AtomicLong();
+    private final AtomicLong rejectedAllocations = new AtomicLong();
+    private final AtomicLong allocationLatencyNanos = new AtomicLong();
+
+    @Override
+    public InventoryDto addInventory(InventoryDto inventoryDto) {
+        return engine.writeThrough(() -> {
+            InventoryDto savedInventoryDto = databaseInventoryService.addInventory(inventoryDto);
+            engine.reload(List.of(savedInventoryDto.getId()));
+            return savedInventoryDto;
+        });
+    }
+
+    @Override
+    public InventoryDto getInventoryById(Long id) {
+        return withCurrentQuantity(databaseInventoryService.getInventoryById(id));
+    }
+
+    @Override
+    public List<InventoryDto> getAllInventory() {
+        return withCurrentQuantities(databaseInventoryService.getAllInventory());
+    }
+
+    @Override
+    public List<InventoryDto> getInventoryByProduct(Long productId) {
+        return withCurrentQuantities(databaseInventoryService.getInventoryByProduct(productId));
+    }
+
+    @Override
+    public List<InventoryDto> getInventoryByWarehouse(Long warehouseId) {
+        return withCurrentQuantities(databaseInventoryService.getInventoryByWarehouse(warehouseId));
+    }
+
+    @Override
+    public InventoryCursorPageDto getInventoryPage(Long productId, Long warehouseId, Long afterId, int limit) {
+        InventoryCursorPageDto page = databaseInventoryService.getInventoryPage(productId, warehouseId, afterId, limit);
+        withCurrentQuantities(page.getItems());
+        return page;
+    }
+
+    @Override
+    public void streamInventory(Long productId, Long warehouseId, Consumer<InventoryDto> consumer) {
+        databaseInventoryService.streamInventory(productId, warehouseId,
+                inventoryDto -> consumer.accept(withCurrentQuantity(inventoryDto)));
+    }
+
+    @Override
+    public List<InventoryDto> getLowStockInventory() {
+        return withCurrentQuantities(databaseInventoryService.getLowStockInventory());
+    }
+
+    @Override
+    public Page<InventoryDto> getLowStockInventory(Pageable pageable) {
+        Page<InventoryDto> page = databaseInventoryService.getLowStockInventory(pageable);
+        withCurrentQuantities(page.getContent());
+        return page;
+    }
+
+    @Override
+    public List<InventoryDto> getExpiringInventory(int daysToExpiry) {
+        return withCurrentQuantities(databaseInventoryService.getExpiryCandidates(daysToExpiry)).stream()
+                .filter(inventoryDto -> inventoryDto.getQuantity() > 0)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public InventoryDto updateInventory(Long id, InventoryDto inventoryDto) {
+        return engine.writeThrough(() -> {
+            InventoryDto updatedInventoryDto = databaseInventoryService.updateInventory(id, inventoryDto);
+            engine.reload(List.of(id));
+            return updatedInventoryDto;
+        });
+    }
+
+    @Override
+    public void adjustInventory(Long id, Integer quantityChange, String reason) {
+        InMemoryStockEngine.Row current = quantityChange < 0 ? engine.row(id) : null;
+        InMemoryStockEngine.Row row = current != null
+                ? withClaim(current.productId(), current.warehouseId(), -quantityChange, () -> engine.adjust(id, quantityChange))
+                : engine.adjust(id, quantityChange);
+        recordMovement(InventoryMovement.MovementType.ADJUSTMENT, row, quantityChange, row.quantity(), reason);
+    }
+
+    @Override
+    public BulkInventoryAdjustmentResponse adjustInventoryBulk(List<InventoryAdjustmentRequest> adjustments, boolean allOrNothing) {
+        return engine.atomically(() -> {
+            // Same line-by-line validation as the database path; nothing can change underneath while the engine is held
+            Map<Long, Integer> runningQuantities = new HashMap<>();
+            Map<Long, Integer> netDeltas = new LinkedHashMap<>();
+            List<InventoryAdjustmentResultDto> results = new ArrayList<>();
+            for (int line = 0; line < adjustments.size(); line++) {
+                InventoryAdjustmentRequest adjustment = adjustments.get(line);
+                Long id = adjustment.getInventoryId();
+                Integer storedQuantity = id != null ? engine.quantity(id) : null;
+                if (storedQuantity == null) {
+                    results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                            "Inventory not found with id: " + id));
+                    continue;
+                }
+                if (adjustment.getQuantityChange() == null) {
+                    results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                            "Quantity change is required"));
+                    continue;
+                }
+
+                int currentQuantity = runningQuantities.getOrDefault(id, storedQuantity);
+                int newQuantity = currentQuantity + adjustment.getQuantityChange();
+                if (newQuantity < 0) {
+                    results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                            "Cannot adjust inventory below zero. Current: " + currentQuantity +
+                                    ", Change: " + adjustment.getQuantityChange()));
+                    continue;
+                }
+                runningQuantities.put(id, newQuantity);
+                netDeltas.merge(id, adjustment.getQuantityChange(), Integer::sum);
+                results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.APPLIED, newQuantity, null));
+            }
+
+            boolean anyFailed = results.stream()
+                    .anyMatch(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.FAILED);
+            if (allOrNothing && anyFailed) {
+                markNotApplied(results);
+                return bulkAdjustmentResponse(true, results);
+            }
+
+            // Units held by reservations cannot be adjusted away
+            Map<StockKey, Integer> claimed = new HashMap<>();
+            for (Iterator<Map.Entry<Long, Integer>> deltas = netDeltas.entrySet().iterator(); deltas.hasNext(); ) {
+                Map.Entry<Long, Integer> delta = deltas.next();
+                if (delta.getValue() >= 0) {
+                    continue;
+                }
+                InMemoryStockEngine.Row row = engine.row(delta.getKey());
+                if (stockReservationLedger.tryClaim(row.productId(), row.warehouseId(), -delta.getValue())) {
+                    claimed.merge(new StockKey(row.productId(), row.warehouseId()), -delta.getValue(), Integer::sum);
+                    continue;
+                }
+                for (InventoryAdjustmentResultDto result : results) {
+                    if (delta.getKey().equals(result.getInventoryId()) &&
+                            result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                        result.setStatus(InventoryAdjustmentResultDto.Status.FAILED);
+                        result.setNewQuantity(null);
+                        result.setMessage("Cannot adjust inventory below the reserved quantity. Unreserved: " +
+                                stockReservationLedger.getUnreservedQuantity(row.productId(), row.warehouseId()));
+                    }
+                }
+                deltas.remove();
+            }
+            try {
+                if (allOrNothing && results.stream()
+                        .anyMatch(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.FAILED)) {
+                    markNotApplied(results);
+                    return bulkAdjustmentResponse(true, results);
+                }
+                netDeltas.forEach(engine::adjust);
+            } finally {
+                claimed.forEach((key, quantity) -> stockReservationLedger.release(key.productId(), key.warehouseId(),
+                        quantity));
+            }
+            for (InventoryAdjustmentResultDto result : results) {
+                if (result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                    InventoryAdjustmentRequest adjustment = adjustments.get(result.getLine());
+                    recordMovement(InventoryMovement.MovementType.ADJUSTMENT, engine.row(result.getInventoryId()),
+                            adjustment.getQuantityChange(), result.getNewQuantity(), adjustment.getReason());
+                }
+            }
+            return bulkAdjustmentResponse(allOrNothing, results);
+        });
+    }
+
+    @Override
+    public void transferInventory(Long sourceInventoryId, Long destinationWarehouseId, Integer quantity) {
+        transferInventoryBatch(List.of(new InventoryTransferRequest(sourceInventoryId, destinationWarehouseId, quantity)));
+    }
+
+    @Override
+    public void transferInventoryBatch(List<InventoryTransferRequest> transfers) {
+        validateTransfers(transfers);
+
+        long startedAt = System.nanoTime();
+        if (engine.atomically(() -> transferInMemory(transfers))) {
+            transferCommittedBatches.incrementAndGet();
+            transferCommittedLines.addAndGet(transfers.size());
+            transferLatencyNanos.addAndGet(System.nanoTime() - startedAt);
+            return;
+        }
+
+        // A destination row has to be created, which only the database path can do
+        engine.writeThrough(() -> {
+            databaseInventoryService.transferInventoryBatch(transfers);
+            Set<Long> sourceIds = transfers.stream()
+                    .map(InventoryTransferRequest::getSourceInventoryId)
+                    .collect(Collectors.toSet());
+            Set<Long> productIds = new HashSet<>();
+            for (Long sourceId : sourceIds) {
+                InMemoryStockEngine.Row source = engine.row(sourceId);
+                if (source != null) {
+                    productIds.add(source.productId());
+                }
+            }
+            engine.reloadProducts(productIds);
+            return null;
+        });
+    }
+
+    @Override
+    public InventoryTransferStatsDto getTransferStats() {
+        InventoryTransferStatsDto databaseStats = databaseInventoryService.getTransferStats();
+        long memoryBatches = transferCommittedBatches.get();
+        long batches = databaseStats.getCommittedBatches() + memoryBatches;
+        double totalMillis = databaseStats.getAverageBatchMillis() * databaseStats.getCommittedBatches() +
+                transferLatencyNanos.get() / 1_000_000.0;
+        return new InventoryTransferStatsDto(
+                batches,
+                databaseStats.getCommittedLines() + transferCommittedLines.get(),
+                databaseStats.getFailedBatches(),
+                databaseStats.getLockFailures(),
+                batches > 0 ? totalMillis / batches : 0);
+    }
+
+    @Override
+    public InventoryAllocationDto allocateInventory(InventoryAllocationRequest request) {
+        return allocate(request, false);
+    }
+
+    @Override
+    public InventoryAllocationDto allocateReservedInventory(InventoryAllocationRequest request) {
+        return allocate(request, true);
+    }
+
+    private InventoryAllocationDto allocate(InventoryAllocationRequest request, boolean reserved) {
+        validateAllocation(request);
+        long startedAt = System.nanoTime();
+        // Pick order comes from the database index; how much each batch holds comes from the engine
+        Map<Long, LocalDate> candidates = databaseInventoryService.getAllocationCandidates(request.getProductId(),
+                request.getWarehouseId());
+        InventoryAllocationDto allocation;
+        try {
+            allocation = engine.atomically(() -> allocateInMemory(request, candidates, reserved));
+        } catch (InsufficientInventoryException e) {
+            rejectedAllocations.incrementAndGet();
+            throw e;
+        }
+        allocations.incrementAndGet();
+        allocatedUnits.addAndGet(allocation.getAllocatedQuantity());
+        allocationLatencyNanos.addAndGet(System.nanoTime() - startedAt);
+        return allocation;
+    }
+
+    @Override
+    public InventoryAllocationStatsDto getAllocationStats() {
+        long count = allocations.get();
+        // Picks are serialized on the engine lock, so there are no conflicts or lock failures to report
+        return new InventoryAllocationStatsDto(
+                count,
+                allocatedUnits.get(),
+                rejectedAllocations.get(),
+                0,
+                0,
+                count > 0 ? allocationLatencyNanos.get() / 1_000_000.0 / count : 0);
+    }
+
+    @Override
+    public void deleteInventory(Long id) {
+        engine.writeThrough(() -> {
+            databaseInventoryService.deleteInventory(id);
+            engine.reload(List.of(id));
+            return null;
+        });
+    }
+
+    @Override
+    public Integer getTotalQuantityForProduct(Long productId) {
+        return engine.productTotal(productId);
+    }
+
+    // Runs under the engine lock. Returns false without changing anything when a destination row does not exist yet.
+    private boolean transferInMemory(List<InventoryTransferRequest> transfers) {
+        Map<Long, Integer> runningQuantities = new HashMap<>();
+        Map<Long, Integer> netDeltas = new LinkedHashMap<>();
+        List<InventoryMovement> movements = new ArrayList<>();
+        for (InventoryTransferRequest transfer : transfers) {
+            InMemoryStockEngine.Row source = engine.row(transfer.getSourceInventoryId());
+            if (source == null) {
+                throw new ResourceNotFoundException("Source inventory not found with id: " + transfer.getSourceInventoryId());
+            }
+            Long destinationId = engine.findRowId(source.productId(), transfer.getDestinationWarehouseId(),
+                    source.batchNumber());
+            if (destinationId == null) {
+                return false;
+            }
+
+            int quantity = transfer.getQuantity();
+            int available = runningQuantities.getOrDefault(source.id(), source.quantity());
+            if (available < quantity) {
+                throw new InsufficientInventoryException("Insufficient inventory to transfer. Available: " +
+                        available + ", Requested: " + quantity);
+            }
+            int sourceQuantity = available - quantity;
+            runningQuantities.put(source.id(), sourceQuantity);
+            int destinationQuantity = runningQuantities.getOrDefault(destinationId, engine.quantity(destinationId)) + quantity;
+            runningQuantities.put(destinationId, destinationQuantity);
+            netDeltas.merge(source.id(), -quantity, Integer::sum);
+            netDeltas.merge(destinationId, quantity, Integer::sum);
+
+            InMemoryStockEngine.Row destination = engine.row(destinationId);
+            movements.add(movement(InventoryMovement.MovementType.TRANSFER_OUT, source, -quantity, sourceQuantity, null));
+            movements.add(movement(InventoryMovement.MovementType.TRANSFER_IN, destination, quantity,
+                    destinationQuantity, null));
+        }
+
+        // Reserved stock cannot be moved away: claim every outgoing unit before anything is applied
+        Map<StockKey, Integer> outgoing = new HashMap<>();
+        for (InventoryTransferRequest transfer : transfers) {
+            InMemoryStockEngine.Row source = engine.row(transfer.getSourceInventoryId());
+            outgoing.merge(new StockKey(source.productId(), source.warehouseId()), transfer.getQuantity(), Integer::sum);
+        }
+        Map<StockKey, Integer> claimed = new HashMap<>();
+        try {
+            outgoing.forEach((key, quantity) -> {
+                if (!stockReservationLedger.tryClaim(key.productId(), key.warehouseId(), quantity)) {
+                    throw reservedStockShortfall(key.productId(), key.warehouseId(), quantity,
+                            stockReservationLedger.getUnreservedQuantity(key.productId(), key.warehouseId()));
+                }
+                claimed.put(key, quantity);
+            });
+            netDeltas.forEach(engine::adjust);
+        } finally {
+            claimed.forEach((key, quantity) -> stockReservationLedger.release(key.productId(), key.warehouseId(), quantity));
+        }
+        inventoryMovementService.recordAll(movements);
+        return true;
+    }
+
+    // Runs under the engine lock, so the quantities read here cannot change before they are decremented. Units already
+    // held by the caller's reservation are taken as they are; anything else is first claimed from the unreserved stock
+    private InventoryAllocationDto allocateInMemory(InventoryAllocationRequest request, Map<Long, LocalDate> candidates,
+                                                    boolean reserved) {
+        if (reserved) {
+            return pick(request, candidates, request.getQuantity());
+        }
+        int unreserved = stockReservationLedger.claimUpTo(request.getProductId(), request.getWarehouseId(),
+                request.getQuantity());
+        try {
+            if (unreserved < request.getQuantity() && !Boolean.TRUE.equals(request.getAllowPartial())) {
+                throw insufficientForAllocation(request, unreserved);
+            }
+            return pick(request, candidates, unreserved);
+        } finally {
+            stockReservationLedger.release(request.getProductId(), request.getWarehouseId(), unreserved);
+        }
+    }
+
+    private InventoryAllocationDto pick(InventoryAllocationRequest request, Map<Long, LocalDate> candidates, int quantity) {
+        int remaining = quantity;
+        List<InventoryAllocationLineDto> lines = new ArrayList<>();
+        for (Map.Entry<Long, LocalDate> candidate : candidates.entrySet()) {
+            if (remaining == 0) {
+                break;
+            }
+            InMemoryStockEngine.Row row = engine.row(candidate.getKey());
+            if (row == null || row.quantity() <= 0) {
+                continue;
+            }
+            int take = Math.min(remaining, row.quantity());
+            lines.add(new InventoryAllocationLineDto(row.id(), row.batchNumber(), candidate.getValue(), take,
+                    row.quantity() - take));
+            remaining -= take;
+        }
+
+        int allocated = quantity - remaining;
+        if (remaining > 0 && !Boolean.TRUE.equals(request.getAllowPartial())) {
+            throw insufficientForAllocation(request, allocated);
+        }
+        for (InventoryAllocationLineDto line : lines) {
+            InMemoryStockEngine.Row row = engine.adjust(line.getInventoryId(), -line.getQuantity());
+            recordMovement(InventoryMovement.MovementType.ALLOCATION, row, -line.getQuantity(), row.quantity(),
+                    request.getReason());
+        }
+        return new InventoryAllocationDto(request.getProductId(), request.getWarehouseId(), request.getQuantity(),
+                allocated, lines);
+    }
+
+    // The engine updates the stock projection as it applies a change, so a claim can be given back as soon as it returns
+    private <T> T withClaim(long productId, long warehouseId, int quantity, Supplier<T> decrement) {
+        if (!stockReservationLedger.tryClaim(productId, warehouseId, quantity)) {
+            throw reservedStockShortfall(productId, warehouseId, quantity,
+                    stockReservationLedger.getUnreservedQuantity(productId, warehouseId));
+        }
+        try {
+            return decrement.get();
+        } finally {
+            stockReservationLedger.release(productId, warehouseId, quantity);
+        }
+    }
+
+    private void recordMovement(InventoryMovement.MovementType movementType, InMemoryStockEngine.Row row,
+                                int quantityChange, int resultingQuantity, String reason) {
+        inventoryMovementService.record(movement(movementType, row, quantityChange, resultingQuantity, reason));
+    }
+
+    private InventoryMovement movement(InventoryMovement.MovementType movementType, InMemoryStockEngine.Row row,
+                                       int quantityChange, int resultingQuantity, String reason) {
+        return InventoryMovement.builder()
+                .inventoryId(row.id())
+                .productId(row.productId())
+                .warehouseId(row.warehouseId())
+                .movementType(movementType)
+                .quantityChange(quantityChange)
+                .resultingQuantity(resultingQuantity)
+                .reason(reason)
+                .build();
+    }
+
+    private List<InventoryDto> withCurrentQuantities(List<InventoryDto> inventoryDtos) {
+        return engine.atomically(() -> {
+            inventoryDtos.forEach(this::withCurrentQuantity);
+            return inventoryDtos;
+        });
+    }
+
+    private InventoryDto withCurrentQuantity(InventoryDto inventoryDto) {
+        Integer quantity = engine.quantity(inventoryDto.getId());
+        if (quantity != null) {
+            inventoryDto.setQuantity(quantity);
+        }
+        return inventoryDto;
+    }
+}
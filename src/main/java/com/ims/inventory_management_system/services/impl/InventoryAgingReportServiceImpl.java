@@ -0,0 +1,255 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryAgingJobDto;
+import com.ims.inventory_management_system.dto.InventoryAgingLineDto;
+import com.ims.inventory_management_system.dto.InventoryAgingReportDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.repositories.InventoryCostLayerRepository;
+import com.ims.inventory_management_system.services.InventoryAgingReportService;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryAgingReportServiceImpl implements InventoryAgingReportService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryAgingReportServiceImpl.class);
+
+    private static final List<String> BUCKETS = List.of("0-30", "31-60", "61-90", "90+");
+    private static final int CHUNK_SIZE = 8192;
+    // Category id used in group keys for products without a category
+    private static final long NO_CATEGORY = 0L;
+
+    private final InventoryCostLayerRepository inventoryCostLayerRepository;
+    private final InventoryValuationService inventoryValuationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.reports.aging.cache-ttl-seconds:900}")
+    private long cacheTtlSeconds;
+
+    private ExecutorService executor;
+    // Latest job; guarded by this
+    private InventoryAgingJobDto job;
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "inventory-aging-report");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Starts a job unless one is running or the cached report is still fresh and no refresh was asked for
+    @Override
+    public synchronized InventoryAgingJobDto requestReport(boolean refresh) {
+        if (job != null && job.getStatus() == InventoryAgingJobDto.Status.RUNNING) {
+            return copy(job);
+        }
+        if (!refresh && job != null && job.getStatus() == InventoryAgingJobDto.Status.COMPLETED &&
+                job.getCompletedAt().isAfter(LocalDateTime.now().minusSeconds(cacheTtlSeconds))) {
+            return copy(job);
+        }
+        // While the new job runs, the previous report (if any) stays readable
+        InventoryAgingJobDto started = new InventoryAgingJobDto(InventoryAgingJobDto.Status.RUNNING,
+                LocalDateTime.now(), null, null, job != null ? job.getReport() : null);
+        job = started;
+        executor.execute(() -> run(started));
+        return copy(started);
+    }
+
+    @Override
+    public synchronized InventoryAgingJobDto getReportJob() {
+        if (job == null) {
+            throw new ResourceNotFoundException("No inventory aging report has been requested");
+        }
+        return copy(job);
+    }
+
+    // One streaming pass over the non-empty cost layers, so stock ages from when it was received (transfers keep the
+    // original receipt date) and is valued at what it cost. The cursor is read on the calling thread into primitive
+    // chunks, and each chunk is aggregated on the fork/join pool; at most a few chunks are in flight at a time
+    @Override
+    public InventoryAgingReportDto generateReport() {
+        long startedAt = System.nanoTime();
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+        inventoryValuationService.flush();
+
+        LocalDate today = LocalDate.now();
+        Map<Long, long[]> totals = new HashMap<>();
+        long[] rows = new long[1];
+        int maxInFlight = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+        transactionTemplate.executeWithoutResult(status -> {
+            Deque<ForkJoinTask<Map<Long, long[]>>> inFlight = new ArrayDeque<>();
+            try (Stream<Object[]> stream = inventoryCostLayerRepository.streamAgingRows()) {
+                Iterator<Object[]> iterator = stream.iterator();
+                Chunk chunk = new Chunk();
+                while (iterator.hasNext()) {
+                    Object[] row = iterator.next();
+                    long categoryId = row[1] != null ? ((Number) row[1]).longValue() : NO_CATEGORY;
+                    long ageDays = ChronoUnit.DAYS.between(((LocalDateTime) row[2]).toLocalDate(), today);
+                    int quantity = ((Number) row[3]).intValue();
+                    chunk.add(((Number) row[0]).longValue() << 32 | categoryId, bucket(ageDays), quantity,
+                            cents(((BigDecimal) row[4]).multiply(BigDecimal.valueOf(quantity))));
+                    rows[0]++;
+                    if (chunk.size == CHUNK_SIZE) {
+                        inFlight.addLast(ForkJoinPool.commonPool().submit(chunk::aggregate));
+                        chunk = new Chunk();
+                        if (inFlight.size() >= maxInFlight) {
+                            merge(totals, inFlight.removeFirst().join());
+                        }
+                    }
+                }
+                if (chunk.size > 0) {
+                    inFlight.addLast(ForkJoinPool.commonPool().submit(chunk::aggregate));
+                }
+            }
+            while (!inFlight.isEmpty()) {
+                merge(totals, inFlight.removeFirst().join());
+            }
+        });
+
+        long[] total = new long[2 * BUCKETS.size()];
+        Map<Long, long[]> byWarehouse = new HashMap<>();
+        Map<Long, long[]> byCategory = new HashMap<>();
+        totals.forEach((groupKey, accumulator) -> {
+            long categoryId = groupKey & 0xFFFFFFFFL;
+            add(total, accumulator);
+            add(byWarehouse.computeIfAbsent(groupKey >>> 32, id -> new long[accumulator.length]), accumulator);
+            add(byCategory.computeIfAbsent(categoryId != NO_CATEGORY ? categoryId : null,
+                    id -> new long[accumulator.length]), accumulator);
+        });
+
+        long generationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Inventory aging report aggregated {} cost layers into {} warehouse/category groups in {} ms",
+                rows[0], totals.size(), generationMillis);
+        return new InventoryAgingReportDto(BUCKETS, toLine(null, total), toLines(byWarehouse), toLines(byCategory),
+                rows[0], LocalDateTime.now(), generationMillis);
+    }
+
+    private void run(InventoryAgingJobDto started) {
+        try {
+            InventoryAgingReportDto report = generateReport();
+            synchronized (this) {
+                started.setReport(report);
+                started.setCompletedAt(LocalDateTime.now());
+                started.setStatus(InventoryAgingJobDto.Status.COMPLETED);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Inventory aging report failed", e);
+            synchronized (this) {
+                started.setError(e.getMessage());
+                started.setCompletedAt(LocalDateTime.now());
+                started.setStatus(InventoryAgingJobDto.Status.FAILED);
+            }
+        }
+    }
+
+    private static InventoryAgingJobDto copy(InventoryAgingJobDto job) {
+        return new InventoryAgingJobDto(job.getStatus(), job.getRequestedAt(), job.getCompletedAt(), job.getError(),
+                job.getReport());
+    }
+
+    private static int bucket(long ageDays) {
+        if (ageDays <= 30) {
+            return 0;
+        }
+        if (ageDays <= 60) {
+            return 1;
+        }
+        return ageDays <= 90 ? 2 : 3;
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount != null ? amount.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue() : 0L;
+    }
+
+    private static void merge(Map<Long, long[]> totals, Map<Long, long[]> partial) {
+        partial.forEach((groupKey, accumulator) -> add(totals.computeIfAbsent(groupKey,
+                key -> new long[accumulator.length]), accumulator));
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    private static List<InventoryAgingLineDto> toLines(Map<Long, long[]> accumulators) {
+        List<InventoryAgingLineDto> lines = new ArrayList<>(accumulators.size());
+        accumulators.forEach((id, accumulator) -> lines.add(toLine(id, accumulator)));
+        lines.sort(Comparator.comparing(InventoryAgingLineDto::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return lines;
+    }
+
+    // Accumulators hold the quantity per bucket followed by the value in cents per bucket
+    private static InventoryAgingLineDto toLine(Long id, long[] accumulator) {
+        List<Long> quantities = new ArrayList<>(BUCKETS.size());
+        List<BigDecimal> values = new ArrayList<>(BUCKETS.size());
+        for (int bucket = 0; bucket < BUCKETS.size(); bucket++) {
+            quantities.add(accumulator[bucket]);
+            values.add(BigDecimal.valueOf(accumulator[BUCKETS.size() + bucket], 2));
+        }
+        return new InventoryAgingLineDto(id, quantities, values);
+    }
+
+    private static final class Chunk {
+        private final long[] groupKeys = new long[CHUNK_SIZE]; // warehouseId << 32 | categoryId
+        private final int[] buckets = new int[CHUNK_SIZE];
+        private final int[] quantities = new int[CHUNK_SIZE];
+        private final long[] valueCents = new long[CHUNK_SIZE];
+        private int size;
+
+        private void add(long groupKey, int bucket, int quantity, long value) {
+            groupKeys[size] = groupKey;
+            buckets[size] = bucket;
+            quantities[size] = quantity;
+            valueCents[size] = value;
+            size++;
+        }
+
+        private Map<Long, long[]> aggregate() {
+            Map<Long, long[]> partial = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                long[] accumulator = partial.computeIfAbsent(groupKeys[i], key -> new long[2 * BUCKETS.size()]);
+                accumulator[buckets[i]] += quantities[i];
+                accumulator[BUCKETS.size() + buckets[i]] += valueCents[i];
+            }
+            return partial;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryAvailabilityRequest;
+import com.ims.inventory_management_system.dto.InventoryAvailabilityResponse;
+import com.ims.inventory_management_system.dto.ProductAvailabilityDto;
+import com.ims.inventory_management_system.dto.WarehouseStockDto;
+import com.ims.inventory_management_system.repositories.ProductRepository;
+import com.ims.inventory_management_system.services.InventoryAvailabilityService;
+import com.ims.inventory_management_system.services.InventoryHotspotService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryAvailabilityServiceImpl implements InventoryAvailabilityService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final InventoryHotspotService inventoryHotspotService;
+
+    @Value("${inventory.availability.max-products:1000}")
+    private int maxProducts;
+
+    // One grouped query per chunk of ids or SKUs answers both the lookup and the per-warehouse sums, so a page of
+    // products costs one or two round trips instead of one request per product
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryAvailabilityResponse getAvailability(InventoryAvailabilityRequest request) {
+        Set<Long> productIds = new LinkedHashSet<>(request.getProductIds() != null ? request.getProductIds() : List.of());
+        Set<String> skus = new LinkedHashSet<>(request.getSkus() != null ? request.getSkus() : List.of());
+        if (productIds.contains(null) || skus.contains(null)) {
+            throw new IllegalArgumentException("Product ids and SKUs must not be null");
+        }
+        if (productIds.isEmpty() && skus.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id or SKU is required");
+        }
+        if (productIds.size() + skus.size() > maxProducts) {
+            throw new IllegalArgumentException("At most " + maxProducts + " products can be looked up at once");
+        }
+
+        Map<Long, ProductAvailabilityDto> byId = new HashMap<>();
+        Map<String, ProductAvailabilityDto> bySku = new HashMap<>();
+        lookUp(List.copyOf(productIds), productRepository::findAvailabilityByIdIn, byId, bySku);
+        // SKUs of products already found by id are not looked up twice
+        lookUp(skus.stream().filter(sku -> !bySku.containsKey(sku)).toList(), productRepository::findAvailabilityBySkuIn,
+                byId, bySku);
+
+        Map<Long, ProductAvailabilityDto> products = new LinkedHashMap<>();
+        List<Long> unknownProductIds = new ArrayList<>();
+        for (Long productId : productIds) {
+            ProductAvailabilityDto product = byId.get(productId);
+            if (product != null) {
+                products.putIfAbsent(productId, product);
+            } else {
+                unknownProductIds.add(productId);
+            }
+        }
+        List<String> unknownSkus = new ArrayList<>();
+        for (String sku : skus) {
+            ProductAvailabilityDto product = bySku.get(sku);
+            if (product != null) {
+                products.putIfAbsent(product.getProductId(), product);
+            } else {
+                unknownSkus.add(sku);
+            }
+        }
+        for (ProductAvailabilityDto product : products.values()) {
+            product.getWarehouses().sort(Comparator.comparing(WarehouseStockDto::getWarehouseId));
+            inventoryHotspotService.recordProductLookup(product.getProductId());
+        }
+        return new InventoryAvailabilityResponse(new ArrayList<>(products.values()), unknownProductIds, unknownSkus);
+    }
+
+    // Chunk the IN list so large requests stay under the driver's bind parameter limit
+    private static <T> void lookUp(List<T> keys, Function<List<T>, List<Object[]>> query,
+                                   Map<Long, ProductAvailabilityDto> byId, Map<String, ProductAvailabilityDto> bySku) {
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK_SIZE) {
+            for (Object[] row : query.apply(keys.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, keys.size())))) {
+                Long productId = ((Number) row[0]).longValue();
+                ProductAvailabilityDto product = byId.get(productId);
+                if (product == null) {
+                    product = new ProductAvailabilityDto(productId, (String) row[1], 0, new ArrayList<>());
+                    byId.put(productId, product);
+                    bySku.put(product.getSku(), product);
+                }
+                int quantity = row[3] != null ? ((Number) row[3]).intValue() : 0;
+                if (row[2] != null && quantity != 0) {
+                    product.getWarehouses().add(new WarehouseStockDto(((Number) row[2]).longValue(), quantity));
+                    product.setTotalQuantity(product.getTotalQuantity() + quantity);
+                }
+            }
+        }
+    }
+}
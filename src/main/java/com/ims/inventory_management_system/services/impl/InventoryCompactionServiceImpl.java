@@ -0,0 +1,148 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryCompactionResultDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom;
+import com.ims.inventory_management_system.services.InventoryCompactionService;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryCompactionServiceImpl implements InventoryCompactionService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryCompactionServiceImpl.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementService inventoryMovementService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.compaction.min-age-days:30}")
+    private int minAgeDays;
+
+    @Value("${inventory.compaction.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${inventory.compaction.archive:true}")
+    private boolean archive;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        inventoryRepository.createEmptyRowIndex();
+    }
+
+    // Walks the empty rows in id order and removes them a chunk at a time, each chunk in its own short transaction,
+    // so row locks are held for one chunk only and concurrent stock changes are never blocked for long
+    @Override
+    public synchronized InventoryCompactionResultDto compact() {
+        if (chunkSize <= 0) {
+            throw new IllegalStateException("Compaction chunk size must be positive");
+        }
+        long startedAt = System.nanoTime();
+        InMemoryStockEngine engine = inMemoryStockEngine.getIfAvailable();
+        if (engine != null) {
+            engine.flush();
+        }
+
+        LocalDateTime emptiedBefore = LocalDateTime.now().minusDays(minAgeDays);
+        Optional<InventoryRepositoryCustom.StorageSize> before = inventoryRepository.findStorageSize();
+        int[] totals = new int[3]; // reclaimed, archived, skipped
+        int chunks = 0;
+        Long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = inventoryRepository.findOutOfStockItems(emptiedBefore, afterId, Limit.of(chunkSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> candidates = new ArrayList<>(rows.size());
+            Set<Long> warehouseIds = new HashSet<>();
+            for (Object[] row : rows) {
+                candidates.add(((Number) row[0]).longValue());
+                warehouseIds.add(((Number) row[1]).longValue());
+            }
+            // With the in-memory engine, pending changes are flushed first and removed rows are dropped from memory
+            int[] chunk = engine != null
+                    ? engine.writeThrough(() -> {
+                        int[] result = compactChunk(candidates, warehouseIds);
+                        engine.reload(candidates);
+                        return result;
+                    })
+                    : compactChunk(candidates, warehouseIds);
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += chunk[i];
+            }
+            chunks++;
+            if (candidates.size() < chunkSize) {
+                break;
+            }
+            afterId = candidates.get(candidates.size() - 1);
+        }
+        Optional<InventoryRepositoryCustom.StorageSize> after = inventoryRepository.findStorageSize();
+
+        long compactionMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Inventory compaction reclaimed {} empty rows ({} archived, {} skipped) emptied before {} in {} " +
+                "chunks in {} ms", totals[0], totals[1], totals[2], emptiedBefore, chunks, compactionMillis);
+        return InventoryCompactionResultDto.builder()
+                .emptiedBefore(emptiedBefore)
+                .archived(archive)
+                .reclaimedRows(totals[0])
+                .archivedRows(totals[1])
+                .skippedRows(totals[2])
+                .chunks(chunks)
+                .tableBytesBefore(before.map(InventoryRepositoryCustom.StorageSize::tableBytes).orElse(null))
+                .tableBytesAfter(after.map(InventoryRepositoryCustom.StorageSize::tableBytes).orElse(null))
+                .indexBytesBefore(before.map(InventoryRepositoryCustom.StorageSize::indexBytes).orElse(null))
+                .indexBytesAfter(after.map(InventoryRepositoryCustom.StorageSize::indexBytes).orElse(null))
+                .compactionMillis(compactionMillis)
+                .build();
+    }
+
+    // Locks the candidates and removes those still empty; a row that took stock since it was listed is left alone
+    private int[] compactChunk(List<Long> candidates, Set<Long> warehouseIds) {
+        return transactionTemplate.execute(status -> {
+            List<Long> empty = new ArrayList<>(candidates.size());
+            List<InventoryMovement> movements = new ArrayList<>(candidates.size());
+            for (Object[] row : inventoryRepository.lockQuantitiesByIdInAndWarehouseIdIn(candidates, warehouseIds)) {
+                if (((Number) row[3]).intValue() != 0) {
+                    continue;
+                }
+                Long inventoryId = ((Number) row[0]).longValue();
+                empty.add(inventoryId);
+                movements.add(InventoryMovement.builder()
+                        .inventoryId(inventoryId)
+                        .productId(((Number) row[1]).longValue())
+                        .warehouseId(((Number) row[2]).longValue())
+                        .movementType(InventoryMovement.MovementType.DELETION)
+                        .quantityChange(0)
+                        .resultingQuantity(0)
+                        .reason("Compaction: empty batch removed")
+                        .build());
+            }
+            if (empty.isEmpty()) {
+                return new int[]{0, 0, candidates.size()};
+            }
+            int archived = archive ? inventoryRepository.archiveRows(empty) : 0;
+            int reclaimed = inventoryRepository.deleteEmptyRows(empty);
+            inventoryMovementService.recordAll(movements);
+            return new int[]{reclaimed, archived, candidates.size() - empty.size()};
+        });
+    }
+}
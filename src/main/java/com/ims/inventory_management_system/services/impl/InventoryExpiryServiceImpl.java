@@ -0,0 +1,249 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.ExpirySweepResultDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.services.InventoryExpiryService;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryExpiryServiceImpl implements InventoryExpiryService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryExpiryServiceImpl.class);
+
+    private static final int NO_EXPIRY = Integer.MIN_VALUE;
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Epoch day of every dated row, empty ones included, so a restocked batch can be put back on the schedule
+    private final LongIntHashMap expiryDays = new LongIntHashMap(1024);
+    // Epoch day -> ids of rows that held stock when last seen (map values are unused)
+    private TreeMap<Integer, LongIntHashMap> schedule = new TreeMap<>();
+    // Rows scheduled while a sweep rebuilds the buckets; null when no rebuild is running
+    private List<Long> scheduledDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        inventoryRepository.createExpiryIndex();
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = inventoryRepository.streamExpiryDates()) {
+                lock.writeLock().lock();
+                try {
+                    rows.forEach(row -> {
+                        long inventoryId = ((Number) row[0]).longValue();
+                        int day = epochDay(row[1]);
+                        expiryDays.put(inventoryId, day);
+                        if (((Number) row[2]).intValue() > 0) {
+                            scheduleRow(inventoryId, day);
+                        }
+                    });
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        });
+        logger.info("Expiry schedule loaded {} dated inventory rows over {} days in {} ms", expiryDays.size(),
+                schedule.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    // Candidates may include rows that emptied since the last sweep; callers check quantities on the rows they load
+    @Override
+    public List<Long> getScheduledInventoryIds(LocalDate expiringBefore) {
+        Set<Long> inventoryIds = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (LongIntHashMap bucket : schedule.headMap((int) expiringBefore.toEpochDay(), false).values()) {
+                bucket.forEach((inventoryId, unused) -> inventoryIds.add(inventoryId));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(inventoryIds);
+    }
+
+    @Override
+    public void recordExpiryDate(long inventoryId, LocalDate expiryDate, int quantity) {
+        if (expiryDate == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyExpiryDate(inventoryId, (int) expiryDate.toEpochDay(), quantity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyExpiryDate(inventoryId, (int) expiryDate.toEpochDay(), quantity);
+            }
+        });
+    }
+
+    // Called with committed movements only. Rows are never unscheduled here when they empty out: that is left to the
+    // sweep, so movements applied out of commit order cannot drop a row that still holds stock
+    @Override
+    public void applyMovement(InventoryMovement movement) {
+        long inventoryId = movement.getInventoryId();
+        if (movement.getMovementType() == InventoryMovement.MovementType.DELETION) {
+            lock.writeLock().lock();
+            try {
+                int day = expiryDays.get(inventoryId, NO_EXPIRY);
+                if (day != NO_EXPIRY) {
+                    expiryDays.remove(inventoryId);
+                    unscheduleRow(inventoryId, day);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+        if (movement.getResultingQuantity() <= 0) {
+            return;
+        }
+
+        int day;
+        lock.readLock().lock();
+        try {
+            day = expiryDays.get(inventoryId, NO_EXPIRY);
+            if (day == NO_EXPIRY || isScheduled(inventoryId, day)) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            scheduleRow(inventoryId, day);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Quarantines every non-empty batch past its expiry date in one statement, then rebuilds the buckets from the
+    // partial index so rows that emptied since they were scheduled stop being read
+    @Override
+    public ExpirySweepResultDto sweep() {
+        long startedAt = System.nanoTime();
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+
+        LocalDate today = LocalDate.now();
+        Integer quarantined = transactionTemplate.execute(status ->
+                inventoryRepository.quarantineExpired(today, LocalDateTime.now()));
+
+        lock.writeLock().lock();
+        try {
+            scheduledDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TreeMap<Integer, LongIntHashMap> rebuilt = new TreeMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = inventoryRepository.streamOpenExpiryDates()) {
+                    rows.forEach(row -> rebuilt.computeIfAbsent(epochDay(row[1]), day -> new LongIntHashMap())
+                            .put(((Number) row[0]).longValue(), 1));
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                scheduledDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int scheduledBatches = 0;
+        int scheduledDays;
+        lock.writeLock().lock();
+        try {
+            // Rows that gained stock after the rebuild query started may be missing from its result
+            for (Long inventoryId : scheduledDuringRebuild) {
+                int day = expiryDays.get(inventoryId, NO_EXPIRY);
+                if (day != NO_EXPIRY) {
+                    rebuilt.computeIfAbsent(day, key -> new LongIntHashMap()).put(inventoryId, 1);
+                }
+            }
+            scheduledDuringRebuild = null;
+            schedule = rebuilt;
+            for (LongIntHashMap bucket : schedule.values()) {
+                scheduledBatches += bucket.size();
+            }
+            scheduledDays = schedule.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long sweepMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Expiry sweep quarantined {} batches; {} batches scheduled over {} days ({} ms)",
+                quarantined, scheduledBatches, scheduledDays, sweepMillis);
+        return new ExpirySweepResultDto(quarantined != null ? quarantined : 0, scheduledBatches, scheduledDays, sweepMillis);
+    }
+
+    private void applyExpiryDate(long inventoryId, int day, int quantity) {
+        lock.writeLock().lock();
+        try {
+            int previousDay = expiryDays.get(inventoryId, NO_EXPIRY);
+            if (previousDay != NO_EXPIRY && previousDay != day) {
+                unscheduleRow(inventoryId, previousDay);
+            }
+            expiryDays.put(inventoryId, day);
+            if (quantity > 0) {
+                scheduleRow(inventoryId, day);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isScheduled(long inventoryId, int day) {
+        LongIntHashMap bucket = schedule.get(day);
+        return bucket != null && bucket.containsKey(inventoryId);
+    }
+
+    private void scheduleRow(long inventoryId, int day) {
+        schedule.computeIfAbsent(day, key -> new LongIntHashMap()).put(inventoryId, 1);
+        if (scheduledDuringRebuild != null) {
+            scheduledDuringRebuild.add(inventoryId);
+        }
+    }
+
+    private void unscheduleRow(long inventoryId, int day) {
+        LongIntHashMap bucket = schedule.get(day);
+        if (bucket != null && bucket.remove(inventoryId) && bucket.isEmpty()) {
+            schedule.remove(day);
+        }
+    }
+
+    private static int epochDay(Object value) {
+        LocalDate date = value instanceof Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) value;
+        return (int) date.toEpochDay();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.HotKeyDto;
+import com.ims.inventory_management_system.dto.InventoryHotspotsDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.repositories.ProductRepository;
+import com.ims.inventory_management_system.services.InventoryHotspotService;
+import com.ims.inventory_management_system.util.HotKeyTracker;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryHotspotServiceImpl implements InventoryHotspotService {
+
+    private final ProductRepository productRepository;
+
+    @Value("${inventory.hotspots.enabled:true}")
+    private boolean enabled;
+
+    @Value("${inventory.hotspots.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${inventory.hotspots.slots:6}")
+    private int slots;
+
+    @Value("${inventory.hotspots.sketch-width:2048}")
+    private int sketchWidth;
+
+    @Value("${inventory.hotspots.max-tracked-keys:100}")
+    private int maxTrackedKeys;
+
+    private HotKeyTracker mutatedProducts;
+    private HotKeyTracker lookedUpProducts;
+    private HotKeyTracker mutatedWarehouses;
+    private HotKeyTracker mutatedInventoryRows;
+    private final LongAdder recordedMutations = new LongAdder();
+    private final LongAdder recordedLookups = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        if (windowSeconds <= 0 || slots <= 0 || windowSeconds * 1000 < slots) {
+            throw new IllegalStateException("Hotspot window must be positive and at least one millisecond per slot");
+        }
+        long slotMillis = windowSeconds * 1000 / slots;
+        mutatedProducts = new HotKeyTracker(sketchWidth, slots, slotMillis, maxTrackedKeys);
+        lookedUpProducts = new HotKeyTracker(sketchWidth, slots, slotMillis, maxTrackedKeys);
+        mutatedWarehouses = new HotKeyTracker(sketchWidth, slots, slotMillis, maxTrackedKeys);
+        mutatedInventoryRows = new HotKeyTracker(sketchWidth, slots, slotMillis, maxTrackedKeys);
+    }
+
+    // Called with every committed movement, so each adjustment, transfer leg, allocation and row change counts once
+    // whichever path or engine applied it
+    @Override
+    public void recordMovements(List<InventoryMovement> movements) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (InventoryMovement movement : movements) {
+            mutatedProducts.record(movement.getProductId(), now);
+            mutatedWarehouses.record(movement.getWarehouseId(), now);
+            mutatedInventoryRows.record(movement.getInventoryId(), now);
+        }
+        recordedMutations.add(movements.size());
+    }
+
+    @Override
+    public void recordProductLookup(Long productId) {
+        if (!enabled || productId == null) {
+            return;
+        }
+        lookedUpProducts.record(productId);
+        recordedLookups.increment();
+    }
+
+    @Override
+    public InventoryHotspotsDto getHotspots(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        long now = System.currentTimeMillis();
+        List<HotKeyTracker.HotKey> mutated = mutatedProducts.top(limit, now);
+        List<HotKeyTracker.HotKey> lookedUp = lookedUpProducts.top(limit, now);
+        Set<Long> productIds = new LinkedHashSet<>();
+        mutated.forEach(hotKey -> productIds.add(hotKey.key()));
+        lookedUp.forEach(hotKey -> productIds.add(hotKey.key()));
+        Map<Long, String> skus = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Object[] row : productRepository.findSkusByIdIn(productIds)) {
+                skus.put(((Number) row[0]).longValue(), (String) row[1]);
+            }
+        }
+
+        return InventoryHotspotsDto.builder()
+                .enabled(enabled)
+                .windowSeconds(windowSeconds)
+                .mutatedProducts(toDtos(mutated, skus))
+                // Stock and ATP lookups do not load the product, so ids that name none are left out here
+                .lookedUpProducts(toDtos(lookedUp.stream()
+                        .filter(hotKey -> skus.containsKey(hotKey.key()))
+                        .collect(Collectors.toList()), skus))
+                .mutatedWarehouses(toDtos(mutatedWarehouses.top(limit, now), null))
+                .mutatedInventoryRows(toDtos(mutatedInventoryRows.top(limit, now), null))
+                .recordedMutations(recordedMutations.sum())
+                .recordedLookups(recordedLookups.sum())
+                .candidates(mutatedProducts.candidateCount() + lookedUpProducts.candidateCount() +
+                        mutatedWarehouses.candidateCount() + mutatedInventoryRows.candidateCount())
+                .footprintBytes(mutatedProducts.footprintBytes() + lookedUpProducts.footprintBytes() +
+                        mutatedWarehouses.footprintBytes() + mutatedInventoryRows.footprintBytes())
+                .build();
+    }
+
+    private static List<HotKeyDto> toDtos(List<HotKeyTracker.HotKey> hotKeys, Map<Long, String> skus) {
+        List<HotKeyDto> dtos = new ArrayList<>(hotKeys.size());
+        for (HotKeyTracker.HotKey hotKey : hotKeys) {
+            dtos.add(new HotKeyDto(hotKey.key(), skus != null ? skus.get(hotKey.key()) : null, hotKey.count()));
+        }
+        return dtos;
+    }
+}
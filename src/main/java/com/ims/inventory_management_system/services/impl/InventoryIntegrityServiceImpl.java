@@ -0,0 +1,346 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryIntegrityMismatchDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityReportDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityStatsDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.repositories.InventoryMovementRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.ProductStockRepository;
+import com.ims.inventory_management_system.services.InventoryIntegrityService;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryIntegrityServiceImpl implements InventoryIntegrityService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryIntegrityServiceImpl.class);
+
+    // Ranges of at most this many product ids are compared row by row instead of being split further
+    private static final int LEAF_PRODUCTS = 16;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final ProductStockRepository productStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.integrity.product-range-size:1024}")
+    private int productRangeSize;
+
+    // Guarded by this. What the committed movements say each row holds, as a checksum per warehouseId << 32 |
+    // product range, kept current from the movement stream; the net per inventory id is needed to replace a row's
+    // term when it changes
+    private final Map<Long, Long> ledgerChecksums = new HashMap<>();
+    private final LongIntHashMap ledgerQuantities = new LongIntHashMap(1024);
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong fullRuns = new AtomicLong();
+    private final AtomicLong mismatchedBuckets = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+    private final AtomicLong rangeQueries = new AtomicLong();
+    private final AtomicLong runNanos = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile Integer lastRunMismatches;
+    private final AtomicLong droppedMovements = new AtomicLong();
+    private volatile LocalDateTime lastDroppedAt;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> stream = inventoryMovementRepository.streamNetQuantities()) {
+                synchronized (this) {
+                    stream.forEach(row -> {
+                        long inventoryId = ((Number) row[0]).longValue();
+                        int quantity = ((Number) row[3]).intValue();
+                        if (quantity != 0) {
+                            ledgerQuantities.put(inventoryId, quantity);
+                            ledgerChecksums.merge(bucketKey(row), mix(inventoryId, quantity), Long::sum);
+                        }
+                    });
+                }
+            }
+        });
+        logger.info("Inventory integrity checksums loaded for {} rows in {} buckets in {} ms", ledgerQuantities.size(),
+                ledgerChecksums.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    // Checksums are sums of a per-row hash, so a change only swaps that row's old term for its new one
+    @Override
+    public void applyMovements(List<InventoryMovement> movements) {
+        apply(movements, 1);
+    }
+
+    // Movements the ledger failed to store are taken back out of the running checksums, so the rows they touched are
+    // reported as differing instead of agreeing with ledger entries that do not exist
+    @Override
+    public void applyDroppedMovements(List<InventoryMovement> movements) {
+        apply(movements, -1);
+        droppedMovements.addAndGet(movements.size());
+        lastDroppedAt = LocalDateTime.now();
+    }
+
+    private synchronized void apply(List<InventoryMovement> movements, int sign) {
+        for (InventoryMovement movement : movements) {
+            long inventoryId = movement.getInventoryId();
+            int previous = ledgerQuantities.get(inventoryId, 0);
+            int quantity = previous + sign * movement.getQuantityChange();
+            if (quantity != 0) {
+                ledgerQuantities.put(inventoryId, quantity);
+            } else {
+                ledgerQuantities.remove(inventoryId);
+            }
+            long key = bucketKey(movement.getWarehouseId(), movement.getProductId());
+            ledgerChecksums.merge(key, mix(inventoryId, quantity) - mix(inventoryId, previous), Long::sum);
+        }
+    }
+
+    // One streaming pass over the balances builds a checksum per (warehouse, product range) and per product range of
+    // the product totals. Buckets that differ from the ledger (or from the stored totals) are bisected by product
+    // range, re-reading both sides, until the differing rows can be listed.
+    @Override
+    public InventoryIntegrityReportDto verify(boolean full) {
+        long startedAt = System.nanoTime();
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+        InventoryIntegrityReportDto report = transactionTemplate.execute(status -> {
+            Run run = new Run();
+            Map<Long, Long> balances = new HashMap<>();
+            try (Stream<Object[]> stream = inventoryRepository.streamIntegrityRows()) {
+                stream.forEach(row -> {
+                    balances.merge(bucketKey(row), mix(((Number) row[0]).longValue(), ((Number) row[3]).intValue()),
+                            Long::sum);
+                    run.rowsScanned++;
+                });
+            }
+            Map<Long, Long> ledger;
+            if (full) {
+                ledger = new HashMap<>();
+                try (Stream<Object[]> stream = inventoryMovementRepository.streamNetQuantities()) {
+                    stream.forEach(row -> ledger.merge(bucketKey(row),
+                            mix(((Number) row[0]).longValue(), ((Number) row[3]).intValue()), Long::sum));
+                }
+            } else {
+                synchronized (this) {
+                    ledger = new HashMap<>(ledgerChecksums);
+                }
+            }
+            for (long key : differingKeys(balances, ledger, run)) {
+                long warehouseId = key >>> 32;
+                long fromProductId = (key & 0xFFFFFFFFL) * productRangeSize;
+                // The running checksums move on while the balances are read, so confirm against a fresh read first
+                if (!full) {
+                    run.rangeQueries++;
+                    if (checksum(inventoryRepository.findIntegrityRows(warehouseId, fromProductId,
+                            fromProductId + productRangeSize), 0, 3) == currentLedgerChecksum(key)) {
+                        continue;
+                    }
+                }
+                run.mismatchedBuckets++;
+                int found = run.mismatches.size();
+                bisectBalances(warehouseId, fromProductId, fromProductId + productRangeSize, run);
+                if (run.mismatches.size() == found) {
+                    run.unresolvedBuckets++;
+                }
+            }
+
+            Map<Long, Long> totals = new HashMap<>();
+            Map<Long, Long> storedTotals = new HashMap<>();
+            try (Stream<Object[]> stream = inventoryRepository.streamProductTotals()) {
+                stream.forEach(row -> addTotal(totals, row));
+            }
+            try (Stream<Object[]> stream = productStockRepository.streamTotalQuantities()) {
+                stream.forEach(row -> addTotal(storedTotals, row));
+            }
+            for (long range : differingKeys(totals, storedTotals, run)) {
+                run.mismatchedBuckets++;
+                int found = run.mismatches.size();
+                bisectTotals(range * productRangeSize, (range + 1) * productRangeSize, run);
+                if (run.mismatches.size() == found) {
+                    run.unresolvedBuckets++;
+                }
+            }
+            return new InventoryIntegrityReportDto(full, LocalDateTime.now(), run.rowsScanned, run.bucketsChecked,
+                    run.mismatchedBuckets, run.unresolvedBuckets, run.rangeQueries, run.mismatches, 0L);
+        });
+
+        long elapsed = System.nanoTime() - startedAt;
+        report.setDurationMillis(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        runs.incrementAndGet();
+        if (full) {
+            fullRuns.incrementAndGet();
+        }
+        mismatchedBuckets.addAndGet(report.getMismatchedBuckets());
+        mismatches.addAndGet(report.getMismatches().size());
+        rangeQueries.addAndGet(report.getRangeQueries());
+        runNanos.addAndGet(elapsed);
+        lastRunAt = report.getCheckedAt();
+        lastRunMismatches = report.getMismatches().size();
+        if (report.getMismatchedBuckets() > 0) {
+            logger.warn("Inventory integrity check found {} differing rows in {} of {} buckets ({} unresolved) in {} ms",
+                    report.getMismatches().size(), report.getMismatchedBuckets(), report.getBucketsChecked(),
+                    report.getUnresolvedBuckets(), report.getDurationMillis());
+        } else {
+            logger.info("Inventory integrity check passed: {} rows in {} buckets in {} ms", report.getRowsScanned(),
+                    report.getBucketsChecked(), report.getDurationMillis());
+        }
+        return report;
+    }
+
+    @Override
+    public InventoryIntegrityStatsDto getStats() {
+        long completed = runs.get();
+        int trackedRows;
+        synchronized (this) {
+            trackedRows = ledgerQuantities.size();
+        }
+        return new InventoryIntegrityStatsDto(completed, fullRuns.get(), mismatchedBuckets.get(), mismatches.get(),
+                rangeQueries.get(), completed > 0 ? runNanos.get() / 1_000_000.0 / completed : 0.0, trackedRows,
+                lastRunAt, lastRunMismatches, droppedMovements.get(), lastDroppedAt);
+    }
+
+    private void bisectBalances(long warehouseId, long fromProductId, long toProductId, Run run) {
+        List<Object[]> balances = inventoryRepository.findIntegrityRows(warehouseId, fromProductId, toProductId);
+        List<Object[]> ledger = inventoryMovementRepository.findNetQuantities(warehouseId, fromProductId, toProductId);
+        run.rangeQueries += 2;
+        if (checksum(balances, 0, 3) == checksum(ledger, 0, 3)) {
+            return;
+        }
+        if (toProductId - fromProductId > LEAF_PRODUCTS) {
+            long middle = fromProductId + (toProductId - fromProductId) / 2;
+            bisectBalances(warehouseId, fromProductId, middle, run);
+            bisectBalances(warehouseId, middle, toProductId, run);
+            return;
+        }
+        Map<Long, Object[]> expected = byKey(ledger);
+        Map<Long, Object[]> actual = byKey(balances);
+        for (long inventoryId : new TreeSet<>(union(expected, actual))) {
+            Object[] row = actual.containsKey(inventoryId) ? actual.get(inventoryId) : expected.get(inventoryId);
+            int expectedQuantity = quantity(expected.get(inventoryId), 3);
+            int actualQuantity = quantity(actual.get(inventoryId), 3);
+            if (expectedQuantity != actualQuantity) {
+                run.mismatches.add(new InventoryIntegrityMismatchDto(InventoryIntegrityMismatchDto.Scope.BALANCE,
+                        inventoryId, warehouseId, ((Number) row[2]).longValue(), expectedQuantity, actualQuantity));
+            }
+        }
+    }
+
+    private void bisectTotals(long fromProductId, long toProductId, Run run) {
+        List<Object[]> totals = inventoryRepository.findProductTotals(fromProductId, toProductId);
+        List<Object[]> stored = productStockRepository.findTotalQuantities(fromProductId, toProductId);
+        run.rangeQueries += 2;
+        if (checksum(totals, 0, 1) == checksum(stored, 0, 1)) {
+            return;
+        }
+        if (toProductId - fromProductId > LEAF_PRODUCTS) {
+            long middle = fromProductId + (toProductId - fromProductId) / 2;
+            bisectTotals(fromProductId, middle, run);
+            bisectTotals(middle, toProductId, run);
+            return;
+        }
+        Map<Long, Object[]> expected = byKey(stored);
+        Map<Long, Object[]> actual = byKey(totals);
+        for (long productId : new TreeSet<>(union(expected, actual))) {
+            int expectedQuantity = quantity(expected.get(productId), 1);
+            int actualQuantity = quantity(actual.get(productId), 1);
+            if (expectedQuantity != actualQuantity) {
+                run.mismatches.add(new InventoryIntegrityMismatchDto(InventoryIntegrityMismatchDto.Scope.PRODUCT_TOTAL,
+                        null, null, productId, expectedQuantity, actualQuantity));
+            }
+        }
+    }
+
+    private synchronized long currentLedgerChecksum(long key) {
+        return ledgerChecksums.getOrDefault(key, 0L);
+    }
+
+    private void addTotal(Map<Long, Long> checksums, Object[] row) {
+        long productId = ((Number) row[0]).longValue();
+        checksums.merge(productId / productRangeSize, mix(productId, quantity(row, 1)), Long::sum);
+    }
+
+    private long bucketKey(Object[] row) {
+        return bucketKey(((Number) row[1]).longValue(), ((Number) row[2]).longValue());
+    }
+
+    private long bucketKey(long warehouseId, long productId) {
+        return warehouseId << 32 | productId / productRangeSize;
+    }
+
+    private static List<Long> differingKeys(Map<Long, Long> left, Map<Long, Long> right, Run run) {
+        TreeSet<Long> keys = new TreeSet<>(left.keySet());
+        keys.addAll(right.keySet());
+        run.bucketsChecked += keys.size();
+        List<Long> differing = new ArrayList<>();
+        for (long key : keys) {
+            if (left.getOrDefault(key, 0L).longValue() != right.getOrDefault(key, 0L).longValue()) {
+                differing.add(key);
+            }
+        }
+        return differing;
+    }
+
+    private static long checksum(List<Object[]> rows, int keyIndex, int quantityIndex) {
+        long checksum = 0L;
+        for (Object[] row : rows) {
+            checksum += mix(((Number) row[keyIndex]).longValue(), quantity(row, quantityIndex));
+        }
+        return checksum;
+    }
+
+    private static Map<Long, Object[]> byKey(List<Object[]> rows) {
+        Map<Long, Object[]> byKey = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            byKey.put(((Number) row[0]).longValue(), row);
+        }
+        return byKey;
+    }
+
+    private static List<Long> union(Map<Long, Object[]> left, Map<Long, Object[]> right) {
+        List<Long> keys = new ArrayList<>(left.keySet());
+        keys.addAll(right.keySet());
+        return keys;
+    }
+
+    private static int quantity(Object[] row, int index) {
+        return row != null && row[index] != null ? ((Number) row[index]).intValue() : 0;
+    }
+
+    // 64-bit finalizer over (key, quantity); zero quantities hash to zero so an empty row and a missing one agree
+    private static long mix(long key, int quantity) {
+        if (quantity == 0) {
+            return 0L;
+        }
+        long hash = key * 0x9E3779B97F4A7C15L + quantity;
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        hash = (hash ^ (hash >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private static final class Run {
+        private long rowsScanned;
+        private int bucketsChecked;
+        private int mismatchedBuckets;
+        private int unresolvedBuckets;
+        private int rangeQueries;
+        private final List<InventoryIntegrityMismatchDto> mismatches = new ArrayList<>();
+    }
+}
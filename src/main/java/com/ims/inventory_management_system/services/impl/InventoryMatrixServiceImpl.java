@@ -0,0 +1,126 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryMatrixDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.repositories.WarehouseRepository;
+import com.ims.inventory_management_system.services.InventoryMatrixService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryMatrixServiceImpl implements InventoryMatrixService {
+
+    private final WarehouseRepository warehouseRepository;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.matrix.max-products:1000}")
+    private int maxProducts;
+
+    @Value("${inventory.matrix.cache-size:128}")
+    private int cacheSize;
+
+    private final AtomicLong warehouseGeneration = new AtomicLong();
+    // Least recently used matrices by product set; guarded by itself
+    private final Map<ProductSet, InventoryMatrixDto> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ProductSet, InventoryMatrixDto> eldest) {
+            return size() > cacheSize;
+        }
+    };
+
+    // A cached matrix is served while the data version it was built at is current; the version is read before the
+    // query, so a change racing with it can only make the entry look older than it is
+    @Override
+    public InventoryMatrixDto getMatrix(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one product id is required");
+        }
+        if (productIds.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Product ids must not be null");
+        }
+        long[] ids = productIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        if (ids.length > maxProducts) {
+            throw new IllegalArgumentException("At most " + maxProducts + " products fit in one matrix");
+        }
+        ProductSet key = new ProductSet(ids, Arrays.hashCode(ids));
+        long dataVersion = dataVersion();
+        synchronized (cache) {
+            InventoryMatrixDto cached = cache.get(key);
+            if (cached != null && cached.getDataVersion() == dataVersion) {
+                return cached;
+            }
+        }
+
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+        LongIntHashMap productIndexes = new LongIntHashMap(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            productIndexes.put(ids[i], i);
+        }
+        List<Object[]> rows = warehouseRepository.findActiveQuantitiesByProductIdIn(
+                Arrays.stream(ids).boxed().toList());
+        long[] warehouseIds = rows.stream().mapToLong(row -> ((Number) row[0]).longValue()).sorted().distinct().toArray();
+        int[] quantities = new int[warehouseIds.length * ids.length];
+        for (Object[] row : rows) {
+            if (row[1] != null) {
+                int warehouseIndex = Arrays.binarySearch(warehouseIds, ((Number) row[0]).longValue());
+                int productIndex = productIndexes.get(((Number) row[1]).longValue(), 0);
+                quantities[warehouseIndex * ids.length + productIndex] = ((Number) row[2]).intValue();
+            }
+        }
+        InventoryMatrixDto matrix = new InventoryMatrixDto(warehouseIds, ids, quantities, dataVersion);
+        synchronized (cache) {
+            InventoryMatrixDto cached = cache.get(key);
+            if (cached == null || cached.getDataVersion() < dataVersion) {
+                cache.put(key, matrix);
+            }
+        }
+        return matrix;
+    }
+
+    // Warehouses joining or leaving the active set change the matrix layout, so they count as a data change
+    @Override
+    public void recordWarehouseChange() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            warehouseGeneration.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                warehouseGeneration.incrementAndGet();
+            }
+        });
+    }
+
+    // Both counters only grow, so their sum moves whenever either does
+    private long dataVersion() {
+        return stockAvailabilityProjection.getVersion() + warehouseGeneration.get();
+    }
+
+    private record ProductSet(long[] productIds, int hash) {
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof ProductSet set && hash == set.hash && Arrays.equals(productIds, set.productIds);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
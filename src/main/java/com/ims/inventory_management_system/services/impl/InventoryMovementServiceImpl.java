@@ -0,0 +1,256 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryMovementDto;
+import com.ims.inventory_management_system.dto.InventoryMovementPageDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.repositories.InventoryMovementRepository;
+import com.ims.inventory_management_system.services.InventoryExpiryService;
+import com.ims.inventory_management_system.services.InventoryHotspotService;
+import com.ims.inventory_management_system.services.InventoryIntegrityService;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryMovementServiceImpl implements InventoryMovementService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryMovementServiceImpl.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+    private static final LocalDateTime DEFAULT_FROM = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final InventoryMovementRepository inventoryMovementRepository;
+    private final InventoryExpiryService inventoryExpiryService;
+    private final InventoryValuationService inventoryValuationService;
+    private final InventoryIntegrityService inventoryIntegrityService;
+    private final InventoryHotspotService inventoryHotspotService;
+
+    @Value("${inventory.movements.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.movements.batch-size:500}")
+    private int batchSize;
+
+    @Value("${inventory.movements.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<InventoryMovement> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::run, "inventory-movement-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    // Movements are queued only once the surrounding transaction commits, so rolled-back changes leave no trace
+    @Override
+    public void record(InventoryMovement movement) {
+        recordAll(List.of(movement));
+    }
+
+    // A transaction's movements are handed on together and in order, so a transfer out is seen with its transfer in
+    @Override
+    public void recordAll(List<InventoryMovement> movements) {
+        for (InventoryMovement movement : movements) {
+            if (movement.getUsername() == null) {
+                movement.setUsername(currentUsername());
+            }
+            if (movement.getOccurredAt() == null) {
+                movement.setOccurredAt(LocalDateTime.now().truncatedTo(ChronoUnit.MICROS));
+            }
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(movements);
+            return;
+        }
+        PendingMovements pending = (PendingMovements) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingMovements();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.movements.addAll(movements);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryMovementPageDto getMovements(Long productId, Long warehouseId, LocalDateTime from, LocalDateTime to,
+                                                 Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        LocalDateTime until = to != null ? to : LocalDateTime.now().plusSeconds(1);
+
+        // The cursor is a movement id; resuming after it means resuming after its (occurredAt, id) position
+        LocalDateTime afterTime;
+        long afterMovementId;
+        if (afterId != null) {
+            InventoryMovement after = inventoryMovementRepository.findById(afterId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Inventory movement not found with id: " + afterId));
+            afterTime = after.getOccurredAt();
+            afterMovementId = afterId;
+        } else {
+            afterTime = from != null ? from : DEFAULT_FROM;
+            afterMovementId = 0L;
+        }
+        if (from != null && afterTime.isBefore(from)) {
+            afterTime = from;
+            afterMovementId = 0L;
+        }
+
+        // Read one extra row to learn whether another page follows
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<InventoryMovement> movements;
+        if (productId != null && warehouseId != null) {
+            movements = inventoryMovementRepository.findByProductAndWarehouse(productId, warehouseId, afterTime,
+                    afterMovementId, until, fetchLimit);
+        } else if (productId != null) {
+            movements = inventoryMovementRepository.findByProduct(productId, afterTime, afterMovementId, until, fetchLimit);
+        } else if (warehouseId != null) {
+            movements = inventoryMovementRepository.findByWarehouse(warehouseId, afterTime, afterMovementId, until, fetchLimit);
+        } else {
+            movements = inventoryMovementRepository.findInRange(afterTime, afterMovementId, until, fetchLimit);
+        }
+
+        boolean hasMore = movements.size() > pageSize;
+        if (hasMore) {
+            movements = movements.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? movements.get(movements.size() - 1).getId() : null;
+        return new InventoryMovementPageDto(movements.stream().map(this::mapToDto).collect(Collectors.toList()), nextCursor);
+    }
+
+    // Every committed quantity change passes through here. The ledger is written first, since it is the record the
+    // other views are checked and rebuilt against; then the expiry schedule, cost layers, integrity checksums and
+    // hotspot counts are kept current, each on its own so a failure in one cannot hold up the rest
+    private void enqueue(List<InventoryMovement> movements) {
+        for (InventoryMovement movement : movements) {
+            if (queue.offer(movement)) {
+                continue;
+            }
+            // Queue full: write on the caller's thread rather than drop the entry
+            try {
+                inventoryMovementRepository.insertAll(List.of(movement));
+            } catch (RuntimeException e) {
+                logger.error("Could not write inventory movement for inventory {}", movement.getInventoryId(), e);
+                notifyConsumer("integrity", List.of(movement), inventoryIntegrityService::applyDroppedMovements);
+            }
+        }
+        notifyConsumer("valuation", movements, inventoryValuationService::applyMovements);
+        notifyConsumer("integrity", movements, inventoryIntegrityService::applyMovements);
+        notifyConsumer("expiry", movements, batch -> batch.forEach(inventoryExpiryService::applyMovement));
+        notifyConsumer("hotspot", movements, inventoryHotspotService::recordMovements);
+    }
+
+    private static void notifyConsumer(String consumer, List<InventoryMovement> movements,
+                                       Consumer<List<InventoryMovement>> action) {
+        try {
+            action.accept(movements);
+        } catch (RuntimeException e) {
+            logger.error("Applying {} inventory movements to the {} view failed", movements.size(), consumer, e);
+        }
+    }
+
+    private void run() {
+        List<InventoryMovement> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                InventoryMovement first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<InventoryMovement> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                inventoryMovementRepository.insertAll(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_WRITE_ATTEMPTS) {
+                    logger.error("Dropping {} inventory movements after {} failed writes", batch.size(), attempt, e);
+                    notifyConsumer("integrity", List.copyOf(batch), inventoryIntegrityService::applyDroppedMovements);
+                    return;
+                }
+                logger.warn("Writing {} inventory movements failed, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(TimeUnit.SECONDS.toMillis(attempt));
+            }
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private class PendingMovements implements TransactionSynchronization {
+        private final List<InventoryMovement> movements = new ArrayList<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(InventoryMovementServiceImpl.this);
+            if (status == STATUS_COMMITTED) {
+                enqueue(movements);
+            }
+        }
+    }
+
+    private InventoryMovementDto mapToDto(InventoryMovement movement) {
+        InventoryMovementDto movementDto = new InventoryMovementDto();
+        movementDto.setId(movement.getId());
+        movementDto.setInventoryId(movement.getInventoryId());
+        movementDto.setProductId(movement.getProductId());
+        movementDto.setWarehouseId(movement.getWarehouseId());
+        movementDto.setMovementType(movement.getMovementType());
+        movementDto.setQuantityChange(movement.getQuantityChange());
+        movementDto.setResultingQuantity(movement.getResultingQuantity());
+        movementDto.setUnitCost(movement.getUnitCost());
+        movementDto.setReason(movement.getReason());
+        movementDto.setUsername(movement.getUsername());
+        movementDto.setOccurredAt(movement.getOccurredAt());
+        return movementDto;
+    }
+}
@@ -0,0 +1,309 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryPipelineStatsDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.exceptions.ServiceSaturatedException;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.InventoryMutationPipeline;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockReservationLedger;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryMutationPipelineImpl implements InventoryMutationPipeline {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryMutationPipelineImpl.class);
+
+    private static final int MAX_KNOWN_WAREHOUSE_IDS = 100_000;
+
+    private final InventoryService inventoryService;
+    private final InventoryRepository inventoryRepository;
+    private final ProductStockService productStockService;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final StockReservationLedger stockReservationLedger;
+    private final InventoryMovementService inventoryMovementService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.adjustment-pipeline.enabled:false}")
+    private boolean enabled;
+
+    @Value("${inventory.adjustment-pipeline.max-wait-ms:5}")
+    private long maxWaitMs;
+
+    @Value("${inventory.adjustment-pipeline.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${inventory.adjustment-pipeline.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${inventory.adjustment-pipeline.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${inventory.engine.mode:database}")
+    private String engineMode;
+
+    private BlockingQueue<PendingAdjustment> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong adjustments = new AtomicLong();
+    private final AtomicLong rejectedAdjustments = new AtomicLong();
+    private final AtomicLong saturatedAdjustments = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong commitNanos = new AtomicLong();
+    private final AtomicLong maxCommitNanos = new AtomicLong();
+    private volatile int largestBatch;
+    // Warehouse of recently adjusted rows, so hot rows are locked without a lookup by id alone; a row never changes
+    // warehouse. Only touched by the flusher thread
+    private final Map<Long, Long> knownWarehouseIds = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MAX_KNOWN_WAREHOUSE_IDS;
+        }
+    };
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if ("memory".equals(engineMode)) {
+            // The pipeline writes the inventories table directly, which would bypass the in-memory engine
+            logger.warn("Inventory adjustment pipeline disabled: inventory.engine.mode=memory applies adjustments in memory");
+            enabled = false;
+            return;
+        }
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::run, "inventory-adjustment-pipeline");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Inventory adjustment pipeline started (max wait {} ms, max batch {})", maxWaitMs, maxBatchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public CompletableFuture<Void> submitAdjustment(Long inventoryId, Integer quantityChange, String reason) {
+        // A null change would only fail on the flusher thread, taking the rest of its batch down with it
+        if (inventoryId == null || quantityChange == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Inventory id and quantity change are required for an adjustment"));
+        }
+        if (!enabled) {
+            try {
+                inventoryService.adjustInventory(inventoryId, quantityChange, reason);
+                return CompletableFuture.completedFuture(null);
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        // The flusher thread has no security context, so the caller is captured here
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication != null ? authentication.getName() : "system";
+        PendingAdjustment adjustment = new PendingAdjustment(inventoryId, quantityChange, reason, username,
+                new CompletableFuture<>());
+        if (!queue.offer(adjustment)) {
+            saturatedAdjustments.incrementAndGet();
+            return CompletableFuture.failedFuture(new ServiceSaturatedException(
+                    "Inventory adjustment pipeline is saturated", retryAfterSeconds));
+        }
+        return adjustment.result();
+    }
+
+    @Override
+    public InventoryPipelineStatsDto getStats() {
+        long batchCount = batches.get();
+        return new InventoryPipelineStatsDto(
+                enabled,
+                queue != null ? queue.size() : 0,
+                batchCount,
+                adjustments.get(),
+                rejectedAdjustments.get(),
+                saturatedAdjustments.get(),
+                failedBatches.get(),
+                batchCount > 0 ? (double) adjustments.get() / batchCount : 0,
+                largestBatch,
+                batchCount > 0 ? commitNanos.get() / 1_000_000.0 / batchCount : 0,
+                maxCommitNanos.get() / 1_000_000.0);
+    }
+
+    private void run() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAdjustment first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingAdjustment> batch = new ArrayList<>();
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingAdjustment next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Inventory adjustment pipeline iteration failed", e);
+            }
+        }
+    }
+
+    private void flush(List<PendingAdjustment> batch) {
+        long startedAt = System.nanoTime();
+        Map<PendingAdjustment, RuntimeException> rejections = new IdentityHashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> apply(batch, rejections));
+        } catch (RuntimeException e) {
+            failedBatches.incrementAndGet();
+            batch.forEach(adjustment -> adjustment.result().completeExceptionally(e));
+            return;
+        }
+
+        long elapsed = System.nanoTime() - startedAt;
+        batches.incrementAndGet();
+        adjustments.addAndGet(batch.size());
+        rejectedAdjustments.addAndGet(rejections.size());
+        commitNanos.addAndGet(elapsed);
+        maxCommitNanos.accumulateAndGet(elapsed, Math::max);
+        largestBatch = Math.max(largestBatch, batch.size());
+
+        // Callers only hear back once the batch is durable
+        for (PendingAdjustment adjustment : batch) {
+            RuntimeException rejection = rejections.get(adjustment);
+            if (rejection != null) {
+                adjustment.result().completeExceptionally(rejection);
+            } else {
+                adjustment.result().complete(null);
+            }
+        }
+    }
+
+    private void apply(List<PendingAdjustment> batch, Map<PendingAdjustment, RuntimeException> rejections) {
+        Set<Long> ids = new TreeSet<>();
+        batch.forEach(adjustment -> ids.add(adjustment.inventoryId()));
+
+        // Lock every touched row up front, in id order, and read its current quantity; the warehouses keep the lock to
+        // the partitions holding the rows
+        Set<Long> lockWarehouseIds = new HashSet<>();
+        List<Long> unknownIds = new ArrayList<>();
+        for (Long id : ids) {
+            Long warehouseId = knownWarehouseIds.get(id);
+            if (warehouseId != null) {
+                lockWarehouseIds.add(warehouseId);
+            } else {
+                unknownIds.add(id);
+            }
+        }
+        if (!unknownIds.isEmpty()) {
+            for (Object[] row : inventoryRepository.findWarehouseIdsByIdIn(unknownIds)) {
+                lockWarehouseIds.add(((Number) row[1]).longValue());
+            }
+        }
+        Map<Long, Integer> quantities = new HashMap<>();
+        Map<Long, Long> productIds = new HashMap<>();
+        Map<Long, Long> warehouseIds = new HashMap<>();
+        List<Object[]> rows = lockWarehouseIds.isEmpty() ? List.of()
+                : inventoryRepository.lockQuantitiesByIdInAndWarehouseIdIn(ids, lockWarehouseIds);
+        for (Object[] row : rows) {
+            Long id = ((Number) row[0]).longValue();
+            productIds.put(id, ((Number) row[1]).longValue());
+            warehouseIds.put(id, ((Number) row[2]).longValue());
+            knownWarehouseIds.put(id, warehouseIds.get(id));
+            quantities.put(id, ((Number) row[3]).intValue());
+        }
+
+        // Replay in arrival order so each caller sees exactly the invariant check it would have had alone
+        Map<Long, Integer> netDeltas = new LinkedHashMap<>();
+        for (PendingAdjustment adjustment : batch) {
+            Long id = adjustment.inventoryId();
+            Integer currentQuantity = quantities.get(id);
+            if (currentQuantity == null) {
+                rejections.put(adjustment, new ResourceNotFoundException("Inventory not found with id: " + id));
+                continue;
+            }
+            int newQuantity = currentQuantity + adjustment.quantityChange();
+            if (newQuantity < 0) {
+                rejections.put(adjustment, new InsufficientInventoryException("Cannot adjust inventory below zero. Current: " +
+                        currentQuantity + ", Change: " + adjustment.quantityChange()));
+                continue;
+            }
+            if (adjustment.quantityChange() < 0) {
+                long productId = productIds.get(id);
+                long warehouseId = warehouseIds.get(id);
+                if (!stockReservationLedger.tryClaim(productId, warehouseId, -adjustment.quantityChange())) {
+                    rejections.put(adjustment, new InsufficientInventoryException("Cannot adjust inventory below the " +
+                            "reserved quantity. Unreserved: " + stockReservationLedger.getUnreservedQuantity(productId, warehouseId)));
+                    continue;
+                }
+                stockReservationLedger.releaseAfterCompletion(productId, warehouseId, -adjustment.quantityChange());
+            }
+            quantities.put(id, newQuantity);
+            netDeltas.merge(id, adjustment.quantityChange(), Integer::sum);
+            inventoryMovementService.record(InventoryMovement.builder()
+                    .inventoryId(id)
+                    .productId(productIds.get(id))
+                    .warehouseId(warehouseIds.get(id))
+                    .movementType(InventoryMovement.MovementType.ADJUSTMENT)
+                    .quantityChange(adjustment.quantityChange())
+                    .resultingQuantity(newQuantity)
+                    .reason(adjustment.reason())
+                    .username(adjustment.username())
+                    .build());
+        }
+
+        netDeltas.values().removeIf(delta -> delta == 0);
+        if (netDeltas.isEmpty()) {
+            return;
+        }
+        inventoryRepository.applyQuantityDeltas(netDeltas, warehouseIds);
+
+        Map<Long, Integer> productDeltas = new TreeMap<>();
+        netDeltas.forEach((id, delta) -> {
+            productDeltas.merge(productIds.get(id), delta, Integer::sum);
+            stockAvailabilityProjection.recordChange(productIds.get(id), warehouseIds.get(id), delta);
+        });
+        productDeltas.forEach(productStockService::applyDelta);
+    }
+
+    private record PendingAdjustment(Long inventoryId, int quantityChange, String reason, String username,
+                                     CompletableFuture<Void> result) {
+    }
+}
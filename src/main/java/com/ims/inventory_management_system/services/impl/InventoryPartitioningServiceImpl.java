@@ -0,0 +1,80 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryPartitionDto;
+import com.ims.inventory_management_system.dto.InventoryPartitioningDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.exceptions.ConflictException;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom;
+import com.ims.inventory_management_system.services.InventoryPartitioningService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryPartitioningServiceImpl implements InventoryPartitioningService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryPartitioningServiceImpl.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.partitioning.partitions:16}")
+    private int partitions;
+
+    @Override
+    public InventoryPartitioningDto getPartitioning() {
+        List<InventoryPartitionDto> current = findPartitions();
+        return InventoryPartitioningDto.builder()
+                .partitioned(!current.isEmpty())
+                .partitions(current)
+                .build();
+    }
+
+    // One transaction holding an exclusive lock on the table for the whole copy: reads and writes of inventory rows
+    // wait until it commits, so run it in a maintenance window. With the in-memory engine, pending changes are
+    // written first and its write-behind is held off until the new table is in place
+    @Override
+    public synchronized InventoryPartitioningDto partitionByWarehouse() {
+        if (partitions < 2) {
+            throw new IllegalStateException("At least two inventory partitions are required");
+        }
+        if (!inventoryRepository.findPartitions().isEmpty()) {
+            throw new ConflictException("The inventories table is already partitioned");
+        }
+        long startedAt = System.nanoTime();
+        InMemoryStockEngine engine = inMemoryStockEngine.getIfAvailable();
+        Long rows = engine != null
+                ? engine.writeThrough(this::migrate)
+                : migrate();
+
+        long migrationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Partitioned inventories by warehouse into {} partitions: {} rows in {} ms",
+                partitions, rows, migrationMillis);
+        return InventoryPartitioningDto.builder()
+                .partitioned(true)
+                .partitions(findPartitions())
+                .migratedRows(rows)
+                .migrationMillis(migrationMillis)
+                .build();
+    }
+
+    private Long migrate() {
+        return transactionTemplate.execute(status -> inventoryRepository.partitionByWarehouse(partitions));
+    }
+
+    private List<InventoryPartitionDto> findPartitions() {
+        return inventoryRepository.findPartitions().stream()
+                .map(partition -> new InventoryPartitionDto(partition.name(), partition.estimatedRows(),
+                        partition.tableBytes()))
+                .toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryPivotDto;
+import com.ims.inventory_management_system.dto.InventoryPivotRowDto;
+import com.ims.inventory_management_system.engine.InMemoryStockEngine;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom;
+import com.ims.inventory_management_system.services.InventoryPivotService;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryPivotServiceImpl implements InventoryPivotService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryPivotServiceImpl.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final ObjectProvider<InMemoryStockEngine> inMemoryStockEngine;
+
+    @Value("${inventory.pivot.max-groups:10000}")
+    private int maxGroups;
+
+    // Every dimension maps to a column or expression, so grouping and measures run in one SQL statement. The query
+    // asks for one group more than allowed, which is enough to refuse an oversized result without counting it first
+    @Override
+    public InventoryPivotDto pivot(List<InventoryPivotDto.Dimension> groupBy) {
+        List<InventoryPivotDto.Dimension> dimensions = groupBy != null ? groupBy : List.of();
+        if (dimensions.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Group-by dimensions must not be null");
+        }
+        if (dimensions.stream().distinct().count() != dimensions.size()) {
+            throw new IllegalArgumentException("Group-by dimensions must not repeat");
+        }
+        long startedAt = System.nanoTime();
+        inMemoryStockEngine.ifAvailable(InMemoryStockEngine::flush);
+
+        List<InventoryRepositoryCustom.PivotRow> groups = inventoryRepository.aggregate(dimensions, maxGroups + 1);
+        if (groups.size() > maxGroups) {
+            throw new IllegalArgumentException("Pivot by " + dimensions + " has more than " + maxGroups +
+                    " groups; group by fewer or coarser dimensions");
+        }
+        List<InventoryPivotRowDto> rows = new ArrayList<>(groups.size());
+        for (InventoryRepositoryCustom.PivotRow group : groups) {
+            rows.add(new InventoryPivotRowDto(group.keys(), group.quantity(), group.skuCount(), group.valueAtCost()));
+        }
+
+        long pivotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.debug("Inventory pivot by {} returned {} groups in {} ms", dimensions, rows.size(), pivotMillis);
+        return new InventoryPivotDto(dimensions, rows, pivotMillis);
+    }
+}
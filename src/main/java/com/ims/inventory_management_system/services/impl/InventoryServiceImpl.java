@@ -1,31 +1,97 @@
 package com.ims.inventory_management_system.services.impl;
 
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentResponse;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentResultDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationLineDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationStatsDto;
+import com.ims.inventory_management_system.dto.InventoryCursorPageDto;
 import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.InventoryTransferStatsDto;
 import com.ims.inventory_management_system.entities.Inventory;
+import com.ims.inventory_management_system.entities.InventoryMovement;
 import com.ims.inventory_management_system.entities.Product;
 import com.ims.inventory_management_system.entities.Warehouse;
 import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
 import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
 import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom.QuantityRow;
 import com.ims.inventory_management_system.repositories.ProductRepository;
 import com.ims.inventory_management_system.repositories.WarehouseRepository;
+import com.ims.inventory_management_system.services.InventoryExpiryService;
+import com.ims.inventory_management_system.services.InventoryMovementService;
 import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockReservationLedger;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
-public class InventoryServiceImpl implements InventoryService {
+public class InventoryServiceImpl implements InventoryService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryServiceImpl.class);
+
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int ALLOCATION_WINDOW = 50;
+    private static final int MAX_ALLOCATION_WINDOWS = 100;
 
     private final InventoryRepository inventoryRepository;
     private final ProductRepository productRepository;
     private final WarehouseRepository warehouseRepository;
+    private final ProductStockService productStockService;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final StockReservationLedger stockReservationLedger;
+    private final InventoryMovementService inventoryMovementService;
+    private final InventoryExpiryService inventoryExpiryService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong transferCommittedBatches = new AtomicLong();
+    private final AtomicLong transferCommittedLines = new AtomicLong();
+    private final AtomicLong transferFailedBatches = new AtomicLong();
+    private final AtomicLong transferLockFailures = new AtomicLong();
+    private final AtomicLong transferLatencyNanos = new AtomicLong();
+
+    private final AtomicLong allocations = new AtomicLong();
+    private final AtomicLong allocatedUnits = new AtomicLong();
+    private final AtomicLong rejectedAllocations = new AtomicLong();
+    private final AtomicLong allocationConflicts = new AtomicLong();
+    private final AtomicLong allocationLockFailures = new AtomicLong();
+    private final AtomicLong allocationLatencyNanos = new AtomicLong();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            inventoryRepository.createUnbatchedKeyIndex();
+        } catch (DataAccessException e) {
+            logger.warn("Could not create the unique key for batch-less inventory rows; remove duplicate rows for " +
+                    "the same product and warehouse without a batch number: {}", e.getMessage());
+        }
+    }
 
     @Override
     @Transactional
@@ -36,33 +102,29 @@ public class InventoryServiceImpl implements InventoryService {
         Warehouse warehouse = warehouseRepository.findById(inventoryDto.getWarehouseId())
                 .orElseThrow(() -> new ResourceNotFoundException("Warehouse not found with id: " + inventoryDto.getWarehouseId()));
 
-        // Check if inventory already exists for this product, warehouse, and batch
-        Optional<Inventory> existingInventory = inventoryRepository.findByProductAndWarehouseAndBatchNumber(
-                product, warehouse, inventoryDto.getBatchNumber());
-
-        if (existingInventory.isPresent()) {
-            // Update existing inventory quantity
-            Inventory inventory = existingInventory.get();
-            inventory.setQuantity(inventory.getQuantity() + inventoryDto.getQuantity());
-            if (inventoryDto.getExpiryDate() != null) {
-                inventory.setExpiryDate(inventoryDto.getExpiryDate());
-            }
-            if (inventoryDto.getLocation() != null) {
-                inventory.setLocation(inventoryDto.getLocation());
-            }
-            return mapToDto(inventoryRepository.save(inventory));
-        } else {
-            // Create new inventory
-            Inventory inventory = new Inventory();
-            inventory.setProduct(product);
-            inventory.setWarehouse(warehouse);
-            inventory.setQuantity(inventoryDto.getQuantity());
-            inventory.setBatchNumber(inventoryDto.getBatchNumber());
-            inventory.setExpiryDate(inventoryDto.getExpiryDate());
-            inventory.setLocation(inventoryDto.getLocation());
-
-            return mapToDto(inventoryRepository.save(inventory));
-        }
+        // Add to the existing (product, warehouse, batch) row or create it, in a single upsert
+        QuantityRow row = inventoryRepository.upsertQuantity(product.getId(), warehouse.getId(),
+                inventoryDto.getBatchNumber(), inventoryDto.getQuantity(),
+                inventoryDto.getExpiryDate(), inventoryDto.getLocation());
+        productStockService.applyDelta(product.getId(), inventoryDto.getQuantity());
+        stockAvailabilityProjection.recordChange(product.getId(), warehouse.getId(), inventoryDto.getQuantity());
+        recordMovement(InventoryMovement.MovementType.RECEIPT, row.id(), product.getId(), warehouse.getId(),
+                inventoryDto.getQuantity(), row.quantity(), null, inventoryDto.getUnitCost());
+        inventoryExpiryService.recordExpiryDate(row.id(), row.expiryDate(), row.quantity());
+
+        InventoryDto savedInventoryDto = new InventoryDto();
+        savedInventoryDto.setId(row.id());
+        savedInventoryDto.setProductId(product.getId());
+        savedInventoryDto.setProductName(product.getName());
+        savedInventoryDto.setProductSku(product.getSku());
+        savedInventoryDto.setWarehouseId(warehouse.getId());
+        savedInventoryDto.setWarehouseName(warehouse.getName());
+        savedInventoryDto.setQuantity(row.quantity());
+        savedInventoryDto.setBatchNumber(row.batchNumber());
+        savedInventoryDto.setExpiryDate(row.expiryDate());
+        savedInventoryDto.setLocation(row.location());
+        savedInventoryDto.setLowStock(productStockService.getTotalQuantity(product.getId()) < product.getMinStockLevel());
+        return savedInventoryDto;
     }
 
     @Override
@@ -76,55 +138,102 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDto> getAllInventory() {
-        return inventoryRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(inventoryRepository.findAll());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDto> getInventoryByProduct(Long productId) {
-        return inventoryRepository.findByProductId(productId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(inventoryRepository.findByProductId(productId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDto> getInventoryByWarehouse(Long warehouseId) {
-        return inventoryRepository.findByWarehouseId(warehouseId).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(inventoryRepository.findByWarehouseId(warehouseId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryCursorPageDto getInventoryPage(Long productId, Long warehouseId, Long afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = afterId != null ? afterId : 0L;
+        // Read one extra row to learn whether another page follows
+        Limit fetchLimit = Limit.of(pageSize + 1);
+
+        List<Inventory> inventories;
+        if (productId != null && warehouseId != null) {
+            inventories = inventoryRepository.findByProductIdAndWarehouseIdAndIdGreaterThanOrderByIdAsc(productId, warehouseId,
+                    cursor, fetchLimit);
+        } else if (productId != null) {
+            inventories = inventoryRepository.findByProductIdAndIdGreaterThanOrderByIdAsc(productId, cursor, fetchLimit);
+        } else if (warehouseId != null) {
+            inventories = inventoryRepository.findByWarehouseIdAndIdGreaterThanOrderByIdAsc(warehouseId, cursor, fetchLimit);
+        } else {
+            inventories = inventoryRepository.findByIdGreaterThanOrderByIdAsc(cursor, fetchLimit);
+        }
+
+        boolean hasMore = inventories.size() > pageSize;
+        if (hasMore) {
+            inventories = inventories.subList(0, pageSize);
+        }
+        Long nextCursor = hasMore ? inventories.get(inventories.size() - 1).getId() : null;
+        return new InventoryCursorPageDto(mapToDtos(inventories), nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamInventory(Long productId, Long warehouseId, Consumer<InventoryDto> consumer) {
+        inventoryRepository.streamInventory(productId, warehouseId, consumer);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDto> getLowStockInventory() {
-        return inventoryRepository.findAll().stream()
-                .filter(inventory -> {
-                    Integer totalQuantity = inventoryRepository.getTotalQuantityByProductId(inventory.getProduct().getId());
-                    return totalQuantity < inventory.getProduct().getMinStockLevel();
-                })
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return mapToDtos(inventoryRepository.findLowStockInventory());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<InventoryDto> getLowStockInventory(Pageable pageable) {
+        Page<Inventory> page = inventoryRepository.findLowStockInventory(pageable);
+        return new PageImpl<>(mapToDtos(page.getContent()), pageable, page.getTotalElements());
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<InventoryDto> getExpiringInventory(int daysToExpiry) {
-        LocalDate expiryThreshold = LocalDate.now().plusDays(daysToExpiry);
-        return inventoryRepository.findByExpiryDateBefore(expiryThreshold).stream()
-                .filter(inventory -> inventory.getQuantity() > 0)
-                .map(this::mapToDto)
+        return getExpiryCandidates(daysToExpiry).stream()
+                .filter(inventoryDto -> inventoryDto.getQuantity() > 0)
                 .collect(Collectors.toList());
     }
 
+    // Loads only the rows on the expiry schedule before the threshold, ordered by expiry date. Quantities are left
+    // unfiltered so the in-memory engine can substitute its own before rows are dropped
+    @Transactional(readOnly = true)
+    public List<InventoryDto> getExpiryCandidates(int daysToExpiry) {
+        LocalDate expiryThreshold = LocalDate.now().plusDays(daysToExpiry);
+        List<Long> ids = inventoryExpiryService.getScheduledInventoryIds(expiryThreshold);
+        List<Inventory> inventories = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += MAX_PAGE_SIZE) {
+            inventories.addAll(inventoryRepository.findAllByIdIn(ids.subList(from, Math.min(from + MAX_PAGE_SIZE, ids.size()))));
+        }
+        return mapToDtos(inventories.stream()
+                .filter(inventory -> inventory.getExpiryDate() != null && inventory.getExpiryDate().isBefore(expiryThreshold))
+                .sorted(Comparator.comparing(Inventory::getExpiryDate).thenComparing(Inventory::getId))
+                .collect(Collectors.toList()));
+    }
+
     @Override
     @Transactional
     public InventoryDto updateInventory(Long id, InventoryDto inventoryDto) {
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + id));
+        // Locked before reading, so the delta is taken from the quantity this save replaces
+        Inventory inventory = lockInventory(id);
 
+        int quantityChange = inventoryDto.getQuantity() - inventory.getQuantity();
+        if (quantityChange < 0) {
+            claimUnreserved(inventory.getProduct().getId(), inventory.getWarehouse().getId(), -quantityChange);
+        }
         inventory.setQuantity(inventoryDto.getQuantity());
         if (inventoryDto.getBatchNumber() != null) {
             inventory.setBatchNumber(inventoryDto.getBatchNumber());
@@ -136,84 +245,582 @@ public class InventoryServiceImpl implements InventoryService {
             inventory.setLocation(inventoryDto.getLocation());
         }
 
-        return mapToDto(inventoryRepository.save(inventory));
+        Inventory savedInventory = inventoryRepository.save(inventory);
+        productStockService.applyDelta(inventory.getProduct().getId(), quantityChange);
+        stockAvailabilityProjection.recordChange(inventory.getProduct().getId(), inventory.getWarehouse().getId(), quantityChange);
+        if (quantityChange != 0) {
+            recordMovement(InventoryMovement.MovementType.ADJUSTMENT, id, inventory.getProduct().getId(),
+                    inventory.getWarehouse().getId(), quantityChange, savedInventory.getQuantity(), "Inventory updated");
+        }
+        inventoryExpiryService.recordExpiryDate(id, savedInventory.getExpiryDate(), savedInventory.getQuantity());
+        return mapToDto(savedInventory);
     }
 
     @Override
     @Transactional
     public void adjustInventory(Long id, Integer quantityChange, String reason) {
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + id));
+        // Conditional UPDATE: applies the change only if the result stays non-negative, so concurrent calls cannot lose updates
+        QuantityRow row = inventoryRepository.applyQuantityDelta(id, quantityChange)
+                .orElseThrow(() -> rejectedAdjustment(id, quantityChange));
+        // The row stays locked until commit, so claiming after the update is as safe as claiming before it
+        if (quantityChange < 0) {
+            claimUnreserved(row.productId(), row.warehouseId(), -quantityChange);
+        }
+        productStockService.applyDelta(row.productId(), quantityChange);
+        stockAvailabilityProjection.recordChange(row.productId(), row.warehouseId(), quantityChange);
+        recordMovement(InventoryMovement.MovementType.ADJUSTMENT, id, row.productId(), row.warehouseId(),
+                quantityChange, row.quantity(), reason);
+    }
+
+    @Override
+    @Transactional
+    public BulkInventoryAdjustmentResponse adjustInventoryBulk(List<InventoryAdjustmentRequest> adjustments, boolean allOrNothing) {
+        List<Long> ids = adjustments.stream()
+                .map(InventoryAdjustmentRequest::getInventoryId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .collect(Collectors.toList());
+        // Locked in id order and in chunks, so a cycle count posting a whole warehouse stays under the bind parameter
+        // limit and every result below is computed from the quantity the batch update will change
+        Map<Long, QuantityRow> inventories = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += MAX_PAGE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + MAX_PAGE_SIZE, ids.size()));
+            Set<Long> chunkWarehouseIds = new HashSet<>();
+            for (Object[] row : inventoryRepository.findWarehouseIdsByIdIn(chunk)) {
+                chunkWarehouseIds.add(((Number) row[1]).longValue());
+            }
+            if (chunkWarehouseIds.isEmpty()) {
+                continue;
+            }
+            for (Object[] row : inventoryRepository.lockQuantitiesByIdInAndWarehouseIdIn(chunk, chunkWarehouseIds)) {
+                Long id = ((Number) row[0]).longValue();
+                inventories.put(id, new QuantityRow(id, ((Number) row[1]).longValue(), ((Number) row[2]).longValue(),
+                        ((Number) row[3]).intValue(), null, null, null));
+            }
+        }
+
+        // Validate every line against the running quantity of its row, then fold the deltas per row
+        Map<Long, Integer> runningQuantities = new HashMap<>();
+        Map<Long, Integer> netDeltas = new LinkedHashMap<>();
+        List<InventoryAdjustmentResultDto> results = new ArrayList<>();
+        for (int line = 0; line < adjustments.size(); line++) {
+            InventoryAdjustmentRequest adjustment = adjustments.get(line);
+            Long id = adjustment.getInventoryId();
+            QuantityRow inventory = id != null ? inventories.get(id) : null;
+            if (inventory == null) {
+                results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                        "Inventory not found with id: " + id));
+                continue;
+            }
+            if (adjustment.getQuantityChange() == null) {
+                results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                        "Quantity change is required"));
+                continue;
+            }
 
-        int newQuantity = inventory.getQuantity() + quantityChange;
-        if (newQuantity < 0) {
-            throw new InsufficientInventoryException("Cannot adjust inventory below zero. Current: " +
-                    inventory.getQuantity() + ", Change: " + quantityChange);
+            int currentQuantity = runningQuantities.getOrDefault(id, inventory.quantity());
+            int newQuantity = currentQuantity + adjustment.getQuantityChange();
+            if (newQuantity < 0) {
+                results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.FAILED, null,
+                        "Cannot adjust inventory below zero. Current: " + currentQuantity +
+                                ", Change: " + adjustment.getQuantityChange()));
+                continue;
+            }
+            runningQuantities.put(id, newQuantity);
+            netDeltas.merge(id, adjustment.getQuantityChange(), Integer::sum);
+            results.add(adjustmentResult(line, id, InventoryAdjustmentResultDto.Status.APPLIED, newQuantity, null));
+        }
+
+        boolean anyFailed = results.stream()
+                .anyMatch(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.FAILED);
+        if (allOrNothing && anyFailed) {
+            markNotApplied(results);
+            return bulkAdjustmentResponse(true, results);
+        }
+
+        // Units held by reservations cannot be adjusted away
+        for (Iterator<Map.Entry<Long, Integer>> deltas = netDeltas.entrySet().iterator(); deltas.hasNext(); ) {
+            Map.Entry<Long, Integer> delta = deltas.next();
+            QuantityRow inventory = inventories.get(delta.getKey());
+            if (delta.getValue() >= 0 || tryClaimUnreserved(inventory.productId(), inventory.warehouseId(),
+                    -delta.getValue())) {
+                continue;
+            }
+            for (InventoryAdjustmentResultDto result : results) {
+                if (delta.getKey().equals(result.getInventoryId()) &&
+                        result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                    result.setStatus(InventoryAdjustmentResultDto.Status.FAILED);
+                    result.setNewQuantity(null);
+                    result.setMessage("Cannot adjust inventory below the reserved quantity. Unreserved: " +
+                            stockReservationLedger.getUnreservedQuantity(inventory.productId(),
+                                    inventory.warehouseId()));
+                }
+            }
+            deltas.remove();
+        }
+        if (allOrNothing && results.stream()
+                .anyMatch(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.FAILED)) {
+            markNotApplied(results);
+            return bulkAdjustmentResponse(true, results);
         }
 
-        inventory.setQuantity(newQuantity);
-        inventoryRepository.save(inventory);
+        // Guarded batch update: the rows are locked, so the guard only backs up the check above and rejects, never clamps
+        Map<Long, Long> warehouseIds = new HashMap<>(netDeltas.size() * 2);
+        netDeltas.keySet().forEach(id -> warehouseIds.put(id, inventories.get(id).warehouseId()));
+        Set<Long> rejected = inventoryRepository.applyQuantityDeltas(netDeltas, warehouseIds);
+        if (!rejected.isEmpty()) {
+            for (InventoryAdjustmentResultDto result : results) {
+                if (rejected.contains(result.getInventoryId()) &&
+                        result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                    result.setStatus(InventoryAdjustmentResultDto.Status.FAILED);
+                    result.setNewQuantity(null);
+                    result.setMessage("Insufficient inventory after a concurrent change");
+                }
+            }
+            if (allOrNothing) {
+                TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+                markNotApplied(results);
+                return bulkAdjustmentResponse(true, results);
+            }
+            netDeltas.keySet().removeAll(rejected);
+        }
 
-        // TODO: Log inventory adjustment with reason
+        Map<Long, Integer> productDeltas = new HashMap<>();
+        netDeltas.forEach((id, delta) -> {
+            QuantityRow inventory = inventories.get(id);
+            productDeltas.merge(inventory.productId(), delta, Integer::sum);
+            stockAvailabilityProjection.recordChange(inventory.productId(), inventory.warehouseId(), delta);
+        });
+        productDeltas.forEach(productStockService::applyDelta);
+
+        for (InventoryAdjustmentResultDto result : results) {
+            if (result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                QuantityRow inventory = inventories.get(result.getInventoryId());
+                InventoryAdjustmentRequest adjustment = adjustments.get(result.getLine());
+                recordMovement(InventoryMovement.MovementType.ADJUSTMENT, inventory.id(), inventory.productId(),
+                        inventory.warehouseId(), adjustment.getQuantityChange(), result.getNewQuantity(),
+                        adjustment.getReason());
+            }
+        }
+        return bulkAdjustmentResponse(allOrNothing, results);
     }
 
     @Override
-    @Transactional
     public void transferInventory(Long sourceInventoryId, Long destinationWarehouseId, Integer quantity) {
-        Inventory sourceInventory = inventoryRepository.findById(sourceInventoryId)
-                .orElseThrow(() -> new ResourceNotFoundException("Source inventory not found with id: " + sourceInventoryId));
+        transferInventoryBatch(List.of(new InventoryTransferRequest(sourceInventoryId, destinationWarehouseId, quantity)));
+    }
 
-        if (sourceInventory.getQuantity() < quantity) {
-            throw new InsufficientInventoryException("Insufficient inventory to transfer. Available: " +
-                    sourceInventory.getQuantity() + ", Requested: " + quantity);
+    @Override
+    public void transferInventoryBatch(List<InventoryTransferRequest> transfers) {
+        long startedAt = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyTransfers(transfers));
+        } catch (PessimisticLockingFailureException e) {
+            transferLockFailures.incrementAndGet();
+            transferFailedBatches.incrementAndGet();
+            throw e;
+        } catch (RuntimeException e) {
+            transferFailedBatches.incrementAndGet();
+            throw e;
         }
+        transferCommittedBatches.incrementAndGet();
+        transferCommittedLines.addAndGet(transfers.size());
+        transferLatencyNanos.addAndGet(System.nanoTime() - startedAt);
+    }
+
+    @Override
+    public InventoryTransferStatsDto getTransferStats() {
+        long batches = transferCommittedBatches.get();
+        return new InventoryTransferStatsDto(
+                batches,
+                transferCommittedLines.get(),
+                transferFailedBatches.get(),
+                transferLockFailures.get(),
+                batches > 0 ? transferLatencyNanos.get() / 1_000_000.0 / batches : 0);
+    }
 
-        Warehouse destinationWarehouse = warehouseRepository.findById(destinationWarehouseId)
-                .orElseThrow(() -> new ResourceNotFoundException("Destination warehouse not found with id: " + destinationWarehouseId));
+    private void applyTransfers(List<InventoryTransferRequest> transfers) {
+        validateTransfers(transfers);
 
-        // Reduce source inventory
-        sourceInventory.setQuantity(sourceInventory.getQuantity() - quantity);
-        inventoryRepository.save(sourceInventory);
+        // Plan with scalar reads so nothing is cached in the persistence context before the rows are locked
+        Set<Long> sourceIds = transfers.stream()
+                .map(InventoryTransferRequest::getSourceInventoryId)
+                .collect(Collectors.toSet());
+        Map<Long, Object[]> sourceKeys = new HashMap<>();
+        for (Object[] row : inventoryRepository.findTransferKeysByIdIn(sourceIds)) {
+            sourceKeys.put((Long) row[0], row);
+        }
+        for (Long sourceId : sourceIds) {
+            if (!sourceKeys.containsKey(sourceId)) {
+                throw new ResourceNotFoundException("Source inventory not found with id: " + sourceId);
+            }
+        }
 
-        // Check if destination inventory exists
-        Optional<Inventory> destinationInventoryOpt = inventoryRepository.findByProductAndWarehouseAndBatchNumber(
-                sourceInventory.getProduct(), destinationWarehouse, sourceInventory.getBatchNumber());
+        // Claim every unit leaving a source warehouse before touching a row, so reserved stock cannot be moved away
+        Map<StockKey, Integer> outgoing = new HashMap<>();
+        for (InventoryTransferRequest transfer : transfers) {
+            Object[] source = sourceKeys.get(transfer.getSourceInventoryId());
+            outgoing.merge(new StockKey((Long) source[1], (Long) source[3]), transfer.getQuantity(), Integer::sum);
+        }
+        outgoing.forEach((key, quantity) -> claimUnreserved(key.productId(), key.warehouseId(), quantity));
+
+        Set<Long> destinationWarehouseIds = transfers.stream()
+                .map(InventoryTransferRequest::getDestinationWarehouseId)
+                .collect(Collectors.toSet());
+        Map<Long, Warehouse> warehouses = warehouseRepository.findAllById(destinationWarehouseIds).stream()
+                .collect(Collectors.toMap(Warehouse::getId, Function.identity()));
+        for (Long warehouseId : destinationWarehouseIds) {
+            if (!warehouses.containsKey(warehouseId)) {
+                throw new ResourceNotFoundException("Destination warehouse not found with id: " + warehouseId);
+            }
+        }
 
-        if (destinationInventoryOpt.isPresent()) {
-            // Add to existing inventory
-            Inventory destinationInventory = destinationInventoryOpt.get();
-            destinationInventory.setQuantity(destinationInventory.getQuantity() + quantity);
-            inventoryRepository.save(destinationInventory);
-        } else {
-            // Create new inventory
-            Inventory newInventory = new Inventory();
-            newInventory.setProduct(sourceInventory.getProduct());
-            newInventory.setWarehouse(destinationWarehouse);
-            newInventory.setQuantity(quantity);
-            newInventory.setBatchNumber(sourceInventory.getBatchNumber());
-            newInventory.setExpiryDate(sourceInventory.getExpiryDate());
-            inventoryRepository.save(newInventory);
+        // Resolve every existing destination row with a single query
+        Set<Long> productIds = sourceKeys.values().stream()
+                .map(row -> (Long) row[1])
+                .collect(Collectors.toSet());
+        Map<InventoryKey, Long> destinationIds = new HashMap<>();
+        for (Object[] row : inventoryRepository.findTransferKeysByProductIdInAndWarehouseIdIn(productIds, destinationWarehouseIds)) {
+            destinationIds.put(new InventoryKey((Long) row[1], (Long) row[2], (String) row[3]), (Long) row[0]);
+        }
+
+        Set<Long> lockIds = new TreeSet<>(sourceIds);
+        Set<Long> lockWarehouseIds = new HashSet<>(destinationWarehouseIds);
+        sourceKeys.values().forEach(row -> lockWarehouseIds.add((Long) row[3]));
+        for (InventoryTransferRequest transfer : transfers) {
+            Object[] source = sourceKeys.get(transfer.getSourceInventoryId());
+            Long destinationId = destinationIds.get(
+                    new InventoryKey((Long) source[1], transfer.getDestinationWarehouseId(), (String) source[2]));
+            if (destinationId != null) {
+                lockIds.add(destinationId);
+            }
+        }
+        Map<Long, Inventory> locked = inventoryRepository.findAllByIdInAndWarehouseIdInOrderByIdForUpdate(lockIds, lockWarehouseIds).stream()
+                .collect(Collectors.toMap(Inventory::getId, Function.identity()));
+
+        for (InventoryTransferRequest transfer : transfers) {
+            Inventory sourceInventory = locked.get(transfer.getSourceInventoryId());
+            if (sourceInventory == null) {
+                throw new ResourceNotFoundException("Source inventory not found with id: " + transfer.getSourceInventoryId());
+            }
+            int quantity = transfer.getQuantity();
+            if (sourceInventory.getQuantity() < quantity) {
+                throw new InsufficientInventoryException("Insufficient inventory to transfer. Available: " +
+                        sourceInventory.getQuantity() + ", Requested: " + quantity);
+            }
+
+            // Reduce source inventory
+            sourceInventory.setQuantity(sourceInventory.getQuantity() - quantity);
+            stockAvailabilityProjection.recordChange(sourceInventory.getProduct().getId(),
+                    sourceInventory.getWarehouse().getId(), -quantity);
+            stockAvailabilityProjection.recordChange(sourceInventory.getProduct().getId(),
+                    transfer.getDestinationWarehouseId(), quantity);
+            recordMovement(InventoryMovement.MovementType.TRANSFER_OUT, sourceInventory.getId(),
+                    sourceInventory.getProduct().getId(), sourceInventory.getWarehouse().getId(),
+                    -quantity, sourceInventory.getQuantity(), null);
+
+            Long destinationId = destinationIds.get(new InventoryKey(sourceInventory.getProduct().getId(),
+                    transfer.getDestinationWarehouseId(), sourceInventory.getBatchNumber()));
+            long destinationInventoryId;
+            int destinationQuantity;
+            if (destinationId != null) {
+                // Add to existing inventory
+                Inventory destinationInventory = locked.get(destinationId);
+                destinationInventory.setQuantity(destinationInventory.getQuantity() + quantity);
+                destinationInventoryId = destinationId;
+                destinationQuantity = destinationInventory.getQuantity();
+            } else {
+                // Create the row with an upsert: another transaction, or an earlier line of this batch, may have
+                // created it since the plan was made
+                QuantityRow row = inventoryRepository.upsertQuantity(sourceInventory.getProduct().getId(),
+                        transfer.getDestinationWarehouseId(), sourceInventory.getBatchNumber(), quantity,
+                        sourceInventory.getExpiryDate(), null);
+                inventoryExpiryService.recordExpiryDate(row.id(), row.expiryDate(), row.quantity());
+                destinationInventoryId = row.id();
+                destinationQuantity = row.quantity();
+            }
+            recordMovement(InventoryMovement.MovementType.TRANSFER_IN, destinationInventoryId,
+                    sourceInventory.getProduct().getId(), transfer.getDestinationWarehouseId(),
+                    quantity, destinationQuantity, null);
+        }
+
+        // Flush inside the transaction so write conflicts surface here rather than at commit
+        inventoryRepository.flush();
+
+        // Product totals are unchanged: the quantity only moves between warehouses
+    }
+
+    @Override
+    public InventoryAllocationDto allocateInventory(InventoryAllocationRequest request) {
+        return allocate(request, false);
+    }
+
+    @Override
+    public InventoryAllocationDto allocateReservedInventory(InventoryAllocationRequest request) {
+        return allocate(request, true);
+    }
+
+    private InventoryAllocationDto allocate(InventoryAllocationRequest request, boolean reserved) {
+        validateAllocation(request);
+        long startedAt = System.nanoTime();
+        InventoryAllocationDto allocation;
+        try {
+            allocation = transactionTemplate.execute(status -> applyAllocation(request, reserved));
+        } catch (InsufficientInventoryException e) {
+            rejectedAllocations.incrementAndGet();
+            throw e;
+        } catch (PessimisticLockingFailureException e) {
+            allocationLockFailures.incrementAndGet();
+            throw e;
+        }
+        allocations.incrementAndGet();
+        allocatedUnits.addAndGet(allocation.getAllocatedQuantity());
+        allocationLatencyNanos.addAndGet(System.nanoTime() - startedAt);
+        return allocation;
+    }
+
+    @Override
+    public InventoryAllocationStatsDto getAllocationStats() {
+        long count = allocations.get();
+        return new InventoryAllocationStatsDto(
+                count,
+                allocatedUnits.get(),
+                rejectedAllocations.get(),
+                allocationConflicts.get(),
+                allocationLockFailures.get(),
+                count > 0 ? allocationLatencyNanos.get() / 1_000_000.0 / count : 0);
+    }
+
+    // Batches are read a window at a time in index order and each is taken with one conditional decrement. Every
+    // allocator locks batches in the same order, and a decrement that loses a race to a concurrent pick just fails:
+    // the next window re-reads that batch with its committed quantity. Units already held by the caller's reservation
+    // are taken as they are; anything else is first claimed from the unreserved stock
+    private InventoryAllocationDto applyAllocation(InventoryAllocationRequest request, boolean reserved) {
+        Long productId = request.getProductId();
+        Long warehouseId = request.getWarehouseId();
+        LocalDate today = LocalDate.now();
+        int quantity = request.getQuantity();
+        if (!reserved) {
+            int unreserved = stockReservationLedger.claimUpTo(productId, warehouseId, quantity);
+            stockReservationLedger.releaseAfterCompletion(productId, warehouseId, unreserved);
+            if (unreserved < quantity && !Boolean.TRUE.equals(request.getAllowPartial())) {
+                throw insufficientForAllocation(request, unreserved);
+            }
+            quantity = unreserved;
+        }
+        int remaining = quantity;
+        List<InventoryAllocationLineDto> lines = new ArrayList<>();
+
+        for (int window = 0; remaining > 0; window++) {
+            if (window == MAX_ALLOCATION_WINDOWS) {
+                throw new ConcurrencyFailureException("Could not allocate product " + productId + " in warehouse " +
+                        warehouseId + " under contention; retry the request");
+            }
+            List<Object[]> candidates = inventoryRepository.findAllocationCandidates(productId, warehouseId, today, 1,
+                    Limit.of(ALLOCATION_WINDOW));
+            if (candidates.isEmpty()) {
+                break;
+            }
+            for (Object[] candidate : candidates) {
+                Long id = ((Number) candidate[0]).longValue();
+                int take = Math.min(remaining, ((Number) candidate[1]).intValue());
+                Optional<QuantityRow> row = inventoryRepository.applyQuantityDelta(id, warehouseId, -take);
+                if (row.isEmpty()) {
+                    allocationConflicts.incrementAndGet();
+                    continue;
+                }
+                remaining -= take;
+                lines.add(new InventoryAllocationLineDto(id, row.get().batchNumber(), row.get().expiryDate(), take,
+                        row.get().quantity()));
+                if (remaining == 0) {
+                    break;
+                }
+            }
+        }
+
+        int allocated = quantity - remaining;
+        if (remaining > 0 && !Boolean.TRUE.equals(request.getAllowPartial())) {
+            throw insufficientForAllocation(request, allocated);
+        }
+        if (allocated > 0) {
+            productStockService.applyDelta(productId, -allocated);
+            stockAvailabilityProjection.recordChange(productId, warehouseId, -allocated);
+        }
+        for (InventoryAllocationLineDto line : lines) {
+            recordMovement(InventoryMovement.MovementType.ALLOCATION, line.getInventoryId(), productId, warehouseId,
+                    -line.getQuantity(), line.getRemainingQuantity(), request.getReason());
+        }
+        return new InventoryAllocationDto(productId, warehouseId, request.getQuantity(), allocated, lines);
+    }
+
+    // Batches an allocation may draw from, id to expiry date in pick order, whatever their stored quantity
+    Map<Long, LocalDate> getAllocationCandidates(Long productId, Long warehouseId) {
+        Map<Long, LocalDate> candidates = new LinkedHashMap<>();
+        for (Object[] candidate : inventoryRepository.findAllocationCandidates(productId, warehouseId, LocalDate.now(), 0,
+                Limit.unlimited())) {
+            candidates.put(((Number) candidate[0]).longValue(), (LocalDate) candidate[2]);
+        }
+        return candidates;
+    }
+
+    static void validateAllocation(InventoryAllocationRequest request) {
+        if (request.getProductId() == null || request.getWarehouseId() == null) {
+            throw new IllegalArgumentException("Product and warehouse are required for an allocation");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Allocation quantity must be positive");
+        }
+    }
+
+    static void validateTransfers(List<InventoryTransferRequest> transfers) {
+        if (transfers == null || transfers.isEmpty()) {
+            throw new IllegalArgumentException("At least one transfer is required");
         }
+        for (InventoryTransferRequest transfer : transfers) {
+            if (transfer.getSourceInventoryId() == null || transfer.getDestinationWarehouseId() == null) {
+                throw new IllegalArgumentException("Source inventory and destination warehouse are required for a transfer");
+            }
+            if (transfer.getQuantity() == null || transfer.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Transfer quantity must be positive for source inventory: " +
+                        transfer.getSourceInventoryId());
+            }
+        }
+    }
+
+    static InsufficientInventoryException reservedStockShortfall(long productId, long warehouseId, int quantity,
+                                                                 int unreserved) {
+        return new InsufficientInventoryException("Cannot take " + quantity + " of product " + productId +
+                " in warehouse " + warehouseId + " without touching reserved stock. Unreserved: " + unreserved);
+    }
 
-        // TODO: Log inventory transfer
+    static InsufficientInventoryException insufficientForAllocation(InventoryAllocationRequest request, int available) {
+        return new InsufficientInventoryException("Cannot allocate " + request.getQuantity() + " of product " +
+                request.getProductId() + " in warehouse " + request.getWarehouseId() + ". Available: " + available);
     }
 
     @Override
     @Transactional
     public void deleteInventory(Long id) {
-        Inventory inventory = inventoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + id));
+        Inventory inventory = lockInventory(id);
+        if (inventory.getQuantity() > 0) {
+            claimUnreserved(inventory.getProduct().getId(), inventory.getWarehouse().getId(), inventory.getQuantity());
+        }
         inventoryRepository.delete(inventory);
+        productStockService.applyDelta(inventory.getProduct().getId(), -inventory.getQuantity());
+        stockAvailabilityProjection.recordChange(inventory.getProduct().getId(), inventory.getWarehouse().getId(),
+                -inventory.getQuantity());
+        recordMovement(InventoryMovement.MovementType.DELETION, id, inventory.getProduct().getId(),
+                inventory.getWarehouse().getId(), -inventory.getQuantity(), 0, null);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getTotalQuantityForProduct(Long productId) {
-        return inventoryRepository.getTotalQuantityByProductId(productId);
+        return stockAvailabilityProjection.getTotalQuantity(productId);
+    }
+
+    private record InventoryKey(Long productId, Long warehouseId, String batchNumber) {
+    }
+
+    record StockKey(long productId, long warehouseId) {
+    }
+
+    private void recordMovement(InventoryMovement.MovementType movementType, Long inventoryId, Long productId,
+                                Long warehouseId, int quantityChange, int resultingQuantity, String reason) {
+        recordMovement(movementType, inventoryId, productId, warehouseId, quantityChange, resultingQuantity, reason, null);
+    }
+
+    private void recordMovement(InventoryMovement.MovementType movementType, Long inventoryId, Long productId,
+                                Long warehouseId, int quantityChange, int resultingQuantity, String reason,
+                                BigDecimal unitCost) {
+        inventoryMovementService.record(InventoryMovement.builder()
+                .inventoryId(inventoryId)
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .movementType(movementType)
+                .quantityChange(quantityChange)
+                .resultingQuantity(resultingQuantity)
+                .unitCost(unitCost)
+                .reason(reason)
+                .build());
+    }
+
+    // Row lock by id and warehouse, for read-modify-write paths that save the whole entity; a row never changes warehouse
+    private Inventory lockInventory(Long id) {
+        List<Object[]> keys = inventoryRepository.findWarehouseIdsByIdIn(List.of(id));
+        List<Inventory> locked = keys.isEmpty() ? List.of() : inventoryRepository.findAllByIdInAndWarehouseIdInOrderByIdForUpdate(
+                List.of(id), List.of(((Number) keys.get(0)[1]).longValue()));
+        if (locked.isEmpty()) {
+            throw new ResourceNotFoundException("Inventory not found with id: " + id);
+        }
+        return locked.get(0);
+    }
+
+    // Claims the units a decrement takes for the rest of the transaction, failing if reservations already hold them
+    private void claimUnreserved(long productId, long warehouseId, int quantity) {
+        if (!tryClaimUnreserved(productId, warehouseId, quantity)) {
+            throw reservedStockShortfall(productId, warehouseId, quantity,
+                    stockReservationLedger.getUnreservedQuantity(productId, warehouseId));
+        }
+    }
+
+    private boolean tryClaimUnreserved(long productId, long warehouseId, int quantity) {
+        if (!stockReservationLedger.tryClaim(productId, warehouseId, quantity)) {
+            return false;
+        }
+        stockReservationLedger.releaseAfterCompletion(productId, warehouseId, quantity);
+        return true;
+    }
+
+    private RuntimeException rejectedAdjustment(Long id, int quantityChange) {
+        Inventory inventory = inventoryRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found with id: " + id));
+        return new InsufficientInventoryException("Cannot adjust inventory below zero. Current: " +
+                inventory.getQuantity() + ", Change: " + quantityChange);
+    }
+
+    static InventoryAdjustmentResultDto adjustmentResult(int line, Long inventoryId,
+                                                         InventoryAdjustmentResultDto.Status status,
+                                                         Integer newQuantity, String message) {
+        return new InventoryAdjustmentResultDto(line, inventoryId, status, newQuantity, message);
+    }
+
+    static void markNotApplied(List<InventoryAdjustmentResultDto> results) {
+        for (InventoryAdjustmentResultDto result : results) {
+            if (result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED) {
+                result.setStatus(InventoryAdjustmentResultDto.Status.NOT_APPLIED);
+                result.setNewQuantity(null);
+            }
+        }
+    }
+
+    static BulkInventoryAdjustmentResponse bulkAdjustmentResponse(boolean allOrNothing,
+                                                                  List<InventoryAdjustmentResultDto> results) {
+        int applied = (int) results.stream()
+                .filter(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.APPLIED)
+                .count();
+        int failed = (int) results.stream()
+                .filter(result -> result.getStatus() == InventoryAdjustmentResultDto.Status.FAILED)
+                .count();
+        return new BulkInventoryAdjustmentResponse(allOrNothing, applied, failed, results);
     }
 
     // Helper methods for mapping between entity and DTO
+    private List<InventoryDto> mapToDtos(List<Inventory> inventories) {
+        // One lookup for every distinct product in the listing instead of a SUM per row
+        Map<Long, Integer> totals = productStockService.getTotalQuantities(inventories.stream()
+                .map(inventory -> inventory.getProduct().getId())
+                .collect(Collectors.toSet()));
+        return inventories.stream()
+                .map(inventory -> mapToDto(inventory, totals.getOrDefault(inventory.getProduct().getId(), 0)))
+                .collect(Collectors.toList());
+    }
+
     private InventoryDto mapToDto(Inventory inventory) {
+        return mapToDto(inventory, productStockService.getTotalQuantity(inventory.getProduct().getId()));
+    }
+
+    private InventoryDto mapToDto(Inventory inventory, Integer totalQuantity) {
         InventoryDto inventoryDto = new InventoryDto();
         inventoryDto.setId(inventory.getId());
         inventoryDto.setProductId(inventory.getProduct().getId());
@@ -225,9 +832,9 @@ public class InventoryServiceImpl implements InventoryService {
         inventoryDto.setBatchNumber(inventory.getBatchNumber());
         inventoryDto.setExpiryDate(inventory.getExpiryDate());
         inventoryDto.setLocation(inventory.getLocation());
+        inventoryDto.setQuarantined(inventory.getQuarantinedAt() != null);
 
         // Check if inventory is low
-        Integer totalQuantity = inventoryRepository.getTotalQuantityByProductId(inventory.getProduct().getId());
         inventoryDto.setLowStock(totalQuantity < inventory.getProduct().getMinStockLevel());
 
         return inventoryDto;
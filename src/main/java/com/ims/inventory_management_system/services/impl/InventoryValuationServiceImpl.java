@@ -0,0 +1,485 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryCostLayerDto;
+import com.ims.inventory_management_system.dto.InventoryValuationDto;
+import com.ims.inventory_management_system.dto.InventoryValuationLineDto;
+import com.ims.inventory_management_system.entities.InventoryCostLayer;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.entities.Product;
+import com.ims.inventory_management_system.repositories.InventoryCostLayerRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.ProductRepository;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryValuationServiceImpl implements InventoryValuationService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryValuationServiceImpl.class);
+
+    private static final int COST_SCALE = 4;
+    private static final ProductCost UNKNOWN_PRODUCT = new ProductCost(null, BigDecimal.ZERO);
+
+    private final InventoryCostLayerRepository inventoryCostLayerRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.valuation.method:FIFO}")
+    private Method method;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Cost layers per productId << 32 | warehouseId, oldest first; weighted average keeps a single layer per pair
+    private final Map<Long, ArrayDeque<Layer>> pools = new HashMap<>();
+    private final Map<Long, Totals> productTotals = new HashMap<>();
+    private final Map<Long, Totals> warehouseTotals = new HashMap<>();
+    // The null key holds products without a category
+    private final Map<Long, Totals> categoryTotals = new HashMap<>();
+    private final Map<Long, ProductCost> products = new HashMap<>();
+    // Pairs whose layers changed since they were last written
+    private final Set<Long> dirtyPairs = new HashSet<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        Map<Long, Integer> onHand = new HashMap<>();
+        int reconciled = 0;
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Object[] row : productRepository.findCostInfo()) {
+                    products.put(((Number) row[0]).longValue(), toProductCost(row));
+                }
+                try (Stream<InventoryCostLayer> layers = inventoryCostLayerRepository.streamAll()) {
+                    layers.forEach(layer -> pools.computeIfAbsent(pairKey(layer.getProductId(), layer.getWarehouseId()),
+                            key -> new ArrayDeque<>()).addLast(new Layer(layer.getUnitCost(), layer.getQuantity(),
+                            layer.getReceivedAt())));
+                }
+                try (Stream<Object[]> rows = inventoryRepository.streamQuantitiesByProductAndWarehouse()) {
+                    rows.forEach(row -> onHand.put(pairKey(((Number) row[0]).longValue(), ((Number) row[1]).longValue()),
+                            ((Number) row[2]).intValue()));
+                }
+            });
+            pools.forEach((key, pool) -> pool.forEach(layer -> addToTotals(key, layer.quantity, layer.value())));
+
+            // Stock that predates cost layers, or changes not yet written when the application stopped, is brought
+            // back in line with the inventory table: missing units at the product's cost price, surplus issued FIFO
+            Set<Long> keys = new HashSet<>(pools.keySet());
+            keys.addAll(onHand.keySet());
+            LocalDateTime now = LocalDateTime.now();
+            for (Long key : keys) {
+                int layered = layeredQuantity(pools.get(key));
+                int held = Math.max(0, onHand.getOrDefault(key, 0));
+                if (held > layered) {
+                    receive(key, held - layered, productCost(productId(key)).costPrice(), now);
+                } else if (held < layered) {
+                    issue(key, layered - held, null);
+                }
+                if (held != layered) {
+                    dirtyPairs.add(key);
+                    reconciled++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Inventory valuation ({}) loaded {} product/warehouse pairs, reconciled {}, in {} ms", method,
+                pools.size(), reconciled, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public InventoryValuationDto getValuation() {
+        lock.readLock().lock();
+        try {
+            long totalQuantity = 0;
+            BigDecimal totalValue = BigDecimal.ZERO;
+            for (Totals totals : warehouseTotals.values()) {
+                totalQuantity += totals.quantity;
+                totalValue = totalValue.add(totals.value);
+            }
+            return new InventoryValuationDto(method, totalQuantity, totalValue, toLines(warehouseTotals),
+                    toLines(categoryTotals));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public InventoryValuationLineDto getProductValuation(Long productId, Long warehouseId) {
+        lock.readLock().lock();
+        try {
+            if (warehouseId == null) {
+                Totals totals = productTotals.get(productId);
+                return totals != null
+                        ? new InventoryValuationLineDto(productId, totals.quantity, totals.value)
+                        : new InventoryValuationLineDto(productId, 0L, BigDecimal.ZERO);
+            }
+            ArrayDeque<Layer> pool = pools.get(pairKey(productId, warehouseId));
+            BigDecimal value = BigDecimal.ZERO;
+            if (pool != null) {
+                for (Layer layer : pool) {
+                    value = value.add(layer.value());
+                }
+            }
+            return new InventoryValuationLineDto(productId, (long) layeredQuantity(pool), value);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<InventoryCostLayerDto> getCostLayers(Long productId, Long warehouseId) {
+        lock.readLock().lock();
+        try {
+            ArrayDeque<Layer> pool = pools.get(pairKey(productId, warehouseId));
+            List<InventoryCostLayerDto> layers = new ArrayList<>();
+            if (pool != null) {
+                for (Layer layer : pool) {
+                    layers.add(new InventoryCostLayerDto(layer.unitCost, layer.quantity, layer.receivedAt));
+                }
+            }
+            return layers;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Called with the committed movements of one transaction, in the order they were recorded
+    @Override
+    public void applyMovements(List<InventoryMovement> movements) {
+        loadMissingProductCosts(movements);
+        lock.writeLock().lock();
+        try {
+            // Layers issued by a transfer out travel with the units to the transfer in that follows it, so
+            // transferred stock keeps its cost and receipt date
+            Map<Long, ArrayDeque<Layer>> inTransit = new HashMap<>();
+            for (InventoryMovement movement : movements) {
+                long productId = movement.getProductId();
+                long key = pairKey(productId, movement.getWarehouseId());
+                int quantityChange = movement.getQuantityChange();
+                if (quantityChange < 0) {
+                    ArrayDeque<Layer> transit = movement.getMovementType() == InventoryMovement.MovementType.TRANSFER_OUT
+                            ? inTransit.computeIfAbsent(productId, id -> new ArrayDeque<>())
+                            : null;
+                    issue(key, -quantityChange, transit);
+                } else if (quantityChange > 0) {
+                    if (movement.getMovementType() == InventoryMovement.MovementType.TRANSFER_IN) {
+                        receiveTransfer(key, quantityChange, inTransit.get(productId), movement.getOccurredAt());
+                    } else {
+                        BigDecimal unitCost = movement.getUnitCost() != null ? movement.getUnitCost() : fallbackCost(key);
+                        receive(key, quantityChange, unitCost, movement.getOccurredAt());
+                    }
+                }
+                dirtyPairs.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Keeps the cost price and category used for valuation current; a category change moves the product's value
+    @Override
+    public void recordProduct(Product product) {
+        long productId = product.getId();
+        ProductCost productCost = new ProductCost(product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getCostPrice());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyProduct(productId, productCost);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                applyProduct(productId, productCost);
+            }
+        });
+    }
+
+    // Rewrites the layers of every pair that changed since the last flush
+    @Override
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, List<Layer>> snapshot = new HashMap<>();
+            lock.writeLock().lock();
+            try {
+                for (Long key : dirtyPairs) {
+                    List<Layer> layers = new ArrayList<>();
+                    ArrayDeque<Layer> pool = pools.get(key);
+                    if (pool != null) {
+                        for (Layer layer : pool) {
+                            layers.add(new Layer(layer.unitCost, layer.quantity, layer.receivedAt));
+                        }
+                    }
+                    snapshot.put(key, layers);
+                }
+                dirtyPairs.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (snapshot.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<InventoryCostLayer> entities = new ArrayList<>();
+                    snapshot.forEach((key, layers) -> {
+                        inventoryCostLayerRepository.deleteByPair(productId(key), warehouseId(key));
+                        for (Layer layer : layers) {
+                            entities.add(InventoryCostLayer.builder()
+                                    .productId(productId(key))
+                                    .warehouseId(warehouseId(key))
+                                    .unitCost(layer.unitCost)
+                                    .quantity(layer.quantity)
+                                    .receivedAt(layer.receivedAt)
+                                    .build());
+                        }
+                    });
+                    inventoryCostLayerRepository.saveAll(entities);
+                });
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    dirtyPairs.addAll(snapshot.keySet());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                logger.warn("Writing cost layers for {} product/warehouse pairs failed, will retry: {}",
+                        snapshot.size(), e.getMessage());
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void applyProduct(long productId, ProductCost productCost) {
+        lock.writeLock().lock();
+        try {
+            ProductCost previous = products.put(productId, productCost);
+            Totals totals = productTotals.get(productId);
+            if (previous != null && totals != null && !Objects.equals(previous.categoryId(), productCost.categoryId())) {
+                addTo(categoryTotals, previous.categoryId(), -totals.quantity, totals.value.negate());
+                addTo(categoryTotals, productCost.categoryId(), totals.quantity, totals.value);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void receive(long key, int quantity, BigDecimal unitCost, LocalDateTime receivedAt) {
+        BigDecimal cost = unitCost.setScale(COST_SCALE, RoundingMode.HALF_UP);
+        ArrayDeque<Layer> pool = pools.computeIfAbsent(key, k -> new ArrayDeque<>());
+        Layer newest = pool.peekLast();
+        BigDecimal valueChange;
+        if (newest != null && method == Method.WEIGHTED_AVERAGE) {
+            BigDecimal before = newest.value();
+            newest.quantity += quantity;
+            newest.unitCost = before.add(cost.multiply(BigDecimal.valueOf(quantity)))
+                    .divide(BigDecimal.valueOf(newest.quantity), COST_SCALE, RoundingMode.HALF_UP);
+            valueChange = newest.value().subtract(before);
+        } else if (newest != null && newest.unitCost.compareTo(cost) == 0) {
+            // Same cost as the newest layer: extend it rather than grow the queue
+            newest.quantity += quantity;
+            valueChange = cost.multiply(BigDecimal.valueOf(quantity));
+        } else {
+            pool.addLast(new Layer(cost, quantity, receivedAt != null ? receivedAt : LocalDateTime.now()));
+            valueChange = cost.multiply(BigDecimal.valueOf(quantity));
+        }
+        addToTotals(key, quantity, valueChange);
+    }
+
+    private void receiveTransfer(long key, int quantity, ArrayDeque<Layer> transit, LocalDateTime receivedAt) {
+        int remaining = quantity;
+        while (remaining > 0 && transit != null && !transit.isEmpty()) {
+            Layer layer = transit.peekFirst();
+            int take = Math.min(remaining, layer.quantity);
+            receive(key, take, layer.unitCost, layer.receivedAt);
+            layer.quantity -= take;
+            remaining -= take;
+            if (layer.quantity == 0) {
+                transit.pollFirst();
+            }
+        }
+        if (remaining > 0) {
+            receive(key, remaining, fallbackCost(key), receivedAt);
+        }
+    }
+
+    private void issue(long key, int quantity, ArrayDeque<Layer> transit) {
+        ArrayDeque<Layer> pool = pools.get(key);
+        int remaining = quantity;
+        BigDecimal valueOut = BigDecimal.ZERO;
+        while (remaining > 0 && pool != null && !pool.isEmpty()) {
+            Layer oldest = pool.peekFirst();
+            int take = Math.min(remaining, oldest.quantity);
+            if (transit != null) {
+                transit.addLast(new Layer(oldest.unitCost, take, oldest.receivedAt));
+            }
+            valueOut = valueOut.add(oldest.unitCost.multiply(BigDecimal.valueOf(take)));
+            oldest.quantity -= take;
+            remaining -= take;
+            if (oldest.quantity == 0) {
+                pool.pollFirst();
+            }
+        }
+        if (pool != null && pool.isEmpty()) {
+            pools.remove(key);
+        }
+        addToTotals(key, -(quantity - remaining), valueOut.negate());
+        if (remaining > 0) {
+            logger.warn("Cost layers for product {} in warehouse {} were {} units short of an issue",
+                    productId(key), warehouseId(key), remaining);
+        }
+    }
+
+    // Units added without a known cost (found stock, returns) are valued at the newest layer's cost
+    private BigDecimal fallbackCost(long key) {
+        ArrayDeque<Layer> pool = pools.get(key);
+        if (pool != null && !pool.isEmpty()) {
+            return pool.peekLast().unitCost;
+        }
+        return productCost(productId(key)).costPrice();
+    }
+
+    // Products are known from startup and every save, so a miss is rare; the lookup happens before the write lock is
+    // taken, never under it
+    private void loadMissingProductCosts(List<InventoryMovement> movements) {
+        Set<Long> missing = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (InventoryMovement movement : movements) {
+                if (!products.containsKey(movement.getProductId())) {
+                    missing.add(movement.getProductId());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = productRepository.findCostInfoByIdIn(missing);
+        lock.writeLock().lock();
+        try {
+            for (Object[] row : rows) {
+                products.putIfAbsent(((Number) row[0]).longValue(), toProductCost(row));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Only reads what is already loaded: a product that could not be looked up is valued at zero, uncategorized
+    private ProductCost productCost(long productId) {
+        return products.getOrDefault(productId, UNKNOWN_PRODUCT);
+    }
+
+    private static ProductCost toProductCost(Object[] row) {
+        return new ProductCost(row[1] != null ? ((Number) row[1]).longValue() : null, (BigDecimal) row[2]);
+    }
+
+    private void addToTotals(long key, long quantity, BigDecimal value) {
+        if (quantity == 0 && value.signum() == 0) {
+            return;
+        }
+        long productId = productId(key);
+        addTo(productTotals, productId, quantity, value);
+        addTo(warehouseTotals, warehouseId(key), quantity, value);
+        addTo(categoryTotals, productCost(productId).categoryId(), quantity, value);
+    }
+
+    private static void addTo(Map<Long, Totals> totalsById, Long id, long quantity, BigDecimal value) {
+        Totals totals = totalsById.computeIfAbsent(id, key -> new Totals());
+        totals.quantity += quantity;
+        totals.value = totals.value.add(value);
+        if (totals.quantity == 0 && totals.value.signum() == 0) {
+            totalsById.remove(id);
+        }
+    }
+
+    private static List<InventoryValuationLineDto> toLines(Map<Long, Totals> totalsById) {
+        List<InventoryValuationLineDto> lines = new ArrayList<>(totalsById.size());
+        totalsById.forEach((id, totals) -> lines.add(new InventoryValuationLineDto(id, totals.quantity, totals.value)));
+        lines.sort(Comparator.comparing(InventoryValuationLineDto::getId, Comparator.nullsFirst(Comparator.naturalOrder())));
+        return lines;
+    }
+
+    private static int layeredQuantity(ArrayDeque<Layer> pool) {
+        int quantity = 0;
+        if (pool != null) {
+            for (Layer layer : pool) {
+                quantity += layer.quantity;
+            }
+        }
+        return quantity;
+    }
+
+    private static long pairKey(long productId, long warehouseId) {
+        if (productId <= 0 || productId > Integer.MAX_VALUE || warehouseId <= 0 || warehouseId > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Ids out of range for valuation: product " + productId +
+                    ", warehouse " + warehouseId);
+        }
+        return productId << 32 | warehouseId;
+    }
+
+    private static long productId(long key) {
+        return key >>> 32;
+    }
+
+    private static long warehouseId(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    private static final class Layer {
+        private BigDecimal unitCost;
+        private int quantity;
+        private final LocalDateTime receivedAt;
+
+        private Layer(BigDecimal unitCost, int quantity, LocalDateTime receivedAt) {
+            this.unitCost = unitCost;
+            this.quantity = quantity;
+            this.receivedAt = receivedAt;
+        }
+
+        private BigDecimal value() {
+            return unitCost.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    private static final class Totals {
+        private long quantity;
+        private BigDecimal value = BigDecimal.ZERO;
+    }
+
+    private record ProductCost(Long categoryId, BigDecimal costPrice) {
+    }
+}
@@ -6,11 +6,16 @@ import com.ims.inventory_management_system.entities.Product;
 import com.ims.inventory_management_system.entities.Supplier;
 import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
 import com.ims.inventory_management_system.repositories.CategoryRepository;
-import com.ims.inventory_management_system.repositories.InventoryRepository;
 import com.ims.inventory_management_system.repositories.ProductRepository;
 import com.ims.inventory_management_system.repositories.SupplierRepository;
+import com.ims.inventory_management_system.services.InventoryValuationService;
 import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockReservationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,13 +29,18 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final SupplierRepository supplierRepository;
-    private final InventoryRepository inventoryRepository;
+    private final ProductStockService productStockService;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final StockReservationService stockReservationService;
+    private final InventoryValuationService inventoryValuationService;
 
     @Override
     @Transactional
     public ProductDto createProduct(ProductDto productDto) {
         Product product = mapToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        productStockService.initialize(savedProduct);
+        inventoryValuationService.recordProduct(savedProduct);
         return mapToDto(savedProduct);
     }
 
@@ -41,6 +51,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         ProductDto productDto = mapToDto(product);
         productDto.setCurrentStockLevel(getCurrentStockLevel(id));
+        productDto.setAvailableToSell(getAvailableToSell(id));
         return productDto;
     }
 
@@ -51,6 +62,7 @@ public class ProductServiceImpl implements ProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with SKU: " + sku));
         ProductDto productDto = mapToDto(product);
         productDto.setCurrentStockLevel(getCurrentStockLevel(product.getId()));
+        productDto.setAvailableToSell(getAvailableToSell(product.getId()));
         return productDto;
     }
 
@@ -94,6 +106,12 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductDto> getProductsBelowMinStockLevel(Pageable pageable) {
+        return productRepository.findProductsBelowMinStockLevel(pageable).map(this::mapToDto);
+    }
+
     @Override
     @Transactional
     public ProductDto updateProduct(Long id, ProductDto productDto) {
@@ -130,6 +148,7 @@ public class ProductServiceImpl implements ProductService {
         }
 
         Product updatedProduct = productRepository.save(product);
+        inventoryValuationService.recordProduct(updatedProduct);
         return mapToDto(updatedProduct);
     }
 
@@ -138,13 +157,30 @@ public class ProductServiceImpl implements ProductService {
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        productStockService.remove(id);
         productRepository.delete(product);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Integer getCurrentStockLevel(Long productId) {
-        return inventoryRepository.getTotalQuantityByProductId(productId);
+        return stockAvailabilityProjection.getTotalQuantity(productId);
+    }
+
+    @Override
+    public Integer getCurrentStockLevel(Long productId, Long warehouseId) {
+        return stockAvailabilityProjection.getQuantity(productId, warehouseId);
+    }
+
+    // Both terms are in-memory counters, so availability checks never touch the database
+    @Override
+    public Integer getAvailableToSell(Long productId) {
+        return Math.max(0, getCurrentStockLevel(productId) - stockReservationService.getReservedQuantity(productId));
+    }
+
+    @Override
+    public Integer getAvailableToSell(Long productId, Long warehouseId) {
+        return Math.max(0, getCurrentStockLevel(productId, warehouseId) -
+                stockReservationService.getReservedQuantity(productId, warehouseId));
     }
 
     // Helper methods for mapping between entity and DTO
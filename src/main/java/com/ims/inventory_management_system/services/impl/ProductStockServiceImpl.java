@@ -0,0 +1,100 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.ProductStockDiscrepancyDto;
+import com.ims.inventory_management_system.entities.Product;
+import com.ims.inventory_management_system.entities.ProductStock;
+import com.ims.inventory_management_system.repositories.ProductRepository;
+import com.ims.inventory_management_system.repositories.ProductStockRepository;
+import com.ims.inventory_management_system.services.ProductStockService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class ProductStockServiceImpl implements ProductStockService {
+
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private final ProductStockRepository productStockRepository;
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional
+    public void initialize(Product product) {
+        ProductStock productStock = new ProductStock();
+        productStock.setProduct(product);
+        productStock.setTotalQuantity(0);
+        productStockRepository.save(productStock);
+    }
+
+    @Override
+    @Transactional
+    public void applyDelta(Long productId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        // Single UPDATE on the product's row; only products created before the totals table existed need an insert
+        if (productStockRepository.incrementTotalQuantity(productId, delta) == 0) {
+            ProductStock productStock = new ProductStock();
+            productStock.setProduct(productRepository.getReferenceById(productId));
+            productStock.setTotalQuantity(delta);
+            productStockRepository.saveAndFlush(productStock);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Integer getTotalQuantity(Long productId) {
+        Integer totalQuantity = productStockRepository.findTotalQuantityByProductId(productId);
+        return totalQuantity != null ? totalQuantity : 0;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> getTotalQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> totals = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return totals;
+        }
+        // Chunk the IN list so large listings stay under the driver's bind parameter limit
+        List<Long> ids = List.copyOf(productIds);
+        for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, ids.size()));
+            for (Object[] row : productStockRepository.findTotalQuantitiesByProductIds(chunk)) {
+                totals.put((Long) row[0], (Integer) row[1]);
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    @Transactional
+    public void remove(Long productId) {
+        productStockRepository.deleteByProductId(productId);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        productStockRepository.deleteAllInBulk();
+        return productStockRepository.rebuildFromInventories();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductStockDiscrepancyDto> verify() {
+        return productStockRepository.findDiscrepancies().stream()
+                .map(row -> new ProductStockDiscrepancyDto(
+                        ((Number) row[0]).longValue(),
+                        row[1] != null ? ((Number) row[1]).intValue() : null,
+                        ((Number) row[2]).intValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -8,6 +8,7 @@ import com.ims.inventory_management_system.entities.*;
 import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
 import com.ims.inventory_management_system.repositories.*;
 import com.ims.inventory_management_system.repositories.*;
+import com.ims.inventory_management_system.services.AvailableToPromiseService;
 import com.ims.inventory_management_system.services.InventoryService;
 import com.ims.inventory_management_system.services.PurchaseOrderService;
 import lombok.RequiredArgsConstructor;
@@ -31,6 +32,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
     private final UserRepository userRepository;
     private final WarehouseRepository warehouseRepository;
     private final InventoryService inventoryService;
+    private final AvailableToPromiseService availableToPromiseService;
 
     @Override
     @Transactional
@@ -101,6 +103,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         savedPO.setTotalAmount(totalAmount);
         savedPO.setItems(items);
         savedPO = purchaseOrderRepository.save(savedPO);
+        availableToPromiseService.recordPurchaseOrder(savedPO);
         
         return mapToDto(savedPO);
     }
@@ -253,7 +256,9 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
             }
         }
         
-        return mapToDto(purchaseOrderRepository.save(purchaseOrder));
+        PurchaseOrder savedPO = purchaseOrderRepository.save(purchaseOrder);
+        availableToPromiseService.recordPurchaseOrder(savedPO);
+        return mapToDto(savedPO);
     }
 
     @Override
@@ -308,6 +313,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
             inventoryDto.setQuantity(receivedItemDto.getReceivedQuantity());
             inventoryDto.setBatchNumber(receivedItemDto.getBatchNumber());
             inventoryDto.setExpiryDate(receivedItemDto.getExpiryDate());
+            inventoryDto.setUnitCost(poItem.getUnitPrice());
             
             inventoryService.addInventory(inventoryDto);
         }
@@ -321,6 +327,7 @@ public class PurchaseOrderServiceImpl implements PurchaseOrderService {
         }
         
         purchaseOrderRepository.save(purchaseOrder);
+        availableToPromiseService.recordPurchaseOrder(purchaseOrder);
     }
 
     @Override
@@ -0,0 +1,178 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.StockProjectionStatsDto;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class StockAvailabilityProjectionImpl implements StockAvailabilityProjection, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(StockAvailabilityProjectionImpl.class);
+
+    // Committed changes are applied ahead of other after-completion callbacks, so a decrement's reservation claim is
+    // only given back once on-hand stock already reflects it
+    static final int SYNCHRONIZATION_ORDER = Ordered.LOWEST_PRECEDENCE - 10;
+
+    private final InventoryRepository inventoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongIntHashMap productQuantities = new LongIntHashMap(1024);
+    // Keyed by productId << 32 | warehouseId
+    private final LongIntHashMap productWarehouseQuantities = new LongIntHashMap(1024);
+
+    private final AtomicLong appliedChanges = new AtomicLong();
+    private volatile long loadMillis;
+
+    // Runs once every singleton is ready (so the in-memory engine has recovered) and before the web server accepts requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        long startedAt = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<Object[]> rows = inventoryRepository.streamQuantitiesByProductAndWarehouse()) {
+                    rows.forEach(row -> apply(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                            ((Number) row[2]).intValue()));
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Stock availability projection loaded {} product/warehouse pairs in {} ms",
+                productWarehouseQuantities.size(), loadMillis);
+    }
+
+    @Override
+    public int getTotalQuantity(long productId) {
+        lock.readLock().lock();
+        try {
+            return productQuantities.get(productId, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int getQuantity(long productId, long warehouseId) {
+        lock.readLock().lock();
+        try {
+            return productWarehouseQuantities.get(pairKey(productId, warehouseId), 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Inside a transaction the change is held back until commit, so readers never see work that may roll back
+    @Override
+    public void recordChange(long productId, long warehouseId, int quantityChange) {
+        if (quantityChange == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            applyCommitted(List.of(new long[]{productId, warehouseId, quantityChange}));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(new long[]{productId, warehouseId, quantityChange});
+    }
+
+    @Override
+    public StockProjectionStatsDto getStats() {
+        lock.readLock().lock();
+        try {
+            return new StockProjectionStatsDto(
+                    productQuantities.size(),
+                    productWarehouseQuantities.size(),
+                    productQuantities.footprintBytes() + productWarehouseQuantities.footprintBytes(),
+                    loadMillis,
+                    appliedChanges.get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Count of committed changes applied so far, so it moves whenever a quantity does
+    @Override
+    public long getVersion() {
+        return appliedChanges.get();
+    }
+
+    // Copy of the per-pair quantities, keyed by productId << 32 | warehouseId
+    @Override
+    public LongIntHashMap snapshotQuantities() {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap copy = new LongIntHashMap(productWarehouseQuantities.size());
+            productWarehouseQuantities.forEach(copy::put);
+            return copy;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void applyCommitted(List<long[]> changes) {
+        lock.writeLock().lock();
+        try {
+            for (long[] change : changes) {
+                apply(change[0], change[1], (int) change[2]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        appliedChanges.addAndGet(changes.size());
+    }
+
+    private void apply(long productId, long warehouseId, int quantityChange) {
+        productQuantities.addTo(productId, quantityChange);
+        productWarehouseQuantities.addTo(pairKey(productId, warehouseId), quantityChange);
+    }
+
+    private static long pairKey(long productId, long warehouseId) {
+        if (productId <= 0 || productId > Integer.MAX_VALUE || warehouseId <= 0 || warehouseId > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("Ids out of range for the stock projection: product " + productId +
+                    ", warehouse " + warehouseId);
+        }
+        return productId << 32 | warehouseId;
+    }
+
+    private class PendingChanges implements TransactionSynchronization {
+        private final List<long[]> changes = new ArrayList<>();
+
+        @Override
+        public int getOrder() {
+            return SYNCHRONIZATION_ORDER;
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StockAvailabilityProjectionImpl.this);
+            if (status == STATUS_COMMITTED) {
+                applyCommitted(changes);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.StockLevelDto;
+import com.ims.inventory_management_system.dto.StockLevelHistoryDto;
+import com.ims.inventory_management_system.dto.StockLevelPointDto;
+import com.ims.inventory_management_system.dto.StockSnapshotResultDto;
+import com.ims.inventory_management_system.entities.StockLevelHistory;
+import com.ims.inventory_management_system.repositories.StockLevelHistoryRepository;
+import com.ims.inventory_management_system.repositories.StockLevelHistoryRepositoryCustom;
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockLevelHistoryService;
+import com.ims.inventory_management_system.util.LongIntHashMap;
+import com.ims.inventory_management_system.util.StockLevelCodec;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@RequiredArgsConstructor
+public class StockLevelHistoryServiceImpl implements StockLevelHistoryService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(StockLevelHistoryServiceImpl.class);
+
+    private static final int NO_SLOT = -1;
+
+    private final StockLevelHistoryRepository stockLevelHistoryRepository;
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+    private final TransactionTemplate transactionTemplate;
+
+    // Guarded by this. Last quantity written per productId << 32 | warehouseId (pairs at zero are left out), and
+    // the slot of that entry when it falls in currentMonth
+    private final LongIntHashMap lastQuantities = new LongIntHashMap(1024);
+    private final LongIntHashMap lastSlots = new LongIntHashMap(1024);
+    private LocalDate currentMonth;
+
+    // Picks up where the newest stored month left off, so the next snapshot only appends changes to it
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        LocalDate latest = stockLevelHistoryRepository.findLatestPeriodStart();
+        if (latest == null) {
+            return;
+        }
+        for (StockLevelHistory history : stockLevelHistoryRepository.findByPeriodStart(latest)) {
+            long key = pairKey(history.getProductId(), history.getWarehouseId());
+            StockLevelCodec.decode(history.getData(), (slot, quantity) -> {
+                lastSlots.put(key, slot);
+                if (quantity != 0) {
+                    lastQuantities.put(key, quantity);
+                } else {
+                    lastQuantities.remove(key);
+                }
+            });
+        }
+        currentMonth = latest;
+        logger.info("Stock level history resumes {} with {} series", latest, lastSlots.size());
+    }
+
+    // The first snapshot of a month writes every pair that holds stock or did at the end of the previous month, so
+    // each month can be read on its own; later snapshots append only the pairs whose quantity changed
+    @Override
+    public synchronized StockSnapshotResultDto snapshot() {
+        long startedAt = System.nanoTime();
+        LocalDateTime snapshotAt = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDate month = snapshotAt.toLocalDate().withDayOfMonth(1);
+        int slot = (int) ChronoUnit.HOURS.between(month.atStartOfDay(), snapshotAt);
+        boolean keyframe = !month.equals(currentMonth);
+
+        LongIntHashMap quantities = stockAvailabilityProjection.snapshotQuantities();
+        // Pairs that held stock but are no longer in the projection have gone to zero
+        lastQuantities.forEach((key, quantity) -> {
+            if (!quantities.containsKey(key)) {
+                quantities.put(key, 0);
+            }
+        });
+
+        List<StockLevelHistoryRepositoryCustom.Append> appends = new ArrayList<>();
+        List<long[]> written = new ArrayList<>();
+        quantities.forEach((key, quantity) -> {
+            int last = lastQuantities.get(key, 0);
+            if (keyframe ? quantity == 0 && last == 0 : quantity == last) {
+                return;
+            }
+            int previousSlot = keyframe ? NO_SLOT : lastSlots.get(key, NO_SLOT);
+            int previousQuantity = previousSlot == NO_SLOT ? 0 : last;
+            appends.add(new StockLevelHistoryRepositoryCustom.Append(key >>> 32, key & 0xFFFFFFFFL, month,
+                    StockLevelCodec.encodeEntry(Math.max(0, slot - previousSlot), quantity - previousQuantity),
+                    previousSlot == NO_SLOT));
+            written.add(new long[]{key, quantity});
+        });
+        transactionTemplate.executeWithoutResult(status -> stockLevelHistoryRepository.appendAll(appends));
+
+        if (keyframe) {
+            lastSlots.clear();
+            currentMonth = month;
+        }
+        for (long[] entry : written) {
+            lastSlots.put(entry[0], slot);
+            if (entry[1] != 0) {
+                lastQuantities.put(entry[0], (int) entry[1]);
+            } else {
+                lastQuantities.remove(entry[0]);
+            }
+        }
+
+        long snapshotMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        logger.info("Stock level snapshot at {} wrote {} of {} pairs{} in {} ms", snapshotAt, appends.size(),
+                quantities.size(), keyframe ? " (monthly keyframe)" : "", snapshotMillis);
+        return new StockSnapshotResultDto(snapshotAt, keyframe, quantities.size(), appends.size(), snapshotMillis);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockLevelHistoryDto> getProductHistory(Long productId, Long warehouseId, LocalDateTime from,
+                                                        LocalDateTime to) {
+        LocalDateTime until = to != null ? to : LocalDateTime.now();
+        LocalDateTime since = from != null ? from : until.minusDays(30);
+        if (since.isAfter(until)) {
+            throw new IllegalArgumentException("History range start must not be after its end");
+        }
+        // The level at the start of the range may come from an earlier month, before that month's keyframe
+        LocalDate latestBefore = stockLevelHistoryRepository.findLatestPeriodStartForProduct(productId,
+                since.toLocalDate().withDayOfMonth(1));
+        LocalDate firstMonth = latestBefore != null ? latestBefore.minusMonths(1) : since.toLocalDate().withDayOfMonth(1);
+        LocalDate lastMonth = until.toLocalDate().withDayOfMonth(1);
+        List<StockLevelHistory> rows = warehouseId != null
+                ? stockLevelHistoryRepository.findByProductIdAndWarehouseIdAndPeriodStartBetween(productId, warehouseId,
+                        firstMonth, lastMonth)
+                : stockLevelHistoryRepository.findByProductIdAndPeriodStartBetween(productId, firstMonth, lastMonth);
+
+        Map<Long, List<StockLevelHistory>> byWarehouse = new TreeMap<>();
+        for (StockLevelHistory row : rows) {
+            byWarehouse.computeIfAbsent(row.getWarehouseId(), id -> new ArrayList<>()).add(row);
+        }
+        List<StockLevelHistoryDto> series = new ArrayList<>(byWarehouse.size());
+        byWarehouse.forEach((id, months) -> {
+            months.sort(Comparator.comparing(StockLevelHistory::getPeriodStart));
+            int[] startQuantity = {0};
+            List<StockLevelPointDto> points = new ArrayList<>();
+            points.add(null); // Level at the start of the range, filled in below
+            for (StockLevelHistory month : months) {
+                LocalDateTime periodStart = month.getPeriodStart().atStartOfDay();
+                StockLevelCodec.decode(month.getData(), (slot, quantity) -> {
+                    LocalDateTime timestamp = periodStart.plusHours(slot);
+                    if (!timestamp.isAfter(since)) {
+                        startQuantity[0] = quantity;
+                    } else if (!timestamp.isAfter(until)) {
+                        StockLevelPointDto previous = points.get(points.size() - 1);
+                        // Snapshots within the same hour share a slot; the later one wins
+                        if (previous != null && previous.getTimestamp().equals(timestamp)) {
+                            points.remove(points.size() - 1);
+                            previous = points.get(points.size() - 1);
+                        }
+                        int previousQuantity = previous != null ? previous.getQuantity() : startQuantity[0];
+                        if (quantity != previousQuantity) {
+                            points.add(new StockLevelPointDto(timestamp, quantity));
+                        }
+                    }
+                });
+            }
+            points.set(0, new StockLevelPointDto(since, startQuantity[0]));
+            series.add(new StockLevelHistoryDto(productId, id, points));
+        });
+        return series;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockLevelDto> getWarehouseStockAsOf(Long warehouseId, LocalDateTime asOf) {
+        LocalDateTime at = asOf != null ? asOf : LocalDateTime.now();
+        LocalDate latest = stockLevelHistoryRepository.findLatestPeriodStartForWarehouse(warehouseId,
+                at.toLocalDate().withDayOfMonth(1));
+        if (latest == null) {
+            return new ArrayList<>();
+        }
+        // Until the month's keyframe, a pair's level is the last one of the month before
+        List<StockLevelHistory> rows = stockLevelHistoryRepository.findByWarehouseIdAndPeriodStartIn(warehouseId,
+                List.of(latest.minusMonths(1), latest));
+        rows.sort(Comparator.comparing(StockLevelHistory::getPeriodStart));
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockLevelHistory row : rows) {
+            LocalDateTime periodStart = row.getPeriodStart().atStartOfDay();
+            StockLevelCodec.decode(row.getData(), (slot, quantity) -> {
+                if (!periodStart.plusHours(slot).isAfter(at)) {
+                    quantities.put(row.getProductId(), quantity);
+                }
+            });
+        }
+        List<StockLevelDto> levels = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            if (quantity != 0) {
+                levels.add(new StockLevelDto(productId, quantity));
+            }
+        });
+        return levels;
+    }
+
+    private static long pairKey(long productId, long warehouseId) {
+        return productId << 32 | warehouseId;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.services.StockAvailabilityProjection;
+import com.ims.inventory_management_system.services.StockReservationLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Units spoken for per product and warehouse: reservation holds, plus the units of every decrement still in flight.
+// Reserving and decrementing both claim through the same compare-and-set against on-hand stock, so neither can take
+// units the other already counted on
+@Service
+@RequiredArgsConstructor
+public class StockReservationLedgerImpl implements StockReservationLedger {
+
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+
+    // Keyed by productId << 32 | warehouseId, like the stock projection
+    private final ConcurrentHashMap<Long, AtomicInteger> reservedByProductWarehouse = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, AtomicInteger> reservedByProduct = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryClaim(long productId, long warehouseId, int quantity) {
+        return claim(productId, warehouseId, quantity, false) == quantity;
+    }
+
+    // Claims as much of the quantity as is unreserved and returns how much that was
+    @Override
+    public int claimUpTo(long productId, long warehouseId, int quantity) {
+        return claim(productId, warehouseId, quantity, true);
+    }
+
+    // Counts units promised before a restart without checking them against on-hand stock
+    @Override
+    public void restore(long productId, long warehouseId, int quantity) {
+        add(productId, warehouseId, quantity);
+    }
+
+    @Override
+    public void release(long productId, long warehouseId, int quantity) {
+        add(productId, warehouseId, -quantity);
+    }
+
+    // A decrement's claim has to outlive its transaction: the projection only drops the units once it commits, and
+    // it applies that before this runs (see StockAvailabilityProjectionImpl.PendingChanges)
+    @Override
+    public void releaseAfterCompletion(long productId, long warehouseId, int quantity) {
+        if (quantity == 0) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(productId, warehouseId, quantity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return StockAvailabilityProjectionImpl.SYNCHRONIZATION_ORDER + 1;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                release(productId, warehouseId, quantity);
+            }
+        });
+    }
+
+    @Override
+    public int getReservedQuantity(long productId) {
+        AtomicInteger reserved = reservedByProduct.get(productId);
+        return reserved != null ? reserved.get() : 0;
+    }
+
+    @Override
+    public int getReservedQuantity(long productId, long warehouseId) {
+        AtomicInteger reserved = reservedByProductWarehouse.get(pairKey(productId, warehouseId));
+        return reserved != null ? reserved.get() : 0;
+    }
+
+    @Override
+    public int getUnreservedQuantity(long productId, long warehouseId) {
+        return Math.max(stockAvailabilityProjection.getQuantity(productId, warehouseId) -
+                getReservedQuantity(productId, warehouseId), 0);
+    }
+
+    @Override
+    public long getReservedUnits() {
+        return reservedByProduct.values().stream().mapToLong(AtomicInteger::get).sum();
+    }
+
+    // Compare-and-set against the on-hand quantity in the projection: no lock and no database read
+    private int claim(long productId, long warehouseId, int quantity, boolean partial) {
+        AtomicInteger reserved = reservedByProductWarehouse.computeIfAbsent(pairKey(productId, warehouseId),
+                key -> new AtomicInteger());
+        int claimed;
+        while (true) {
+            int currentlyReserved = reserved.get();
+            int available = Math.max(stockAvailabilityProjection.getQuantity(productId, warehouseId) - currentlyReserved, 0);
+            claimed = Math.min(quantity, available);
+            if (claimed < quantity && !partial) {
+                return 0;
+            }
+            if (claimed == 0 || reserved.compareAndSet(currentlyReserved, currentlyReserved + claimed)) {
+                break;
+            }
+        }
+        reservedByProduct.computeIfAbsent(productId, key -> new AtomicInteger()).addAndGet(claimed);
+        return claimed;
+    }
+
+    private void add(long productId, long warehouseId, int quantity) {
+        reservedByProductWarehouse.computeIfAbsent(pairKey(productId, warehouseId), key -> new AtomicInteger())
+                .addAndGet(quantity);
+        reservedByProduct.computeIfAbsent(productId, key -> new AtomicInteger()).addAndGet(quantity);
+    }
+
+    private static long pairKey(long productId, long warehouseId) {
+        return productId << 32 | warehouseId;
+    }
+}
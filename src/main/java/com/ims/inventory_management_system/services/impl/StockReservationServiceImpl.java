@@ -0,0 +1,354 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.StockReservationDto;
+import com.ims.inventory_management_system.dto.StockReservationRequest;
+import com.ims.inventory_management_system.dto.StockReservationStatsDto;
+import com.ims.inventory_management_system.entities.StockReservation;
+import com.ims.inventory_management_system.exceptions.ConflictException;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.repositories.StockReservationRepository;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.StockReservationLedger;
+import com.ims.inventory_management_system.services.StockReservationService;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService, SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationServiceImpl.class);
+
+    private static final int STATUS_UPDATE_CHUNK = 1000;
+
+    private final StockReservationRepository stockReservationRepository;
+    private final StockReservationLedger stockReservationLedger;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${inventory.reservations.max-ttl-seconds:86400}")
+    private long maxTtlSeconds;
+
+    @Value("${inventory.reservations.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${inventory.reservations.wheel-slots:512}")
+    private int wheelSlots;
+
+    // Holds still counted against availability. Confirm, release and expiry all race to remove a hold from here;
+    // only the caller that removes it gives its quantity back, so a hold is never released twice
+    private final ConcurrentHashMap<Long, Hold> activeHolds = new ConcurrentHashMap<>();
+
+    // Hashed timer wheel: slot (deadline tick % slots) holds the ids of holds due in that tick or a later revolution
+    private List<ConcurrentLinkedQueue<Long>> wheel;
+    private volatile long processedTick;
+    private Thread ticker;
+    private volatile boolean running;
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong confirmed = new AtomicLong();
+    private final AtomicLong released = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    // Rebuilds the counters from holds persisted before a restart, expiring the ones that lapsed while down
+    @Override
+    public void afterSingletonsInstantiated() {
+        wheel = new ArrayList<>(wheelSlots);
+        for (int slot = 0; slot < wheelSlots; slot++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        processedTick = System.currentTimeMillis() / tickMs - 1;
+
+        long now = System.currentTimeMillis();
+        List<Long> lapsed = new ArrayList<>();
+        for (StockReservation reservation : stockReservationRepository.findByStatus(StockReservation.Status.HELD)) {
+            long expiresAtMillis = toEpochMillis(reservation.getExpiresAt());
+            if (expiresAtMillis <= now) {
+                lapsed.add(reservation.getId());
+                continue;
+            }
+            Hold hold = new Hold(reservation.getProductId(), reservation.getWarehouseId(), reservation.getQuantity(),
+                    expiresAtMillis, reservation.getUsername());
+            stockReservationLedger.restore(hold.productId(), hold.warehouseId(), hold.quantity());
+            activeHolds.put(reservation.getId(), hold);
+            schedule(reservation.getId(), expiresAtMillis);
+        }
+        updateStatus(lapsed, StockReservation.Status.EXPIRED);
+        logger.info("Restored {} stock reservations; expired {} that lapsed while stopped", activeHolds.size(), lapsed.size());
+
+        running = true;
+        ticker = new Thread(this::run, "stock-reservation-expiry");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Override
+    public StockReservationDto reserve(StockReservationRequest request) {
+        if (request.getProductId() == null || request.getWarehouseId() == null) {
+            throw new IllegalArgumentException("Product and warehouse are required for a reservation");
+        }
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Reservation quantity must be positive");
+        }
+        long ttlSeconds = request.getTtlSeconds() != null ? request.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds <= 0 || ttlSeconds > maxTtlSeconds) {
+            throw new IllegalArgumentException("Reservation TTL must be between 1 and " + maxTtlSeconds + " seconds");
+        }
+
+        long productId = request.getProductId();
+        long warehouseId = request.getWarehouseId();
+        int quantity = request.getQuantity();
+        if (!stockReservationLedger.tryClaim(productId, warehouseId, quantity)) {
+            throw new InsufficientInventoryException("Cannot reserve " + quantity + " of product " + productId +
+                    " in warehouse " + warehouseId + ". Available: " +
+                    stockReservationLedger.getUnreservedQuantity(productId, warehouseId));
+        }
+
+        String username = currentUsername();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(ttlSeconds).truncatedTo(ChronoUnit.MICROS);
+        Hold hold = new Hold(productId, warehouseId, quantity, toEpochMillis(expiresAt), username);
+        StockReservation reservation;
+        try {
+            reservation = stockReservationRepository.save(StockReservation.builder()
+                    .productId(productId)
+                    .warehouseId(warehouseId)
+                    .quantity(quantity)
+                    .reference(request.getReference())
+                    .status(StockReservation.Status.HELD)
+                    .expiresAt(expiresAt)
+                    .username(username)
+                    .build());
+        } catch (RuntimeException e) {
+            release(hold);
+            throw e;
+        }
+        activeHolds.put(reservation.getId(), hold);
+        schedule(reservation.getId(), hold.expiresAtMillis());
+        created.incrementAndGet();
+        return mapToDto(reservation);
+    }
+
+    // Picks the held quantity first-expired-first-out; the hold keeps counting until the stock is actually taken, and
+    // is the one decrement that draws on reserved units instead of claiming unreserved ones
+    @Override
+    public StockReservationDto confirm(Long id) {
+        Hold hold = takeHold(id);
+        try {
+            // The status write commits or rolls back with the allocation, so picked stock never leaves a HELD row behind
+            transactionTemplate.executeWithoutResult(status -> {
+                if (stockReservationRepository.updateStatus(List.of(id), StockReservation.Status.HELD,
+                        StockReservation.Status.CONFIRMED) == 0) {
+                    throw new ConflictException("Reservation " + id + " is no longer held");
+                }
+                inventoryService.allocateReservedInventory(new InventoryAllocationRequest(hold.productId(),
+                        hold.warehouseId(), hold.quantity(), "Reservation " + id, false));
+            });
+        } catch (ConflictException e) {
+            release(hold);
+            throw e;
+        } catch (RuntimeException e) {
+            // Nothing was picked: put the hold back so it can be retried, released or left to expire
+            activeHolds.put(id, hold);
+            schedule(id, hold.expiresAtMillis());
+            throw e;
+        }
+        // Given back only after commit; until then the picked units are counted as held as well as gone
+        release(hold);
+        confirmed.incrementAndGet();
+        return getReservation(id);
+    }
+
+    @Override
+    public StockReservationDto release(Long id) {
+        Hold hold = activeHolds.get(id);
+        if (hold != null && !mayRelease(hold)) {
+            throw new AccessDeniedException("Reservation " + id + " belongs to another user");
+        }
+        hold = takeHold(id);
+        release(hold);
+        updateStatus(List.of(id), StockReservation.Status.RELEASED);
+        released.incrementAndGet();
+        return getReservation(id);
+    }
+
+    @Override
+    public StockReservationDto getReservation(Long id) {
+        return stockReservationRepository.findById(id)
+                .map(this::mapToDto)
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found with id: " + id));
+    }
+
+    @Override
+    public int getReservedQuantity(long productId) {
+        return stockReservationLedger.getReservedQuantity(productId);
+    }
+
+    @Override
+    public int getReservedQuantity(long productId, long warehouseId) {
+        return stockReservationLedger.getReservedQuantity(productId, warehouseId);
+    }
+
+    @Override
+    public StockReservationStatsDto getStats() {
+        long reservedUnits = stockReservationLedger.getReservedUnits();
+        return new StockReservationStatsDto(activeHolds.size(), reservedUnits, created.get(), confirmed.get(),
+                released.get(), expired.get());
+    }
+
+    private Hold takeHold(Long id) {
+        Hold hold = activeHolds.get(id);
+        if (hold == null || !activeHolds.remove(id, hold)) {
+            throw new ResourceNotFoundException("Active reservation not found with id: " + id);
+        }
+        return hold;
+    }
+
+    private void release(Hold hold) {
+        stockReservationLedger.release(hold.productId(), hold.warehouseId(), hold.quantity());
+    }
+
+    // A hold can be given up by whoever placed it, or by an administrator or manager. Internal callers run without a
+    // security context and may release any hold
+    private static boolean mayRelease(Hold hold) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return true;
+        }
+        if (authentication.getName().equals(hold.username())) {
+            return true;
+        }
+        return authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(authority -> authority.equals("ROLE_ADMIN") || authority.equals("ROLE_MANAGER"));
+    }
+
+    private void schedule(long id, long expiresAtMillis) {
+        // A deadline in a tick that has already been processed goes into the next one
+        long tick = Math.max(expiresAtMillis / tickMs, processedTick + 1);
+        wheel.get((int) (tick % wheelSlots)).add(id);
+        // The ticker may have taken that tick between the read and the add; its deadline is then past, so expire the
+        // slot here instead of leaving the hold for a whole revolution
+        if (tick <= processedTick) {
+            try {
+                expireTick(tick, System.currentTimeMillis());
+            } catch (RuntimeException e) {
+                logger.error("Reservation expiry tick failed", e);
+            }
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                long now = System.currentTimeMillis();
+                long currentTick = now / tickMs;
+                // A tick is processed once it has fully elapsed, so every deadline in it is already past. It is marked
+                // before its slot is drained, so a concurrent schedule either lands in the drain or sees the tick as taken
+                for (long tick = processedTick + 1; tick < currentTick; tick++) {
+                    processedTick = tick;
+                    expireTick(tick, now);
+                }
+                Thread.sleep(tickMs - now % tickMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Reservation expiry tick failed", e);
+            }
+        }
+    }
+
+    private void expireTick(long tick, long now) {
+        ConcurrentLinkedQueue<Long> slot = wheel.get((int) (tick % wheelSlots));
+        List<Long> lapsed = new ArrayList<>();
+        for (int remaining = slot.size(); remaining > 0; remaining--) {
+            Long id = slot.poll();
+            if (id == null) {
+                break;
+            }
+            Hold hold = activeHolds.get(id);
+            if (hold == null) {
+                continue; // Already confirmed or released
+            }
+            if (hold.expiresAtMillis() > now) {
+                slot.add(id); // Due in a later revolution
+                continue;
+            }
+            if (activeHolds.remove(id, hold)) {
+                release(hold);
+                lapsed.add(id);
+            }
+        }
+        if (!lapsed.isEmpty()) {
+            updateStatus(lapsed, StockReservation.Status.EXPIRED);
+            expired.addAndGet(lapsed.size());
+        }
+    }
+
+    // Counters are already released in memory; a failed update leaves rows HELD, and they are expired on the next start
+    private void updateStatus(List<Long> ids, StockReservation.Status status) {
+        for (int from = 0; from < ids.size(); from += STATUS_UPDATE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + STATUS_UPDATE_CHUNK, ids.size()));
+            transactionTemplate.executeWithoutResult(transactionStatus ->
+                    stockReservationRepository.updateStatus(chunk, StockReservation.Status.HELD, status));
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+
+    private StockReservationDto mapToDto(StockReservation reservation) {
+        StockReservationDto reservationDto = new StockReservationDto();
+        reservationDto.setId(reservation.getId());
+        reservationDto.setProductId(reservation.getProductId());
+        reservationDto.setWarehouseId(reservation.getWarehouseId());
+        reservationDto.setQuantity(reservation.getQuantity());
+        reservationDto.setReference(reservation.getReference());
+        reservationDto.setStatus(reservation.getStatus());
+        reservationDto.setExpiresAt(reservation.getExpiresAt());
+        reservationDto.setUsername(reservation.getUsername());
+        return reservationDto;
+    }
+
+    private record Hold(long productId, long warehouseId, int quantity, long expiresAtMillis, String username) {
+    }
+}
@@ -4,6 +4,7 @@ import com.ims.inventory_management_system.dto.WarehouseDto;
 import com.ims.inventory_management_system.entities.Warehouse;
 import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
 import com.ims.inventory_management_system.repositories.WarehouseRepository;
+import com.ims.inventory_management_system.services.InventoryMatrixService;
 import com.ims.inventory_management_system.services.WarehouseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,12 +18,14 @@ import java.util.stream.Collectors;
 public class WarehouseServiceImpl implements WarehouseService {
 
     private final WarehouseRepository warehouseRepository;
+    private final InventoryMatrixService inventoryMatrixService;
 
     @Override
     @Transactional
     public WarehouseDto createWarehouse(WarehouseDto warehouseDto) {
         Warehouse warehouse = mapToEntity(warehouseDto);
         Warehouse savedWarehouse = warehouseRepository.save(warehouse);
+        inventoryMatrixService.recordWarehouseChange();
         return mapToDto(savedWarehouse);
     }
 
@@ -67,6 +70,7 @@ public class WarehouseServiceImpl implements WarehouseService {
         warehouse.setActive(warehouseDto.getActive());
         
         Warehouse updatedWarehouse = warehouseRepository.save(warehouse);
+        inventoryMatrixService.recordWarehouseChange();
         return mapToDto(updatedWarehouse);
     }
 
@@ -84,6 +88,7 @@ public class WarehouseServiceImpl implements WarehouseService {
         } else {
             warehouseRepository.delete(warehouse);
         }
+        inventoryMatrixService.recordWarehouseChange();
     }
     
     // Helper methods for mapping between entity and DTO
@@ -0,0 +1,157 @@
+package com.ims.inventory_management_system.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Approximate access counts per key over a sliding window, with the heaviest keys kept as candidates for a top-K
+// listing. The window is a ring of count-min sketches, one per time slot; a slot is cleared by the first writer that
+// finds it holding an expired slot epoch. Counts are never low, and are high by roughly e / width of the window's events
+// at most. Recording is lock-free: a few atomic increments, plus a concurrent set lookup for keys heavy enough to matter.
+public class HotKeyTracker {
+
+    private static final int DEPTH = 4;
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+    private final int width;
+    private final int mask;
+    private final int slots;
+    private final long slotMillis;
+    private final int capacity;
+    private final AtomicLongArray[] counts;
+    private final AtomicLongArray slotEpochs;
+    // Keys that may be in the top list; pruned back to capacity once they reach twice that
+    private final Set<Long> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock pruneLock = new ReentrantLock();
+    // Smallest window count among the candidates kept by the last prune, and the slot epoch it was taken at; it lapses
+    // after one window so a past burst cannot keep new keys out
+    private volatile long admissionThreshold;
+    private volatile long admissionEpoch;
+
+    public HotKeyTracker(int width, int slots, long slotMillis, int capacity) {
+        if (width <= 0 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Sketch width must be a power of two");
+        }
+        if (slots <= 0 || slotMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Slots, slot length and capacity must be positive");
+        }
+        this.width = width;
+        this.mask = width - 1;
+        this.slots = slots;
+        this.slotMillis = slotMillis;
+        this.capacity = capacity;
+        this.counts = new AtomicLongArray[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            counts[slot] = new AtomicLongArray(DEPTH * width);
+        }
+        this.slotEpochs = new AtomicLongArray(slots);
+    }
+
+    public void record(long key) {
+        record(key, System.currentTimeMillis());
+    }
+
+    public void record(long key, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        int slot = (int) (epoch % slots);
+        long slotEpoch = slotEpochs.get(slot);
+        if (slotEpoch < epoch && slotEpochs.compareAndSet(slot, slotEpoch, epoch)) {
+            // Increments racing with the clear may be lost; the counts are estimates either way
+            AtomicLongArray cells = counts[slot];
+            for (int i = 0; i < cells.length(); i++) {
+                cells.set(i, 0);
+            }
+        }
+
+        AtomicLongArray cells = counts[slot];
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, cells.incrementAndGet(row * width + index(key, row)));
+        }
+        if (candidates.contains(key)) {
+            return;
+        }
+        // Once the list is full a key is admitted only when its window count beats the weakest key kept; the count in
+        // this slot against that key's per-slot average rules most keys out before the full window is read
+        long threshold = epoch - admissionEpoch < slots ? admissionThreshold : 0;
+        if (threshold > 0 && candidates.size() >= capacity &&
+                (estimate < threshold / slots || estimate(key, nowMillis) <= threshold)) {
+            return;
+        }
+        candidates.add(key);
+        if (candidates.size() > 2 * capacity && pruneLock.tryLock()) {
+            try {
+                prune(nowMillis);
+            } finally {
+                pruneLock.unlock();
+            }
+        }
+    }
+
+    public long estimate(long key, long nowMillis) {
+        long epoch = nowMillis / slotMillis;
+        long total = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            long slotEpoch = slotEpochs.get(slot);
+            if (slotEpoch > epoch - slots && slotEpoch <= epoch) {
+                AtomicLongArray cells = counts[slot];
+                long count = Long.MAX_VALUE;
+                for (int row = 0; row < DEPTH; row++) {
+                    count = Math.min(count, cells.get(row * width + index(key, row)));
+                }
+                total += count;
+            }
+        }
+        return total;
+    }
+
+    // Heaviest candidates by their count over the window, heaviest first; keys with no events in the window are left out
+    public List<HotKey> top(int limit, long nowMillis) {
+        List<HotKey> hotKeys = new ArrayList<>(candidates.size());
+        for (Long key : candidates) {
+            long count = estimate(key, nowMillis);
+            if (count > 0) {
+                hotKeys.add(new HotKey(key, count));
+            }
+        }
+        hotKeys.sort(Comparator.comparingLong(HotKey::count).reversed().thenComparingLong(HotKey::key));
+        return hotKeys.size() > limit ? new ArrayList<>(hotKeys.subList(0, limit)) : hotKeys;
+    }
+
+    public int candidateCount() {
+        return candidates.size();
+    }
+
+    public long footprintBytes() {
+        return (long) slots * DEPTH * width * Long.BYTES + (long) slots * Long.BYTES;
+    }
+
+    // Keys added while the ranking runs may be dropped; if they stay hot they are admitted again
+    private void prune(long nowMillis) {
+        List<HotKey> ranked = top(Integer.MAX_VALUE, nowMillis);
+        Set<Long> kept = new HashSet<>();
+        for (int i = 0; i < Math.min(capacity, ranked.size()); i++) {
+            kept.add(ranked.get(i).key());
+        }
+        candidates.retainAll(kept);
+        admissionThreshold = ranked.size() >= capacity ? ranked.get(capacity - 1).count() : 0;
+        admissionEpoch = nowMillis / slotMillis;
+    }
+
+    private int index(long key, int row) {
+        long hash = (key ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return (int) hash & mask;
+    }
+
+    public record HotKey(long key, long count) {
+    }
+}
@@ -0,0 +1,155 @@
+package com.ims.inventory_management_system.util;
+
+import java.util.Arrays;
+
+// Open-addressing long -> int map with linear probing. Keys are database ids, so 0 is reserved as the empty marker.
+public class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeThreshold;
+
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[indexOf(key)] != 0;
+    }
+
+    public int get(long key, int defaultValue) {
+        int index = indexOf(key);
+        return keys[index] != 0 ? values[index] : defaultValue;
+    }
+
+    public void put(long key, int value) {
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            keys[index] = key;
+            values[index] = value;
+            if (++size > resizeThreshold) {
+                rehash(keys.length * 2);
+            }
+        } else {
+            values[index] = value;
+        }
+    }
+
+    // Adds delta to the current value (0 when absent) and returns the result
+    public int addTo(long key, int delta) {
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            keys[index] = key;
+            values[index] = delta;
+            if (++size > resizeThreshold) {
+                rehash(keys.length * 2);
+            }
+            return delta;
+        }
+        values[index] += delta;
+        return values[index];
+    }
+
+    public boolean remove(long key) {
+        int index = indexOf(key);
+        if (keys[index] == 0) {
+            return false;
+        }
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        int hole = index;
+        int next = (hole + 1) & mask;
+        while (keys[next] != 0) {
+            int home = slot(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = 0;
+        values[hole] = 0;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(values, 0);
+        size = 0;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Bytes held by the backing arrays (object headers excluded)
+    public long footprintBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, int value);
+    }
+
+    private int indexOf(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int index = slot(key);
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) Math.ceil(expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 8);
+    }
+}
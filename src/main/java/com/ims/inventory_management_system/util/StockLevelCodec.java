@@ -0,0 +1,62 @@
+package com.ims.inventory_management_system.util;
+
+import java.io.ByteArrayOutputStream;
+
+// Stock level series as a run of (slot gap, quantity delta) entries, each a pair of unsigned LEB128 varints with the
+// delta zigzag-encoded. Series are append-only: an entry is encoded against the previous slot and quantity, starting
+// from slot -1 and quantity 0, so unchanged days cost nothing and typical changes take two to four bytes.
+public final class StockLevelCodec {
+
+    private StockLevelCodec() {
+    }
+
+    public static byte[] encodeEntry(int slotGap, int quantityDelta) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(10);
+        writeVarint(out, slotGap);
+        writeVarint(out, (quantityDelta << 1) ^ (quantityDelta >> 31));
+        return out.toByteArray();
+    }
+
+    public static void decode(byte[] data, EntryConsumer consumer) {
+        int position = 0;
+        int slot = -1;
+        int quantity = 0;
+        while (position < data.length) {
+            int value = 0;
+            int shift = 0;
+            int slotGap;
+            int zigzag;
+            byte b;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            slotGap = value;
+            value = 0;
+            shift = 0;
+            do {
+                b = data[position++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            zigzag = value;
+            slot += slotGap;
+            quantity += (zigzag >>> 1) ^ -(zigzag & 1);
+            consumer.accept(slot, quantity);
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int slot, int quantity);
+    }
+}
@@ -0,0 +1,103 @@
+package com.ims.inventory_management_system.benchmark;
+
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryAllocationStatsDto;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Concurrent FEFO picks against products holding many dated batches in one warehouse. Few products make the picks
+// contend for the same batches; the allocation stats show how often a batch was drained under a pick (conflicts) and
+// whether any lock was lost. Allocated plus remaining units must add up to what was stocked
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+class AllocationBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(AllocationBenchmarkTests.class);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Test
+    void concurrentFefoAllocations() throws Exception {
+        int products = LoadRunner.intProperty("products", 10);
+        int batches = LoadRunner.intProperty("batches", 50);
+        int batchQuantity = LoadRunner.intProperty("batch-quantity", 1_000);
+        int pickQuantity = LoadRunner.intProperty("pick-quantity", 5);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Long warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("AB-" + suffix)
+                .address("Benchmark")
+                .active(true)
+                .build()).getId();
+        List<Long> productIds = new ArrayList<>(products);
+        LocalDate today = LocalDate.now();
+        for (int product = 0; product < products; product++) {
+            Long productId = productService.createProduct(ProductDto.builder()
+                    .sku("AB-" + suffix + "-" + product)
+                    .name("Allocation benchmark " + product)
+                    .costPrice(BigDecimal.ONE)
+                    .sellingPrice(BigDecimal.TEN)
+                    .minStockLevel(0)
+                    .trackExpiryDate(true)
+                    .trackBatchNumber(true)
+                    .build()).getId();
+            productIds.add(productId);
+            for (int batch = 0; batch < batches; batch++) {
+                inventoryService.addInventory(InventoryDto.builder()
+                        .productId(productId)
+                        .warehouseId(warehouseId)
+                        .batchNumber("AB-" + batch)
+                        .expiryDate(today.plusDays(30 + batch))
+                        .quantity(batchQuantity)
+                        .build());
+            }
+        }
+
+        InventoryAllocationStatsDto before = inventoryService.getAllocationStats();
+        LoadRunner.Result result = LoadRunner.run("FEFO picks of " + pickQuantity + " units", random ->
+                inventoryService.allocateInventory(InventoryAllocationRequest.builder()
+                        .productId(productIds.get(random.nextInt(products)))
+                        .warehouseId(warehouseId)
+                        .quantity(pickQuantity)
+                        .reason("Benchmark")
+                        .allowPartial(true)
+                        .build()));
+        InventoryAllocationStatsDto after = inventoryService.getAllocationStats();
+        logger.info("{}", result);
+        long allocatedUnits = after.getAllocatedUnits() - before.getAllocatedUnits();
+        logger.info("Allocated {} units in {} picks, {} conflicts, {} lock failures, {} ms average pick",
+                allocatedUnits, after.getAllocations() - before.getAllocations(),
+                after.getConflicts() - before.getConflicts(), after.getLockFailures() - before.getLockFailures(),
+                after.getAverageAllocationMillis());
+
+        long remaining = 0;
+        for (Long productId : productIds) {
+            remaining += inventoryService.getTotalQuantityForProduct(productId);
+        }
+        assertEquals((long) products * batches * batchQuantity, allocatedUnits + remaining);
+    }
+}
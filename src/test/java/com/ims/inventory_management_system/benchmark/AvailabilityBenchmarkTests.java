@@ -0,0 +1,113 @@
+package com.ims.inventory_management_system.benchmark;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Stock for a whole order's worth of products: one POST /api/inventory/availability against one
+// GET /api/products/{id}/stock per product, both through the full MVC and security stack in-process. Each operation
+// covers the same products, so the operation rates compare directly
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+@AutoConfigureMockMvc
+class AvailabilityBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityBenchmarkTests.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Test
+    void batchLookupAgainstPerProductCalls() throws Exception {
+        int products = LoadRunner.intProperty("products", 500);
+        int warehouses = LoadRunner.intProperty("warehouses", 3);
+        int lookup = Math.min(products, LoadRunner.intProperty("lookup", 100));
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        List<Long> warehouseIds = new ArrayList<>(warehouses);
+        for (int warehouse = 0; warehouse < warehouses; warehouse++) {
+            warehouseIds.add(warehouseService.createWarehouse(WarehouseDto.builder()
+                    .name("AV-" + suffix + "-" + warehouse)
+                    .address("Benchmark")
+                    .active(true)
+                    .build()).getId());
+        }
+        List<Long> productIds = new ArrayList<>(products);
+        for (int product = 0; product < products; product++) {
+            Long productId = productService.createProduct(ProductDto.builder()
+                    .sku("AV-" + suffix + "-" + product)
+                    .name("Availability benchmark " + product)
+                    .costPrice(BigDecimal.ONE)
+                    .sellingPrice(BigDecimal.TEN)
+                    .minStockLevel(0)
+                    .trackExpiryDate(false)
+                    .trackBatchNumber(false)
+                    .build()).getId();
+            productIds.add(productId);
+            for (Long warehouseId : warehouseIds) {
+                inventoryService.addInventory(InventoryDto.builder()
+                        .productId(productId)
+                        .warehouseId(warehouseId)
+                        .quantity(100)
+                        .build());
+            }
+        }
+
+        LoadRunner.Result batch = LoadRunner.run("availability of " + lookup + " products in one call", random -> {
+            int from = random.nextInt(products - lookup + 1);
+            String ids = productIds.subList(from, from + lookup).stream()
+                    .map(String::valueOf)
+                    .collect(Collectors.joining(","));
+            mockMvc.perform(post("/api/inventory/availability")
+                            .with(user("benchmark").roles("ADMIN"))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"productIds\": [" + ids + "]}"))
+                    .andExpect(status().isOk());
+        });
+        LoadRunner.Result perProduct = LoadRunner.run("stock of " + lookup + " products one call each", random -> {
+            int from = random.nextInt(products - lookup + 1);
+            for (Long productId : productIds.subList(from, from + lookup)) {
+                mockMvc.perform(get("/api/products/{id}/stock", productId)
+                                .with(user("benchmark").roles("ADMIN")))
+                        .andExpect(status().isOk());
+            }
+        });
+        logger.info("{}", batch);
+        logger.info("{}", perProduct);
+
+        assertEquals(0, batch.failed());
+        assertEquals(0, perProduct.failed());
+    }
+}
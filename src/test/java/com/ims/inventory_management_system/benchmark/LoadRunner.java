@@ -0,0 +1,124 @@
+package com.ims.inventory_management_system.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Runs an operation from a fixed number of threads for a fixed time and reports throughput, latency percentiles and
+// failures by exception type. Benchmarks are skipped unless -Dbenchmark=true; their sizes are read from
+// benchmark.* system properties so the same harness runs against H2 or a real database (DB_URL and friends)
+final class LoadRunner {
+
+    private LoadRunner() {
+    }
+
+    interface Operation {
+        void run(ThreadLocalRandom random) throws Exception;
+    }
+
+    record Result(String name, int threads, long operations, double seconds, long p50Micros, long p99Micros,
+                  Map<String, Long> failures) {
+
+        double throughput() {
+            return operations / seconds;
+        }
+
+        long failed() {
+            return failures.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %d threads, %d ops in %.1f s = %.0f ops/s, p50 %d us, p99 %d us, failures %s",
+                    name, threads, operations, seconds, throughput(), p50Micros, p99Micros, failures);
+        }
+    }
+
+    static int intProperty(String name, int defaultValue) {
+        return Integer.getInteger("benchmark." + name, defaultValue);
+    }
+
+    static Result run(String name, Operation operation) throws Exception {
+        return run(name, intProperty("threads", 8), Duration.ofSeconds(intProperty("seconds", 10)), operation);
+    }
+
+    static Result run(String name, int threads, Duration duration, Operation operation) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Worker>> futures = new ArrayList<>();
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(pool.submit(() -> {
+                    Worker worker = new Worker();
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        long operationStartedAt = System.nanoTime();
+                        try {
+                            operation.run(random);
+                            worker.record(System.nanoTime() - operationStartedAt);
+                        } catch (Exception e) {
+                            worker.failures.merge(e.getClass().getSimpleName(), 1L, Long::sum);
+                        }
+                    }
+                    return worker;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            List<Worker> workers = new ArrayList<>(threads);
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+            return summarize(name, threads, workers, System.nanoTime() - startedAt);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static Result summarize(String name, int threads, List<Worker> workers, long elapsedNanos) {
+        int operations = workers.stream().mapToInt(worker -> worker.count).sum();
+        long[] latencies = new long[operations];
+        int offset = 0;
+        Map<String, Long> failures = new TreeMap<>();
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+            worker.failures.forEach((type, count) -> failures.merge(type, count, Long::sum));
+        }
+        Arrays.sort(latencies);
+        return new Result(name, threads, operations, elapsedNanos / 1e9, percentileMicros(latencies, 0.50),
+                percentileMicros(latencies, 0.99), failures);
+    }
+
+    private static long percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0L;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return TimeUnit.NANOSECONDS.toMicros(sorted[Math.max(0, index)]);
+    }
+
+    private static final class Worker {
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> failures = new TreeMap<>();
+
+        private void record(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
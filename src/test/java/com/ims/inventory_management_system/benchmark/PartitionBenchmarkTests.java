@@ -0,0 +1,124 @@
+package com.ims.inventory_management_system.benchmark;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Row locks by id alone against the same locks with the row's warehouse, as the batched writers take them. On a table
+// partitioned by warehouse (POST /api/inventory/partitioning, run beforehand) only the second can skip the partitions
+// that cannot hold the row; on an unpartitioned table the two should be level. Each lock is rolled back so the commit's
+// WAL flush does not drown out the difference. The partition layout is logged first
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+class PartitionBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(PartitionBenchmarkTests.class);
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void rowLocksWithAndWithoutTheWarehouse() throws Exception {
+        int warehouses = LoadRunner.intProperty("warehouses", 50);
+        int products = LoadRunner.intProperty("products", 20);
+        int rowsPerLock = LoadRunner.intProperty("rows-per-lock", 10);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        List<InventoryRepositoryCustom.PartitionSize> partitions = inventoryRepository.findPartitions();
+        logger.info("inventories has {} partitions: {}", partitions.size(), partitions);
+
+        List<Long> productIds = new ArrayList<>(products);
+        for (int product = 0; product < products; product++) {
+            productIds.add(productService.createProduct(ProductDto.builder()
+                    .sku("PB-" + suffix + "-" + product)
+                    .name("Partition benchmark " + product)
+                    .costPrice(BigDecimal.ONE)
+                    .sellingPrice(BigDecimal.TEN)
+                    .minStockLevel(0)
+                    .trackExpiryDate(false)
+                    .trackBatchNumber(false)
+                    .build()).getId());
+        }
+        int rows = warehouses * products;
+        long[] inventoryIds = new long[rows];
+        long[] warehouseIds = new long[rows];
+        for (int warehouse = 0; warehouse < warehouses; warehouse++) {
+            Long warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                    .name("PB-" + suffix + "-" + warehouse)
+                    .address("Benchmark")
+                    .active(true)
+                    .build()).getId();
+            for (int product = 0; product < products; product++) {
+                int row = warehouse * products + product;
+                warehouseIds[row] = warehouseId;
+                inventoryIds[row] = inventoryService.addInventory(InventoryDto.builder()
+                        .productId(productIds.get(product))
+                        .warehouseId(warehouseId)
+                        .quantity(100)
+                        .build()).getId();
+            }
+        }
+
+        LoadRunner.Result byId = LoadRunner.run("locks of " + rowsPerLock + " rows by id", random -> {
+            List<Long> ids = new ArrayList<>(rowsPerLock);
+            for (int i = 0; i < rowsPerLock; i++) {
+                ids.add(inventoryIds[random.nextInt(rows)]);
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                inventoryRepository.lockQuantitiesByIdIn(ids);
+                status.setRollbackOnly();
+            });
+        });
+        LoadRunner.Result byIdAndWarehouse = LoadRunner.run("locks of " + rowsPerLock + " rows by id and warehouse",
+                random -> {
+                    List<Long> ids = new ArrayList<>(rowsPerLock);
+                    Set<Long> lockWarehouseIds = new HashSet<>();
+                    for (int i = 0; i < rowsPerLock; i++) {
+                        int row = random.nextInt(rows);
+                        ids.add(inventoryIds[row]);
+                        lockWarehouseIds.add(warehouseIds[row]);
+                    }
+                    transactionTemplate.executeWithoutResult(status -> {
+                        inventoryRepository.lockQuantitiesByIdInAndWarehouseIdIn(ids, lockWarehouseIds);
+                        status.setRollbackOnly();
+                    });
+                });
+        logger.info("{}", byId);
+        logger.info("{}", byIdAndWarehouse);
+
+        assertEquals(0, byId.failed());
+        assertEquals(0, byIdAndWarehouse.failed());
+    }
+}
@@ -0,0 +1,110 @@
+package com.ims.inventory_management_system.benchmark;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Product stock lookups from the in-memory availability projection against the SUM over inventory rows they replaced,
+// while a writer keeps adjusting the same products. Once the writer stops, both sides must agree on every product
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+class StockProjectionBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(StockProjectionBenchmarkTests.class);
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Test
+    void projectionReadsAgainstDatabaseSums() throws Exception {
+        int products = LoadRunner.intProperty("products", 500);
+        int batches = LoadRunner.intProperty("batches", 5);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Long warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("SP-" + suffix)
+                .address("Benchmark")
+                .active(true)
+                .build()).getId();
+        List<Long> productIds = new ArrayList<>(products);
+        List<Long> inventoryIds = new ArrayList<>(products * batches);
+        for (int product = 0; product < products; product++) {
+            Long productId = productService.createProduct(ProductDto.builder()
+                    .sku("SP-" + suffix + "-" + product)
+                    .name("Projection benchmark " + product)
+                    .costPrice(BigDecimal.ONE)
+                    .sellingPrice(BigDecimal.TEN)
+                    .minStockLevel(0)
+                    .trackExpiryDate(false)
+                    .trackBatchNumber(true)
+                    .build()).getId();
+            productIds.add(productId);
+            for (int batch = 0; batch < batches; batch++) {
+                inventoryIds.add(inventoryService.addInventory(InventoryDto.builder()
+                        .productId(productId)
+                        .warehouseId(warehouseId)
+                        .batchNumber("SP-" + batch)
+                        .quantity(1_000)
+                        .build()).getId());
+            }
+        }
+
+        // One thread keeps the quantities moving so neither side can serve a stale cached answer
+        Thread writer = new Thread(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    inventoryService.adjustInventory(inventoryIds.get(random.nextInt(inventoryIds.size())),
+                            random.nextBoolean() ? 1 : -1, "Benchmark");
+                } catch (RuntimeException e) {
+                    // A rejected decrement only means this row ran dry; the next pick moves on
+                }
+            }
+        }, "projection-benchmark-writer");
+        writer.start();
+        LoadRunner.Result projection;
+        LoadRunner.Result database;
+        try {
+            projection = LoadRunner.run("product stock from the projection", random ->
+                    productService.getCurrentStockLevel(productIds.get(random.nextInt(products))));
+            database = LoadRunner.run("product stock by SUM over " + batches + " rows", random ->
+                    inventoryRepository.getTotalQuantityByProductId(productIds.get(random.nextInt(products))));
+        } finally {
+            writer.interrupt();
+            writer.join();
+        }
+        logger.info("{}", projection);
+        logger.info("{}", database);
+
+        assertEquals(0, projection.failed());
+        for (Long productId : productIds) {
+            assertEquals(inventoryRepository.getTotalQuantityByProductId(productId), productService.getCurrentStockLevel(productId));
+        }
+    }
+}
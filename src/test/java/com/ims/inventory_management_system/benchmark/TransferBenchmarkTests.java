@@ -0,0 +1,104 @@
+package com.ims.inventory_management_system.benchmark;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.InventoryTransferStatsDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Concurrent multi-line transfers in random directions between every warehouse, over rows that all exist up front so
+// the run measures the ordered locking path rather than row creation. Lock failures (deadlocks, lock timeouts) are
+// expected to stay at zero, and no unit may be created or lost
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest
+class TransferBenchmarkTests {
+    private static final Logger logger = LoggerFactory.getLogger(TransferBenchmarkTests.class);
+
+    private static final int INITIAL_QUANTITY = 1_000_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Test
+    void concurrentBatchTransfers() throws Exception {
+        int warehouses = LoadRunner.intProperty("warehouses", 8);
+        int products = LoadRunner.intProperty("products", 50);
+        int lines = LoadRunner.intProperty("lines", 10);
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        List<Long> warehouseIds = new ArrayList<>(warehouses);
+        for (int warehouse = 0; warehouse < warehouses; warehouse++) {
+            warehouseIds.add(warehouseService.createWarehouse(WarehouseDto.builder()
+                    .name("TB-" + suffix + "-" + warehouse)
+                    .address("Benchmark")
+                    .active(true)
+                    .build()).getId());
+        }
+        List<Long> productIds = new ArrayList<>(products);
+        long[][] inventoryIds = new long[products][warehouses];
+        for (int product = 0; product < products; product++) {
+            Long productId = productService.createProduct(ProductDto.builder()
+                    .sku("TB-" + suffix + "-" + product)
+                    .name("Transfer benchmark " + product)
+                    .costPrice(BigDecimal.ONE)
+                    .sellingPrice(BigDecimal.TEN)
+                    .minStockLevel(0)
+                    .trackExpiryDate(false)
+                    .trackBatchNumber(false)
+                    .build()).getId();
+            productIds.add(productId);
+            for (int warehouse = 0; warehouse < warehouses; warehouse++) {
+                inventoryIds[product][warehouse] = inventoryService.addInventory(InventoryDto.builder()
+                        .productId(productId)
+                        .warehouseId(warehouseIds.get(warehouse))
+                        .quantity(INITIAL_QUANTITY)
+                        .build()).getId();
+            }
+        }
+
+        InventoryTransferStatsDto before = inventoryService.getTransferStats();
+        LoadRunner.Result result = LoadRunner.run("transfer batches of " + lines + " lines", random -> {
+            List<InventoryTransferRequest> transfers = new ArrayList<>(lines);
+            for (int line = 0; line < lines; line++) {
+                int product = random.nextInt(products);
+                int source = random.nextInt(warehouses);
+                int destination = (source + 1 + random.nextInt(warehouses - 1)) % warehouses;
+                transfers.add(new InventoryTransferRequest(inventoryIds[product][source], warehouseIds.get(destination), 1));
+            }
+            inventoryService.transferInventoryBatch(transfers);
+        });
+        InventoryTransferStatsDto after = inventoryService.getTransferStats();
+        logger.info("{}", result);
+        logger.info("Committed {} lines, {} failed batches, {} lock failures, {} ms average batch",
+                after.getCommittedLines() - before.getCommittedLines(),
+                after.getFailedBatches() - before.getFailedBatches(),
+                after.getLockFailures() - before.getLockFailures(), after.getAverageBatchMillis());
+
+        assertEquals(0, after.getLockFailures() - before.getLockFailures());
+        for (Long productId : productIds) {
+            assertEquals(INITIAL_QUANTITY * warehouses, (int) inventoryService.getTotalQuantityForProduct(productId));
+        }
+    }
+}
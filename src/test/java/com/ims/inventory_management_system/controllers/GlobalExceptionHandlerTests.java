@@ -0,0 +1,132 @@
+package com.ims.inventory_management_system.controllers;
+
+import com.ims.inventory_management_system.exceptions.ConflictException;
+import com.ims.inventory_management_system.exceptions.ServiceSaturatedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Malformed requests are rejected with 400 before they reach the services, and service-side argument checks map to
+// 400 as well rather than falling through to 500. Shed load maps to 503 with a Retry-After
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:requests;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class GlobalExceptionHandlerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void allocationWithoutAQuantityIsRejected() throws Exception {
+        mockMvc.perform(post("/api/inventory/allocate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\": 1, \"warehouseId\": 1}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.quantity").value("Quantity is required"));
+    }
+
+    @Test
+    void reservationOfANegativeQuantityIsRejected() throws Exception {
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\": 1, \"warehouseId\": 1, \"quantity\": -5}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.quantity").value("Quantity must be positive"));
+    }
+
+    @Test
+    @WithMockUser(roles = "GUEST")
+    void reservationWithoutAnInventoryRoleIsForbidden() throws Exception {
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productId\": 1, \"warehouseId\": 1, \"quantity\": 5}"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void matrixWithoutProductsIsRejected() throws Exception {
+        mockMvc.perform(post("/api/inventory/matrix")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"productIds\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkAdjustmentWithoutLinesIsRejected() throws Exception {
+        mockMvc.perform(post("/api/inventory/adjust/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"adjustments\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void bulkAvailableToPromiseWithoutAProductIsRejected() throws Exception {
+        mockMvc.perform(post("/api/products/atp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\": [{\"date\": \"2030-01-01\"}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors['queries[0].productId']").value("Product id is required"));
+    }
+
+    @Test
+    void bulkAvailableToPromiseOverTheCapIsRejected() throws Exception {
+        String queries = String.join(",", Collections.nCopies(1001, "{\"productId\": 1}"));
+        mockMvc.perform(post("/api/products/atp")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"queries\": [" + queries + "]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.queries").value("At most 1000 queries are allowed per request"));
+    }
+
+    @Test
+    void transferWithoutADestinationIsABadRequest() throws Exception {
+        mockMvc.perform(post("/api/inventory/transfer/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"transfers\": [{\"sourceInventoryId\": 1, \"quantity\": 1}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message")
+                        .value("Source inventory and destination warehouse are required for a transfer"));
+    }
+
+    @Test
+    void adjustmentWithoutAQuantityChangeIsRejected() throws Exception {
+        mockMvc.perform(post("/api/inventory/1/adjust")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"reason\": \"No change\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors.quantityChange").value("Quantity change is required"));
+    }
+
+    @Test
+    void saturationIsServiceUnavailableWithRetryAfter() {
+        ResponseEntity<GlobalExceptionHandler.ErrorResponse> response = new GlobalExceptionHandler()
+                .handleServiceSaturatedException(new ServiceSaturatedException("Saturated", 3));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    @Test
+    void onlyDeclaredConflictsAreConflicts() {
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+        assertEquals(HttpStatus.CONFLICT, handler.handleConflictException(
+                new ConflictException("Cycle count 1 is not open")).getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, handler.handleGlobalException(
+                new IllegalStateException("Compaction chunk size must be positive")).getStatusCode());
+    }
+}
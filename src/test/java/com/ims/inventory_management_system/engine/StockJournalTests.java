@@ -0,0 +1,111 @@
+package com.ims.inventory_management_system.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockJournalTests {
+
+    private static final int SEGMENT_BYTES = 1024;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replayRestoresEveryRecordInOrder() throws IOException {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES, true)) {
+            journal.open(0);
+            journal.append(1, 10, 5);
+            journal.append(2, 10, 7);
+            journal.append(1, 10, StockJournal.REMOVED);
+        }
+
+        StockJournal recovered = new StockJournal(directory, SEGMENT_BYTES, true);
+        List<long[]> records = replay(recovered, 0);
+
+        assertEquals(List.of("1:1:10:5", "2:2:10:7", "3:1:10:-1"), describe(records));
+        assertEquals(3, recovered.lastSequence());
+    }
+
+    @Test
+    void replaySkipsRecordsCoveredByTheSnapshot() throws IOException {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES, true)) {
+            journal.open(0);
+            for (int i = 1; i <= 5; i++) {
+                journal.append(i, 10, i * 10);
+            }
+        }
+
+        assertEquals(List.of("4:4:10:40", "5:5:10:50"), describe(replay(new StockJournal(directory, SEGMENT_BYTES, true), 3)));
+    }
+
+    @Test
+    void replayStopsAtATornRecord() throws IOException {
+        try (StockJournal journal = new StockJournal(directory, SEGMENT_BYTES, true)) {
+            journal.open(0);
+            journal.append(1, 10, 5);
+            journal.append(2, 10, 7);
+            journal.append(3, 10, 9);
+        }
+        // Flip a byte in the quantity of the second record, as a write cut short by a crash would leave it
+        try (FileChannel channel = FileChannel.open(onlySegment(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) 0xFF}), 32 + 24);
+        }
+
+        assertEquals(List.of("1:1:10:5"), describe(replay(new StockJournal(directory, SEGMENT_BYTES, true), 0)));
+    }
+
+    @Test
+    void recordsSpanSegmentsAndOldSegmentsCanBeDropped() throws IOException {
+        // Two records per segment
+        try (StockJournal journal = new StockJournal(directory, 64, false)) {
+            journal.open(0);
+            for (int i = 1; i <= 5; i++) {
+                journal.append(i, 10, i);
+            }
+            assertEquals(5, journal.currentSegmentStartSequence());
+            journal.deleteSegmentsBefore(3);
+        }
+
+        StockJournal recovered = new StockJournal(directory, 64, false);
+        assertEquals(List.of("3:3:10:3", "4:4:10:4", "5:5:10:5"), describe(replay(recovered, 0)));
+
+        // Appends after recovery continue the sequence in a new segment
+        recovered.open(recovered.lastSequence());
+        assertEquals(6, recovered.append(6, 10, 6));
+        recovered.close();
+        assertEquals(List.of("6:6:10:6"), describe(replay(new StockJournal(directory, 64, false), 5)));
+    }
+
+    private static List<long[]> replay(StockJournal journal, long afterSequence) throws IOException {
+        List<long[]> records = new ArrayList<>();
+        journal.replay(afterSequence, (sequence, inventoryId, productId, quantity) ->
+                records.add(new long[]{sequence, inventoryId, productId, quantity}));
+        return records;
+    }
+
+    private static List<String> describe(List<long[]> records) {
+        return records.stream()
+                .map(record -> record[0] + ":" + record[1] + ":" + record[2] + ":" + record[3])
+                .toList();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertEquals(1, segments.size());
+            return segments.get(0);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.CycleCountDto;
+import com.ims.inventory_management_system.dto.CycleCountLineDto;
+import com.ims.inventory_management_system.dto.CycleCountPostRequest;
+import com.ims.inventory_management_system.dto.CycleCountRequest;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.StockReservationRequest;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.entities.CycleCount;
+import com.ims.inventory_management_system.repositories.InventoryRepository;
+import com.ims.inventory_management_system.repositories.InventoryRepositoryCustom.CountedQuantity;
+import com.ims.inventory_management_system.services.CycleCountService;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.StockReservationService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:cyclecounts;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class CycleCountServiceImplTests {
+
+    @Autowired
+    private CycleCountService cycleCountService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+    private Long warehouseId;
+    private InventoryDto inventory;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("CC-" + suffix)
+                .name("Counted product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(true)
+                .build()).getId();
+        warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("CC-" + suffix)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+        inventory = inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .batchNumber("B1")
+                .quantity(50)
+                .build());
+    }
+
+    @Test
+    void postSetsRowsToTheirCountedQuantity() {
+        // A count is the truth on the shelf: it is posted even over units that are reserved
+        stockReservationService.reserve(StockReservationRequest.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(50)
+                .build());
+        CycleCountDto cycleCount = cycleCountService.createCycleCount(new CycleCountRequest(warehouseId, false));
+        cycleCountService.addCounts(cycleCount.getId(), List.of(new CycleCountLineDto(productId, null, "B1", "A1", 42)));
+
+        CycleCountDto posted = cycleCountService.post(cycleCount.getId(), new CycleCountPostRequest("Stocktake", null));
+
+        assertEquals(CycleCount.Status.POSTED, posted.getStatus());
+        assertEquals(1, posted.getAdjustedRows());
+        assertEquals(-8, posted.getNetQuantityChange());
+        assertEquals(42, inventoryService.getInventoryById(inventory.getId()).getQuantity());
+        assertEquals(42, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    @Test
+    void guardedUpdateRejectsRowsThatMovedSinceTheCount() {
+        Set<Long> mismatched = transactionTemplate.execute(status -> inventoryRepository.setCountedQuantities(List.of(
+                new CountedQuantity(inventory.getId(), warehouseId, 49, 40))));
+
+        assertEquals(Set.of(inventory.getId()), mismatched);
+        assertEquals(50, inventoryService.getInventoryById(inventory.getId()).getQuantity());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryAgingLineDto;
+import com.ims.inventory_management_system.dto.InventoryAgingReportDto;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.entities.InventoryCostLayer;
+import com.ims.inventory_management_system.repositories.InventoryCostLayerRepository;
+import com.ims.inventory_management_system.services.InventoryAgingReportService;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:agingreports;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class InventoryAgingReportServiceImplTests {
+
+    @Autowired
+    private InventoryAgingReportService inventoryAgingReportService;
+
+    @Autowired
+    private InventoryCostLayerRepository inventoryCostLayerRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    private Long productId;
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("AGE-" + suffix)
+                .name("Aged product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(false)
+                .build()).getId();
+    }
+
+    @Test
+    void stockIsValuedAtItsReceiptCostRatherThanTheCostPrice() {
+        Long warehouseId = createWarehouse("AGE-" + suffix);
+        inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(10)
+                .unitCost(new BigDecimal("3.00"))
+                .build());
+
+        InventoryAgingLineDto line = warehouseLine(inventoryAgingReportService.generateReport(), warehouseId);
+        assertEquals(List.of(10L, 0L, 0L, 0L), line.getQuantities());
+        assertValue("30", line.getValues().get(0));
+    }
+
+    @Test
+    void stockAgesFromWhenItWasReceived() {
+        // A layer received 45 days ago, for a pair the valuation holds nothing for so the flush leaves it alone
+        Long warehouseId = createWarehouse("AGE-OLD-" + suffix);
+        inventoryCostLayerRepository.save(InventoryCostLayer.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .unitCost(new BigDecimal("2.5000"))
+                .quantity(4)
+                .receivedAt(LocalDateTime.now().minusDays(45))
+                .build());
+
+        InventoryAgingLineDto line = warehouseLine(inventoryAgingReportService.generateReport(), warehouseId);
+        assertEquals(List.of(0L, 4L, 0L, 0L), line.getQuantities());
+        assertValue("10", line.getValues().get(1));
+    }
+
+    private Long createWarehouse(String name) {
+        return warehouseService.createWarehouse(WarehouseDto.builder()
+                .name(name)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+    }
+
+    private static InventoryAgingLineDto warehouseLine(InventoryAgingReportDto report, Long warehouseId) {
+        return report.getWarehouses().stream()
+                .filter(line -> warehouseId.equals(line.getId()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static void assertValue(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,117 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryIntegrityMismatchDto;
+import com.ims.inventory_management_system.dto.InventoryIntegrityReportDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.repositories.InventoryMovementRepository;
+import com.ims.inventory_management_system.services.InventoryIntegrityService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Rows are inserted with plain SQL, as a database that predates the movement ledger would hold them
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:integritychecks;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class InventoryIntegrityServiceImplTests {
+
+    @Autowired
+    private InventoryIntegrityService inventoryIntegrityService;
+
+    @Autowired
+    private InventoryMovementRepository inventoryMovementRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+    private Long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("IC-" + suffix)
+                .name("Checked product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(false)
+                .build()).getId();
+        warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("IC-" + suffix)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+    }
+
+    @Test
+    void openingBalancesGiveRowsWithoutMovementsABaseline() {
+        long inventoryId = insertInventory(25);
+        assertEquals(List.of(25), balanceMismatches(inventoryIntegrityService.verify(true), inventoryId));
+
+        assertTrue(inventoryMovementRepository.insertOpeningBalances() >= 1);
+        assertEquals(0, inventoryMovementRepository.insertOpeningBalances());
+
+        assertEquals(List.of(), balanceMismatches(inventoryIntegrityService.verify(true), inventoryId));
+    }
+
+    @Test
+    void droppedMovementsAreCountedAndReportedAsDiffering() {
+        long inventoryId = insertInventory(7);
+        InventoryMovement movement = InventoryMovement.builder()
+                .inventoryId(inventoryId)
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .movementType(InventoryMovement.MovementType.RECEIPT)
+                .quantityChange(7)
+                .resultingQuantity(7)
+                .occurredAt(LocalDateTime.now())
+                .build();
+        inventoryIntegrityService.applyMovements(List.of(movement));
+        assertEquals(List.of(), balanceMismatches(inventoryIntegrityService.verify(false), inventoryId));
+        long dropped = inventoryIntegrityService.getStats().getDroppedMovements();
+
+        inventoryIntegrityService.applyDroppedMovements(List.of(movement));
+
+        assertEquals(dropped + 1, inventoryIntegrityService.getStats().getDroppedMovements());
+        assertNotNull(inventoryIntegrityService.getStats().getLastDroppedAt());
+        assertEquals(List.of(7), balanceMismatches(inventoryIntegrityService.verify(false), inventoryId));
+    }
+
+    private long insertInventory(int quantity) {
+        jdbcTemplate.update("INSERT INTO inventories (product_id, warehouse_id, quantity, created_at, updated_at) " +
+                "VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", productId, warehouseId, quantity);
+        return jdbcTemplate.queryForObject("SELECT id FROM inventories WHERE product_id = ? AND warehouse_id = ?",
+                Long.class, productId, warehouseId);
+    }
+
+    // Actual quantities of the balance mismatches reported for one row
+    private static List<Integer> balanceMismatches(InventoryIntegrityReportDto report, long inventoryId) {
+        return report.getMismatches().stream()
+                .filter(mismatch -> mismatch.getScope() == InventoryIntegrityMismatchDto.Scope.BALANCE)
+                .filter(mismatch -> mismatch.getInventoryId() == inventoryId)
+                .map(InventoryIntegrityMismatchDto::getActualQuantity)
+                .toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.exceptions.ResourceNotFoundException;
+import com.ims.inventory_management_system.exceptions.ServiceSaturatedException;
+import com.ims.inventory_management_system.services.InventoryMutationPipeline;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "inventory.adjustment-pipeline.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:pipeline;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH"
+})
+class InventoryMutationPipelineImplTests {
+
+    @Autowired
+    private InventoryMutationPipeline inventoryMutationPipeline;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    private Long productId;
+    private Long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("PL-" + suffix)
+                .name("Pipelined product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(true)
+                .build()).getId();
+        warehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("PL-" + suffix)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+    }
+
+    @Test
+    void batchedDecrementsNeverTakeARowBelowZero() {
+        Long inventoryId = addInventory("B1", 100);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            results.add(inventoryMutationPipeline.submitAdjustment(inventoryId, -1, "Pick"));
+        }
+        int applied = 0;
+        for (CompletableFuture<Void> result : results) {
+            try {
+                result.join();
+                applied++;
+            } catch (CompletionException e) {
+                assertInstanceOf(InsufficientInventoryException.class, e.getCause());
+            }
+        }
+
+        assertEquals(100, applied);
+        assertEquals(0, inventoryService.getInventoryById(inventoryId).getQuantity());
+    }
+
+    @Test
+    void oneBatchCanSpanRowsOfSeveralWarehouses() {
+        Long firstId = addInventory("B1", 10);
+        Long otherWarehouseId = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name("PL-other-" + firstId)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+        Long secondId = inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(otherWarehouseId)
+                .batchNumber("B1")
+                .quantity(10)
+                .build()).getId();
+
+        CompletableFuture<Void> first = inventoryMutationPipeline.submitAdjustment(firstId, -4, "Pick");
+        CompletableFuture<Void> second = inventoryMutationPipeline.submitAdjustment(secondId, 5, "Found");
+        CompletableFuture<Void> missing = inventoryMutationPipeline.submitAdjustment(Long.MAX_VALUE, 1, "Missing");
+        first.join();
+        second.join();
+
+        CompletionException failure = assertThrows(CompletionException.class, missing::join);
+        assertInstanceOf(ResourceNotFoundException.class, failure.getCause());
+        assertEquals(6, inventoryService.getInventoryById(firstId).getQuantity());
+        assertEquals(15, inventoryService.getInventoryById(secondId).getQuantity());
+    }
+
+    @Test
+    void aFullQueueRejectsWithRetryAfter() {
+        // No flusher thread, so the queue holds exactly what was submitted
+        InventoryMutationPipelineImpl pipeline = idlePipeline(1);
+        CompletableFuture<Void> queued = pipeline.submitAdjustment(1L, 5, "Queued");
+        CompletableFuture<Void> rejected = pipeline.submitAdjustment(1L, 5, "Rejected");
+
+        assertFalse(queued.isDone());
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        ServiceSaturatedException saturated = assertInstanceOf(ServiceSaturatedException.class, failure.getCause());
+        assertEquals(2L, saturated.getRetryAfterSeconds());
+        assertEquals(1, pipeline.getStats().getQueueDepth());
+        assertEquals(1L, pipeline.getStats().getSaturatedAdjustments());
+    }
+
+    @Test
+    void aNullQuantityChangeIsRejectedBeforeItIsQueued() {
+        InventoryMutationPipelineImpl pipeline = idlePipeline(1);
+        CompletableFuture<Void> rejected = pipeline.submitAdjustment(1L, null, "Missing change");
+
+        CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(IllegalArgumentException.class, failure.getCause());
+        assertEquals(0, pipeline.getStats().getQueueDepth());
+    }
+
+    private Long addInventory(String batchNumber, int quantity) {
+        return inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .batchNumber(batchNumber)
+                .quantity(quantity)
+                .build()).getId();
+    }
+
+    private static InventoryMutationPipelineImpl idlePipeline(int queueCapacity) {
+        InventoryMutationPipelineImpl pipeline = new InventoryMutationPipelineImpl(null, null, null, null, null, null, null);
+        ReflectionTestUtils.setField(pipeline, "enabled", true);
+        ReflectionTestUtils.setField(pipeline, "retryAfterSeconds", 2L);
+        ReflectionTestUtils.setField(pipeline, "queue", new LinkedBlockingQueue<>(queueCapacity));
+        return pipeline;
+    }
+}
@@ -0,0 +1,378 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.BulkInventoryAdjustmentResponse;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentResultDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationLineDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryCursorPageDto;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.ProductStockService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:inventoryservice;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class InventoryServiceImplTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private ProductStockService productStockService;
+
+    @Autowired
+    private Validator validator;
+
+    private Long productId;
+    private Long warehouseId;
+    private Long firstInventoryId;
+    private Long secondInventoryId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("IS-" + suffix)
+                .name("Stocked product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(true)
+                .build()).getId();
+        warehouseId = createWarehouse("IS-" + suffix);
+        firstInventoryId = addInventory(warehouseId, "B1", 100);
+        secondInventoryId = addInventory(warehouseId, "B2", 100);
+    }
+
+    @Test
+    void allOrNothingBulkAdjustmentAppliesNoLineWhenOneFails() {
+        BulkInventoryAdjustmentResponse response = inventoryService.adjustInventoryBulk(List.of(
+                new InventoryAdjustmentRequest(firstInventoryId, -10, "Pick"),
+                new InventoryAdjustmentRequest(secondInventoryId, -101, "Pick")), true);
+
+        assertEquals(0, response.getApplied());
+        assertEquals(1, response.getFailed());
+        assertEquals(InventoryAdjustmentResultDto.Status.NOT_APPLIED, response.getResults().get(0).getStatus());
+        assertEquals(InventoryAdjustmentResultDto.Status.FAILED, response.getResults().get(1).getStatus());
+        assertEquals(100, quantity(firstInventoryId));
+        assertEquals(100, quantity(secondInventoryId));
+    }
+
+    @Test
+    void bestEffortBulkAdjustmentAppliesTheValidLines() {
+        BulkInventoryAdjustmentResponse response = inventoryService.adjustInventoryBulk(List.of(
+                new InventoryAdjustmentRequest(firstInventoryId, -10, "Pick"),
+                new InventoryAdjustmentRequest(secondInventoryId, -101, "Pick"),
+                new InventoryAdjustmentRequest(firstInventoryId, 4, "Return")), false);
+
+        assertEquals(2, response.getApplied());
+        assertEquals(1, response.getFailed());
+        assertEquals(94, quantity(firstInventoryId));
+        assertEquals(100, quantity(secondInventoryId));
+        assertEquals(194, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    // Batches naming the same rows in opposite orders are applied in id order, so they queue instead of deadlocking
+    @Test
+    void opposingBulkAdjustmentsDoNotDeadlock() throws Exception {
+        int threads = 8;
+        int batches = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                List<InventoryAdjustmentRequest> adjustments = thread % 2 == 0
+                        ? List.of(new InventoryAdjustmentRequest(firstInventoryId, 1, "Move"),
+                                new InventoryAdjustmentRequest(secondInventoryId, -1, "Move"))
+                        : List.of(new InventoryAdjustmentRequest(secondInventoryId, 1, "Move"),
+                                new InventoryAdjustmentRequest(firstInventoryId, -1, "Move"));
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int applied = 0;
+                    for (int batch = 0; batch < batches; batch++) {
+                        applied += inventoryService.adjustInventoryBulk(adjustments, true).getApplied();
+                    }
+                    return applied;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                assertEquals(batches * 2, future.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(100, quantity(firstInventoryId));
+        assertEquals(100, quantity(secondInventoryId));
+        assertEquals(200, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    // Each batch reports the quantity its own update left, so concurrent batches never report the same one
+    @Test
+    void concurrentBulkAdjustmentsReportTheQuantityTheyLeft() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int batch = 0; batch < 200; batch++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return inventoryService.adjustInventoryBulk(List.of(
+                            new InventoryAdjustmentRequest(firstInventoryId, 1, "Found")), true).getResults().get(0).getNewQuantity();
+                }));
+            }
+            start.countDown();
+            Set<Integer> reported = new HashSet<>();
+            for (Future<Integer> future : futures) {
+                reported.add(future.get());
+            }
+            assertEquals(200, reported.size());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(300, quantity(firstInventoryId));
+    }
+
+    // Updates save the whole row, so they must not overwrite an adjustment that committed after they read it
+    @Test
+    void concurrentUpdatesAndAdjustmentsKeepProductTotalsInStep() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int task = 0; task < 200; task++) {
+                int quantity = 100 + task;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    if (quantity % 2 == 0) {
+                        inventoryService.adjustInventory(firstInventoryId, 1, "Found");
+                    } else {
+                        inventoryService.updateInventory(firstInventoryId, InventoryDto.builder().quantity(quantity).build());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int onHand = quantity(firstInventoryId) + quantity(secondInventoryId);
+        assertEquals(onHand, productStockService.getTotalQuantity(productId));
+        assertEquals(onHand, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    @Test
+    void transfersWithoutASourceOrDestinationAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.transferInventoryBatch(List.of(
+                new InventoryTransferRequest(null, warehouseId, 1))));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.transferInventoryBatch(List.of(
+                new InventoryTransferRequest(firstInventoryId, null, 1))));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.transferInventoryBatch(List.of()));
+        assertEquals(100, quantity(firstInventoryId));
+    }
+
+    // Sources in two warehouses feed one new destination row: whichever transfer creates it, the other adds to it
+    @Test
+    void concurrentTransfersCreateOneDestinationRow() throws Exception {
+        Long otherWarehouseId = createWarehouse("IS-" + UUID.randomUUID().toString().substring(0, 8));
+        Long otherSourceId = addInventory(otherWarehouseId, "B1", 100);
+        Long destinationWarehouseId = createWarehouse("IS-" + UUID.randomUUID().toString().substring(0, 8));
+        int threads = 8;
+        int transfers = 10;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                Long sourceId = thread % 2 == 0 ? firstInventoryId : otherSourceId;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int transfer = 0; transfer < transfers; transfer++) {
+                        inventoryService.transferInventory(sourceId, destinationWarehouseId, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<InventoryDto> destinations = inventoryService.getInventoryByWarehouse(destinationWarehouseId);
+        assertEquals(1, destinations.size());
+        assertEquals(threads * transfers, destinations.get(0).getQuantity());
+        assertEquals(60, quantity(firstInventoryId));
+        assertEquals(60, quantity(otherSourceId));
+        assertEquals(300, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    @Test
+    void allocationPicksTheEarliestExpiryFirst() {
+        Long laterId = addInventory(warehouseId, "B3", 20, LocalDate.now().plusDays(60));
+        Long soonerId = addInventory(warehouseId, "B4", 20, LocalDate.now().plusDays(30));
+
+        InventoryAllocationDto allocation = inventoryService.allocateInventory(allocation(30, false));
+
+        assertEquals(30, allocation.getAllocatedQuantity());
+        assertEquals(List.of(soonerId, laterId), allocation.getLines().stream()
+                .map(InventoryAllocationLineDto::getInventoryId)
+                .toList());
+        assertEquals(0, quantity(soonerId));
+        assertEquals(10, quantity(laterId));
+        assertEquals(210, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    @Test
+    void shortAllocationsAreRejectedUnlessPartial() {
+        assertThrows(InsufficientInventoryException.class,
+                () -> inventoryService.allocateInventory(allocation(201, false)));
+        assertEquals(200, inventoryService.getTotalQuantityForProduct(productId));
+
+        assertEquals(200, inventoryService.allocateInventory(allocation(201, true)).getAllocatedQuantity());
+        assertEquals(0, inventoryService.getTotalQuantityForProduct(productId));
+    }
+
+    // Every unit is handed out exactly once however the picks interleave
+    @Test
+    void concurrentAllocationsNeverOversell() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int allocated = 0;
+                    for (int attempt = 0; attempt < 20; attempt++) {
+                        try {
+                            allocated += inventoryService.allocateInventory(allocation(3, false)).getAllocatedQuantity();
+                        } catch (InsufficientInventoryException e) {
+                            // Expected once the stock runs out
+                        }
+                    }
+                    return allocated;
+                }));
+            }
+            start.countDown();
+            int allocated = 0;
+            for (Future<Integer> future : futures) {
+                allocated += future.get();
+            }
+            assertEquals(200 - allocated, inventoryService.getTotalQuantityForProduct(productId));
+            assertEquals(200 - allocated, quantity(firstInventoryId) + quantity(secondInventoryId));
+            assertTrue(allocated >= 198, "Allocated " + allocated);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void bulkRequestsDefaultToAllOrNothingAndNeedAdjustments() {
+        BulkInventoryAdjustmentRequest request = BulkInventoryAdjustmentRequest.builder().build();
+
+        assertTrue(request.getAllOrNothing());
+        assertFalse(validator.validate(request).isEmpty());
+        request.setAdjustments(List.of());
+        assertFalse(validator.validate(request).isEmpty());
+        request.setAdjustments(List.of(new InventoryAdjustmentRequest(firstInventoryId, 1, null)));
+        assertTrue(validator.validate(request).isEmpty());
+    }
+
+    @Test
+    void pagesFilteredByProductAndWarehouseHonourBoth() {
+        Long otherWarehouseId = createWarehouse("IS-other-" + UUID.randomUUID().toString().substring(0, 8));
+        addInventory(otherWarehouseId, "B1", 100);
+        Long thirdInventoryId = addInventory(warehouseId, "B3", 100);
+
+        InventoryCursorPageDto first = inventoryService.getInventoryPage(productId, warehouseId, null, 2);
+        assertEquals(List.of(firstInventoryId, secondInventoryId),
+                first.getItems().stream().map(InventoryDto::getId).toList());
+        InventoryCursorPageDto second = inventoryService.getInventoryPage(productId, warehouseId, first.getNextCursor(), 2);
+        assertEquals(List.of(thirdInventoryId), second.getItems().stream().map(InventoryDto::getId).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    private Long createWarehouse(String name) {
+        return warehouseService.createWarehouse(WarehouseDto.builder()
+                .name(name)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+    }
+
+    private Long addInventory(Long warehouseId, String batchNumber, int quantity) {
+        return addInventory(warehouseId, batchNumber, quantity, null);
+    }
+
+    private Long addInventory(Long warehouseId, String batchNumber, int quantity, LocalDate expiryDate) {
+        return inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .batchNumber(batchNumber)
+                .quantity(quantity)
+                .expiryDate(expiryDate)
+                .build()).getId();
+    }
+
+    private InventoryAllocationRequest allocation(int quantity, boolean allowPartial) {
+        return InventoryAllocationRequest.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(quantity)
+                .reason("Pick")
+                .allowPartial(allowPartial)
+                .build();
+    }
+
+    private int quantity(Long inventoryId) {
+        return inventoryService.getInventoryById(inventoryId).getQuantity();
+    }
+}
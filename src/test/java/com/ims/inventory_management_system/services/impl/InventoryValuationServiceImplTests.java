@@ -0,0 +1,144 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryCostLayerDto;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.entities.InventoryMovement;
+import com.ims.inventory_management_system.services.InventoryMovementService;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.InventoryValuationService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:valuations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class InventoryValuationServiceImplTests {
+
+    @Autowired
+    private InventoryValuationService inventoryValuationService;
+
+    @Autowired
+    private InventoryMovementService inventoryMovementService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    private Long productId;
+    private Long warehouseId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("VAL-" + suffix)
+                .name("Valued product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(false)
+                .build()).getId();
+        warehouseId = createWarehouse("VAL-" + suffix);
+    }
+
+    @Test
+    void issuesConsumeTheOldestLayersFirst() {
+        Long inventoryId = receive(warehouseId, 10, "2.00");
+        receive(warehouseId, 10, "3.00");
+
+        inventoryService.adjustInventory(inventoryId, -15, "Damaged");
+
+        List<InventoryCostLayerDto> layers = inventoryValuationService.getCostLayers(productId, warehouseId);
+        assertEquals(1, layers.size());
+        assertEquals(5, layers.get(0).getQuantity());
+        assertValue("3", layers.get(0).getUnitCost());
+        assertValue("15", inventoryValuationService.getProductValuation(productId, warehouseId).getValue());
+    }
+
+    @Test
+    void transferredUnitsKeepTheirCost() {
+        Long inventoryId = receive(warehouseId, 4, "2.00");
+        receive(warehouseId, 4, "5.00");
+        Long destinationId = createWarehouse("VAL-DEST-" + inventoryId);
+
+        inventoryService.transferInventory(inventoryId, destinationId, 6);
+
+        assertValue("10", inventoryValuationService.getProductValuation(productId, warehouseId).getValue());
+        assertValue("18", inventoryValuationService.getProductValuation(productId, destinationId).getValue());
+        assertEquals(2, inventoryValuationService.getCostLayers(productId, destinationId).size());
+    }
+
+    @Test
+    void unknownCostFallsBackToTheNewestLayer() {
+        receive(warehouseId, 10, "4.00");
+
+        inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(5)
+                .build());
+
+        assertValue("60", inventoryValuationService.getProductValuation(productId, warehouseId).getValue());
+    }
+
+    @Test
+    void aFailingViewDoesNotStopTheLedger() throws InterruptedException {
+        // Ids the valuation cannot key make it throw; the movement must still reach the ledger
+        long outOfRangeProductId = Integer.MAX_VALUE + 1L;
+        inventoryMovementService.record(InventoryMovement.builder()
+                .inventoryId(1L)
+                .productId(outOfRangeProductId)
+                .warehouseId(warehouseId)
+                .movementType(InventoryMovement.MovementType.ADJUSTMENT)
+                .quantityChange(1)
+                .resultingQuantity(1)
+                .reason("Out of range")
+                .build());
+
+        boolean written = false;
+        for (int attempt = 0; attempt < 50 && !written; attempt++) {
+            Thread.sleep(100);
+            written = !inventoryMovementService.getMovements(outOfRangeProductId, null, null, null, null, 10)
+                    .getItems().isEmpty();
+        }
+        assertTrue(written, "Movement was not written to the ledger");
+    }
+
+    private Long receive(Long warehouseId, int quantity, String unitCost) {
+        return inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(quantity)
+                .unitCost(new BigDecimal(unitCost))
+                .build()).getId();
+    }
+
+    private Long createWarehouse(String name) {
+        return warehouseService.createWarehouse(WarehouseDto.builder()
+                .name(name)
+                .address("Test")
+                .active(true)
+                .build()).getId();
+    }
+
+    private static void assertValue(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "Expected " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,237 @@
+package com.ims.inventory_management_system.services.impl;
+
+import com.ims.inventory_management_system.dto.InventoryAdjustmentRequest;
+import com.ims.inventory_management_system.dto.InventoryAdjustmentResultDto;
+import com.ims.inventory_management_system.dto.InventoryAllocationRequest;
+import com.ims.inventory_management_system.dto.InventoryDto;
+import com.ims.inventory_management_system.dto.InventoryTransferRequest;
+import com.ims.inventory_management_system.dto.ProductDto;
+import com.ims.inventory_management_system.dto.StockReservationDto;
+import com.ims.inventory_management_system.dto.StockReservationRequest;
+import com.ims.inventory_management_system.dto.WarehouseDto;
+import com.ims.inventory_management_system.entities.StockReservation;
+import com.ims.inventory_management_system.exceptions.ConflictException;
+import com.ims.inventory_management_system.exceptions.InsufficientInventoryException;
+import com.ims.inventory_management_system.repositories.StockReservationRepository;
+import com.ims.inventory_management_system.services.InventoryService;
+import com.ims.inventory_management_system.services.ProductService;
+import com.ims.inventory_management_system.services.StockReservationService;
+import com.ims.inventory_management_system.services.WarehouseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:reservations;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH")
+class StockReservationServiceImplTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private WarehouseService warehouseService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long productId;
+    private Long warehouseId;
+    private Long inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        signIn("alice", "USER");
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        productId = productService.createProduct(ProductDto.builder()
+                .sku("RES-" + suffix)
+                .name("Reserved product")
+                .costPrice(BigDecimal.ONE)
+                .sellingPrice(BigDecimal.TEN)
+                .minStockLevel(0)
+                .trackExpiryDate(false)
+                .trackBatchNumber(false)
+                .build()).getId();
+        warehouseId = createWarehouse("RES-" + suffix);
+        inventoryId = inventoryService.addInventory(InventoryDto.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(100)
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void decrementsCannotTakeReservedUnits() {
+        reserve(80);
+
+        assertThrows(InsufficientInventoryException.class,
+                () -> inventoryService.adjustInventory(inventoryId, -30, "Shrinkage"));
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.allocateInventory(
+                new InventoryAllocationRequest(productId, warehouseId, 30, "Order", false)));
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.transferInventory(inventoryId,
+                createWarehouse("RES-DEST-" + inventoryId), 30));
+        List<InventoryAdjustmentResultDto> results = inventoryService.adjustInventoryBulk(
+                List.of(new InventoryAdjustmentRequest(inventoryId, -30, "Recount")), false).getResults();
+        assertEquals(InventoryAdjustmentResultDto.Status.FAILED, results.get(0).getStatus());
+
+        // Only the unreserved units can go, and a partial allocation stops there
+        inventoryService.adjustInventory(inventoryId, -15, "Shrinkage");
+        assertEquals(5, inventoryService.allocateInventory(
+                new InventoryAllocationRequest(productId, warehouseId, 30, "Order", true)).getAllocatedQuantity());
+        assertEquals(80, inventoryService.getInventoryById(inventoryId).getQuantity());
+    }
+
+    @Test
+    void updatesAndDeletesCannotTakeReservedUnits() {
+        reserve(80);
+
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.updateInventory(inventoryId,
+                InventoryDto.builder().quantity(50).build()));
+        assertThrows(InsufficientInventoryException.class, () -> inventoryService.deleteInventory(inventoryId));
+        assertEquals(100, inventoryService.getInventoryById(inventoryId).getQuantity());
+
+        // Lowering the row down to the reserved units is still allowed
+        inventoryService.updateInventory(inventoryId, InventoryDto.builder().quantity(80).build());
+        assertEquals(80, inventoryService.getInventoryById(inventoryId).getQuantity());
+        assertEquals(80, stockReservationService.getReservedQuantity(productId, warehouseId));
+    }
+
+    @Test
+    void confirmingTheHoldConsumesItsReservedUnits() {
+        StockReservationDto reservation = reserve(100);
+
+        StockReservationDto confirmed = stockReservationService.confirm(reservation.getId());
+
+        assertEquals(StockReservation.Status.CONFIRMED, confirmed.getStatus());
+        assertEquals(0, inventoryService.getInventoryById(inventoryId).getQuantity());
+        assertEquals(0, stockReservationService.getReservedQuantity(productId, warehouseId));
+    }
+
+    // The status write goes first in the allocation's transaction, so a row that is no longer HELD picks nothing
+    @Test
+    void confirmingARowNoLongerHeldPicksNothing() {
+        StockReservationDto reservation = reserve(30);
+        transactionTemplate.executeWithoutResult(status -> stockReservationRepository.updateStatus(
+                List.of(reservation.getId()), StockReservation.Status.HELD, StockReservation.Status.RELEASED));
+
+        assertThrows(ConflictException.class, () -> stockReservationService.confirm(reservation.getId()));
+        assertEquals(100, inventoryService.getInventoryById(inventoryId).getQuantity());
+        assertEquals(0, stockReservationService.getReservedQuantity(productId, warehouseId));
+    }
+
+    @Test
+    void onlyTheOwnerOrAManagerCanRelease() {
+        StockReservationDto first = reserve(10);
+        StockReservationDto second = reserve(10);
+
+        signIn("bob", "USER");
+        assertThrows(AccessDeniedException.class, () -> stockReservationService.release(first.getId()));
+        assertEquals(20, stockReservationService.getReservedQuantity(productId, warehouseId));
+
+        signIn("alice", "USER");
+        assertEquals(StockReservation.Status.RELEASED, stockReservationService.release(first.getId()).getStatus());
+        signIn("carol", "MANAGER");
+        assertEquals(StockReservation.Status.RELEASED, stockReservationService.release(second.getId()).getStatus());
+        assertEquals(0, stockReservationService.getReservedQuantity(productId, warehouseId));
+    }
+
+    @Test
+    void concurrentReservationsAndDecrementsNeverOversell() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger adjusted = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int thread = 0; thread < threads; thread++) {
+                boolean reserving = thread % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < 25; attempt++) {
+                        try {
+                            if (reserving) {
+                                reserve(1);
+                                reserved.incrementAndGet();
+                            } else {
+                                inventoryService.adjustInventory(inventoryId, -1, "Race");
+                                adjusted.incrementAndGet();
+                            }
+                        } catch (InsufficientInventoryException e) {
+                            // Expected once the stock is spoken for
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int onHand = inventoryService.getInventoryById(inventoryId).getQuantity();
+        assertEquals(100 - adjusted.get(), onHand);
+        assertEquals(reserved.get(), stockReservationService.getReservedQuantity(productId, warehouseId));
+        assertTrue(reserved.get() <= onHand, "Reserved " + reserved.get() + " of " + onHand + " on hand");
+        assertEquals(100, reserved.get() + adjusted.get());
+    }
+
+    private StockReservationDto reserve(int quantity) {
+        return stockReservationService.reserve(StockReservationRequest.builder()
+                .productId(productId)
+                .warehouseId(warehouseId)
+                .quantity(quantity)
+                .ttlSeconds(600L)
+                .build());
+    }
+
+    private Long createWarehouse(String name) {
+        WarehouseDto warehouse = warehouseService.createWarehouse(WarehouseDto.builder()
+                .name(name)
+                .address("Test")
+                .active(true)
+                .build());
+        return warehouse.getId();
+    }
+
+    private static void signIn(String username, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(username, null,
+                AuthorityUtils.createAuthorityList("ROLE_" + role)));
+    }
+}
@@ -0,0 +1,83 @@
+package com.ims.inventory_management_system.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StockLevelCodecTests {
+
+    @Test
+    void entriesDecodeToAbsoluteSlotsAndQuantities() {
+        // Series start before slot 0, so the first gap is the first slot plus one
+        byte[] data = concat(
+                StockLevelCodec.encodeEntry(1, 120),  // slot 0: 120
+                StockLevelCodec.encodeEntry(5, -20),  // slot 5: 100
+                StockLevelCodec.encodeEntry(1, 0),    // slot 6: unchanged quantity
+                StockLevelCodec.encodeEntry(700, -100));
+
+        assertEquals(List.of("0=120", "5=100", "6=100", "706=0"), decode(data));
+    }
+
+    @Test
+    void smallChangesTakeTwoBytes() {
+        assertEquals(2, StockLevelCodec.encodeEntry(1, 1).length);
+        assertEquals(2, StockLevelCodec.encodeEntry(24, -63).length);
+        assertEquals(3, StockLevelCodec.encodeEntry(24, 64).length);
+        assertEquals(3, StockLevelCodec.encodeEntry(128, 0).length);
+    }
+
+    @Test
+    void extremeDeltasRoundTrip() {
+        byte[] data = concat(
+                StockLevelCodec.encodeEntry(Integer.MAX_VALUE, Integer.MAX_VALUE),
+                StockLevelCodec.encodeEntry(1, -Integer.MAX_VALUE),
+                StockLevelCodec.encodeEntry(0, Integer.MIN_VALUE));
+
+        assertEquals(10, StockLevelCodec.encodeEntry(Integer.MAX_VALUE, Integer.MIN_VALUE).length);
+        assertEquals(List.of((Integer.MAX_VALUE - 1) + "=" + Integer.MAX_VALUE, Integer.MAX_VALUE + "=0",
+                Integer.MAX_VALUE + "=" + Integer.MIN_VALUE), decode(data));
+    }
+
+    @Test
+    void randomSeriesRoundTrip() {
+        Random random = new Random(17);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<String> expected = new ArrayList<>();
+        int slot = -1;
+        int quantity = 0;
+        for (int i = 0; i < 10_000; i++) {
+            int gap = random.nextInt(48) + 1;
+            int target = Math.max(0, quantity + random.nextInt(2_001) - 1_000);
+            out.writeBytes(StockLevelCodec.encodeEntry(gap, target - quantity));
+            slot += gap;
+            quantity = target;
+            expected.add(slot + "=" + quantity);
+        }
+
+        assertEquals(expected, decode(out.toByteArray()));
+    }
+
+    @Test
+    void emptySeriesDecodesToNothing() {
+        assertEquals(List.of(), decode(new byte[0]));
+    }
+
+    private static List<String> decode(byte[] data) {
+        List<String> entries = new ArrayList<>();
+        StockLevelCodec.decode(data, (slot, quantity) -> entries.add(slot + "=" + quantity));
+        return entries;
+    }
+
+    private static byte[] concat(byte[]... entries) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] entry : entries) {
+            out.writeBytes(entry);
+        }
+        return out.toByteArray();
+    }
+}